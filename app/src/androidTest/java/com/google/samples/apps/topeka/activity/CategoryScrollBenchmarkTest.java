@@ -0,0 +1,108 @@
+/*
+ * Copyright 2015 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.samples.apps.topeka.activity;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.rule.ActivityTestRule;
+import android.support.test.runner.AndroidJUnit4;
+import android.test.suitebuilder.annotation.LargeTest;
+
+import com.google.samples.apps.topeka.R;
+import com.google.samples.apps.topeka.benchmark.ContentGenerator;
+import com.google.samples.apps.topeka.helper.FrameMetricsCollector;
+import com.google.samples.apps.topeka.helper.PreferencesHelper;
+import com.google.samples.apps.topeka.model.Avatar;
+import com.google.samples.apps.topeka.model.Player;
+import com.google.samples.apps.topeka.persistence.TopekaDatabaseHelper;
+import com.google.samples.apps.topeka.rule.FrameMetricsRule;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static android.support.test.espresso.Espresso.onView;
+import static android.support.test.espresso.action.ViewActions.swipeDown;
+import static android.support.test.espresso.action.ViewActions.swipeUp;
+import static android.support.test.espresso.matcher.ViewMatchers.withId;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Measures frame times while scrolling through a large generated set of categories.
+ * <p>
+ * Only runs when requested, the content size can be passed as instrumentation arguments:
+ * <code>./gradlew connectedAndroidTest
+ * -Pandroid.testInstrumentationRunnerArguments.benchmark=true
+ * -Pandroid.testInstrumentationRunnerArguments.categories=1000</code>
+ * </p>
+ */
+@RunWith(AndroidJUnit4.class)
+@LargeTest
+public class CategoryScrollBenchmarkTest {
+
+    private static final String ARG_BENCHMARK = "benchmark";
+    private static final String ARG_CATEGORIES = "categories";
+    private static final int QUIZZES_PER_CATEGORY = 10;
+    private static final int SWIPES = 20;
+
+    @Rule
+    public ActivityTestRule<CategorySelectionActivity> mActivityRule =
+            new ActivityTestRule<>(CategorySelectionActivity.class, false, false);
+
+    @Rule
+    public FrameMetricsRule mFrameMetricsRule = new FrameMetricsRule();
+
+    private Context mTargetContext;
+
+    @Before
+    public void setUp() throws Exception {
+        final Bundle arguments = InstrumentationRegistry.getArguments();
+        assumeTrue(Boolean.parseBoolean(arguments.getString(ARG_BENCHMARK)));
+        final int categoryCount = Integer.parseInt(arguments.getString(ARG_CATEGORIES, "500"));
+        mTargetContext = InstrumentationRegistry.getTargetContext();
+        TopekaDatabaseHelper.replaceContent(mTargetContext,
+                new ContentGenerator(ContentGenerator.DEFAULT_SEED)
+                        .generate(categoryCount, QUIZZES_PER_CATEGORY));
+        final Player player = new Player("Zaphod", "B", Avatar.EIGHT);
+        PreferencesHelper.writeToPreferences(mTargetContext, player);
+        mActivityRule.launchActivity(
+                CategorySelectionActivity.getStartIntent(mTargetContext, player));
+    }
+
+    @After
+    public void restoreContent() {
+        if (mTargetContext != null) {
+            TopekaDatabaseHelper.restoreBundledContent(mTargetContext);
+        }
+    }
+
+    @Test
+    public void scrollCategories() {
+        for (int i = 0; i < SWIPES; i++) {
+            onView(withId(R.id.categories)).perform(swipeUp());
+        }
+        for (int i = 0; i < SWIPES; i++) {
+            onView(withId(R.id.categories)).perform(swipeDown());
+        }
+        assertThat(FrameMetricsCollector.getStats(FrameMetricsCollector.SCREEN_CATEGORIES,
+                FrameMetricsCollector.INTERACTION_SCROLL), notNullValue());
+    }
+}
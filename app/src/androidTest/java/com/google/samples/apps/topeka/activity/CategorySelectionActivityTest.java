@@ -32,6 +32,7 @@ import com.google.samples.apps.topeka.model.Category;
 import com.google.samples.apps.topeka.model.Player;
 import com.google.samples.apps.topeka.persistence.TopekaDatabaseHelper;
 import com.google.samples.apps.topeka.rule.AnimationAwareWonderTestRule;
+import com.google.samples.apps.topeka.rule.MainThreadIoRule;
 
 import org.junit.Before;
 import org.junit.Rule;
@@ -78,6 +79,9 @@ public class CategorySelectionActivityTest {
     public AnimationAwareWonderTestRule mAnimationAwareTestRule =
             new AnimationAwareWonderTestRule();
 
+    @Rule
+    public MainThreadIoRule mMainThreadIoRule = new MainThreadIoRule();
+
     @Before
     public void unlockScreen() {
         final CategorySelectionActivity activity = mActivityRule.getActivity();
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2015 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.samples.apps.topeka.activity;
+
+import android.content.Context;
+import android.os.Build;
+import android.os.Bundle;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.espresso.Espresso;
+import android.support.test.espresso.contrib.CountingIdlingResource;
+import android.support.test.rule.ActivityTestRule;
+import android.support.test.runner.AndroidJUnit4;
+import android.test.suitebuilder.annotation.LargeTest;
+
+import com.google.samples.apps.topeka.R;
+import com.google.samples.apps.topeka.SolveQuizUtil;
+import com.google.samples.apps.topeka.helper.ApiLevelHelper;
+import com.google.samples.apps.topeka.helper.FrameMetricsCollector;
+import com.google.samples.apps.topeka.helper.PreferencesHelper;
+import com.google.samples.apps.topeka.model.Avatar;
+import com.google.samples.apps.topeka.model.Category;
+import com.google.samples.apps.topeka.model.Player;
+import com.google.samples.apps.topeka.model.quiz.Quiz;
+import com.google.samples.apps.topeka.persistence.TopekaDatabaseHelper;
+import com.google.samples.apps.topeka.rule.FrameMetricsRule;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static android.support.test.espresso.Espresso.onView;
+import static android.support.test.espresso.action.ViewActions.click;
+import static android.support.test.espresso.matcher.ViewMatchers.isDisplayed;
+import static android.support.test.espresso.matcher.ViewMatchers.withId;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Measures frame times while playing through a category, covering the reveal of the quiz,
+ * answering and moving on to the next quiz.
+ * <p>
+ * Only runs when requested, the category can be passed as instrumentation arguments:
+ * <code>./gradlew connectedAndroidTest
+ * -Pandroid.testInstrumentationRunnerArguments.benchmark=true
+ * -Pandroid.testInstrumentationRunnerArguments.category=0</code>
+ * </p>
+ */
+@RunWith(AndroidJUnit4.class)
+@LargeTest
+public class QuizFlowBenchmarkTest {
+
+    private static final String ARG_BENCHMARK = "benchmark";
+    private static final String ARG_CATEGORY = "category";
+
+    @Rule
+    public ActivityTestRule<QuizActivity> mActivityRule =
+            new ActivityTestRule<>(QuizActivity.class, false, false);
+
+    @Rule
+    public FrameMetricsRule mFrameMetricsRule = new FrameMetricsRule();
+
+    private Category mCategory;
+    private CountingIdlingResource mIdlingResource;
+
+    @Before
+    public void setUp() {
+        final Bundle arguments = InstrumentationRegistry.getArguments();
+        assumeTrue(Boolean.parseBoolean(arguments.getString(ARG_BENCHMARK)));
+        final int categoryPosition = Integer.parseInt(arguments.getString(ARG_CATEGORY, "0"));
+        final Context targetContext = InstrumentationRegistry.getTargetContext();
+        TopekaDatabaseHelper.reset(targetContext);
+        PreferencesHelper.writeToPreferences(targetContext,
+                new Player("Zaphod", "B", Avatar.EIGHT));
+        mCategory = TopekaDatabaseHelper.getCategories(targetContext, false)
+                .get(categoryPosition);
+        mActivityRule.launchActivity(QuizActivity.getStartIntent(targetContext, mCategory));
+        mIdlingResource = mActivityRule.getActivity().getCountingIdlingResource();
+        Espresso.registerIdlingResources(mIdlingResource);
+    }
+
+    @After
+    public void unregisterIdlingResource() {
+        if (mIdlingResource != null) {
+            Espresso.unregisterIdlingResources(mIdlingResource);
+        }
+    }
+
+    @Test
+    public void playCategory() {
+        onView(withId(R.id.fab_quiz)).perform(click());
+        for (Quiz quiz : mCategory.getQuizzes()) {
+            SolveQuizUtil.solveQuiz(quiz);
+            onView(allOf(withId(R.id.submitAnswer), isDisplayed())).perform(click());
+        }
+        assertThat(FrameMetricsCollector.getStats(FrameMetricsCollector.SCREEN_QUIZ,
+                FrameMetricsCollector.INTERACTION_ANSWER), notNullValue());
+        if (ApiLevelHelper.isAtLeast(Build.VERSION_CODES.LOLLIPOP)) {
+            // The reveal and the quiz transition only animate on Lollipop and above.
+            assertThat(FrameMetricsCollector.getStats(FrameMetricsCollector.SCREEN_QUIZ,
+                    FrameMetricsCollector.INTERACTION_REVEAL), notNullValue());
+            assertThat(FrameMetricsCollector.getStats(FrameMetricsCollector.SCREEN_QUIZ,
+                    FrameMetricsCollector.INTERACTION_NEXT_QUIZ), notNullValue());
+        }
+    }
+}
@@ -27,6 +27,7 @@ import com.google.samples.apps.topeka.R;
 import com.google.samples.apps.topeka.helper.PreferencesHelper;
 import com.google.samples.apps.topeka.model.Avatar;
 import com.google.samples.apps.topeka.rule.AnimationAwareWonderTestRule;
+import com.google.samples.apps.topeka.rule.MainThreadIoRule;
 
 import org.hamcrest.Matcher;
 import org.junit.Before;
@@ -73,6 +74,9 @@ public class SignInActivityTest {
     public AnimationAwareWonderTestRule mAnimationAwareTestRule =
             new AnimationAwareWonderTestRule();
 
+    @Rule
+    public MainThreadIoRule mMainThreadIoRule = new MainThreadIoRule();
+
     @Before
     public void unlockScreen() {
         final SignInActivity activity = mActivityRule.getActivity();
@@ -33,8 +33,10 @@ import com.google.samples.apps.topeka.model.Avatar;
 import com.google.samples.apps.topeka.model.Category;
 import com.google.samples.apps.topeka.model.Player;
 import com.google.samples.apps.topeka.model.quiz.Quiz;
+import com.google.samples.apps.topeka.persistence.DatabaseMetrics;
 import com.google.samples.apps.topeka.persistence.TopekaDatabaseHelper;
 import com.google.samples.apps.topeka.rule.AnimationAwareWonderTestRule;
+import com.google.samples.apps.topeka.rule.MainThreadIoRule;
 
 import org.junit.After;
 import org.junit.Before;
@@ -50,7 +52,9 @@ import static android.support.test.espresso.assertion.ViewAssertions.matches;
 import static android.support.test.espresso.matcher.ViewMatchers.isDisplayed;
 import static android.support.test.espresso.matcher.ViewMatchers.withId;
 import static android.support.test.espresso.matcher.ViewMatchers.withText;
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.is;
 
 @RunWith(AndroidJUnit4.class)
 @LargeTest
@@ -69,6 +73,7 @@ public abstract class BaseQuizActivityTest {
                     TopekaDatabaseHelper.reset(targetContext);
                     PreferencesHelper.writeToPreferences(targetContext,
                             new Player("Zaphod", "B", Avatar.FIVE));
+                    DatabaseMetrics.reset();
                 }
 
                 @Override
@@ -84,6 +89,9 @@ public abstract class BaseQuizActivityTest {
     public final AnimationAwareWonderTestRule mAnimationAwareTestRule =
             new AnimationAwareWonderTestRule();
 
+    @Rule
+    public final MainThreadIoRule mMainThreadIoRule = new MainThreadIoRule();
+
     @Before
     public void unlockScreen() {
         final QuizActivity activity = mActivityRule.getActivity();
@@ -141,6 +149,13 @@ public abstract class BaseQuizActivityTest {
         testCategory();
     }
 
+    @Test
+    public void category_isLoadedOnce() {
+        onView(withId(R.id.fab_quiz)).perform(click());
+        assertThat(DatabaseMetrics.getCallCount(DatabaseMetrics.Operation.GET_CATEGORY_WITH),
+                is(1L));
+    }
+
     /**
      * End to end test for the given category.
      */
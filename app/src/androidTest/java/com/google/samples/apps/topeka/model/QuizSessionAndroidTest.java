@@ -0,0 +1,102 @@
+/*
+ * Copyright 2015 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.samples.apps.topeka.model;
+
+import android.os.Bundle;
+import android.os.Parcel;
+import android.support.test.runner.AndroidJUnit4;
+import android.test.suitebuilder.annotation.SmallTest;
+
+import com.google.samples.apps.topeka.model.quiz.FillBlankQuiz;
+import com.google.samples.apps.topeka.model.quiz.Quiz;
+import com.google.samples.apps.topeka.model.quiz.TrueFalseQuiz;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@SmallTest
+@RunWith(AndroidJUnit4.class)
+public class QuizSessionAndroidTest {
+
+    private static final String KEY_INPUT = "input";
+
+    private static Category getCategory() {
+        List<Quiz> quizzes = new ArrayList<>();
+        quizzes.add(new TrueFalseQuiz("huh?", true, true));
+        quizzes.add(new FillBlankQuiz("so?", "yeah", "go", "stop", false));
+        quizzes.add(new TrueFalseQuiz("really?", false, false));
+        return new Category("test", "testId", Theme.topeka, quizzes, false);
+    }
+
+    private static Bundle createInput(String value) {
+        Bundle input = new Bundle();
+        input.putString(KEY_INPUT, value);
+        return input;
+    }
+
+    @Test
+    public void newSession_startsAtFirstUnsolvedQuiz() {
+        assertThat(new QuizSession(getCategory()).getPosition(), is(1));
+    }
+
+    @Test
+    public void moveToNext_discardsInputOfAnsweredQuiz() {
+        final QuizSession session = new QuizSession(getCategory());
+        session.setInput(1, createInput("yea"));
+        session.setInput(2, createInput("no"));
+        assertThat(session.moveToNext(), is(2));
+        assertThat(session.getInput(1), nullValue());
+        assertThat(session.getInput(2).getString(KEY_INPUT), is("no"));
+        assertThat(session.isFinished(), is(false));
+        session.moveToNext();
+        assertThat(session.isFinished(), is(true));
+    }
+
+    @Test
+    public void elapsedTime_onlyCountsWhileResumed() {
+        final QuizSession session = new QuizSession(getCategory());
+        session.resume(1000);
+        assertThat(session.getElapsedMillis(1500), is(500L));
+        session.pause(2000);
+        assertThat(session.getElapsedMillis(5000), is(1000L));
+        session.resume(6000);
+        assertThat(session.getElapsedMillis(6250), is(1250L));
+    }
+
+    @Test
+    public void writeToParcel() {
+        final QuizSession session = new QuizSession(getCategory());
+        session.setInput(1, createInput("yea"));
+        session.resume(0);
+        session.pause(300);
+        Parcel dest = Parcel.obtain();
+        session.writeToParcel(dest, 0);
+        dest.setDataPosition(0);
+        QuizSession unparcelled = QuizSession.CREATOR.createFromParcel(dest);
+        dest.recycle();
+        assertThat(unparcelled.getCategory(), is(session.getCategory()));
+        assertThat(unparcelled.getPosition(), is(1));
+        assertThat(unparcelled.getElapsedMillis(1000), is(300L));
+        assertThat(unparcelled.getInput(1).getString(KEY_INPUT), is("yea"));
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2015 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.samples.apps.topeka.persistence;
+
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.support.test.runner.AndroidJUnit4;
+import android.test.suitebuilder.annotation.SmallTest;
+
+import com.google.samples.apps.topeka.model.Category;
+import com.google.samples.apps.topeka.model.quiz.Quiz;
+
+import org.json.JSONException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@SmallTest
+@RunWith(AndroidJUnit4.class)
+public class ContentDeltaAndroidTest {
+
+    private static final long PLAYER_ID = 1;
+
+    private static final String CONTENT = "[{\"id\": \"food\", \"name\": \"Food\","
+            + " \"theme\": \"green\", \"quizzes\": ["
+            + "{\"type\": \"true-false\", \"question\": \"One\", \"answer\": true},"
+            + "{\"type\": \"true-false\", \"question\": \"Two\", \"answer\": true},"
+            + "{\"type\": \"true-false\", \"question\": \"Three\", \"answer\": true}]},"
+            + "{\"id\": \"music\", \"name\": \"Music\", \"theme\": \"red\", \"quizzes\": ["
+            + "{\"type\": \"true-false\", \"question\": \"Four\", \"answer\": true}]}]";
+
+    private static final String DELTA = "{\"baseVersion\": 1, \"version\": 2,"
+            + " \"removedCategories\": [\"music\"],"
+            + " \"categories\": [{\"id\": \"food\", \"removedQuizzes\": [\"One\"], \"quizzes\": ["
+            + "{\"type\": \"true-false\", \"question\": \"Three\", \"answer\": false},"
+            + "{\"type\": \"true-false\", \"question\": \"Five\", \"answer\": true}]},"
+            + "{\"id\": \"sports\", \"name\": \"Sports\", \"theme\": \"blue\", \"quizzes\": ["
+            + "{\"type\": \"true-false\", \"question\": \"Six\", \"answer\": true}]}]}";
+
+    private SQLiteDatabase mDatabase;
+
+    @Before
+    public void setUp() throws JSONException {
+        mDatabase = SQLiteDatabase.create(null);
+        TopekaDatabaseHelper.createTables(mDatabase);
+        TopekaDatabaseHelper.fillCategoriesAndQuizzes(mDatabase, CONTENT);
+        ContentDelta.setVersion(mDatabase, ContentDelta.BUNDLED_VERSION);
+        solve("One");
+        solve("Three");
+        mDatabase.execSQL("INSERT INTO " + CategoryProgressTable.NAME + " VALUES (?, 'food', 1)",
+                new Object[]{PLAYER_ID});
+    }
+
+    private void solve(String question) {
+        mDatabase.execSQL("INSERT INTO " + QuizProgressTable.NAME + " SELECT ?, "
+                + QuizTable.COLUMN_ID + ", 1, 8 FROM " + QuizTable.NAME + " WHERE "
+                + QuizTable.COLUMN_QUESTION + "=?", new Object[]{PLAYER_ID, question});
+    }
+
+    @After
+    public void tearDown() {
+        mDatabase.close();
+    }
+
+    @Test
+    public void apply_keepsScoresOfRemainingQuizzes() throws JSONException {
+        ContentDelta.apply(mDatabase, DELTA);
+        final List<Category> categories = TopekaDatabaseHelper.loadCategories(mDatabase, PLAYER_ID);
+        assertThat(categories.size(), is(2));
+        final Category food = categories.get(0);
+        assertThat(food.getId(), is("food"));
+        final List<Quiz> quizzes = food.getQuizzes();
+        assertThat(quizzes.size(), is(3));
+        assertThat(quizzes.get(0).getQuestion(), is("Two"));
+        assertThat(quizzes.get(1).getQuestion(), is("Three"));
+        assertThat(quizzes.get(2).getQuestion(), is("Five"));
+        assertThat(food.getScores(), is(new int[]{0, 8, 0}));
+        assertThat(quizzes.get(1).isSolved(), is(true));
+        assertThat(categories.get(1).getId(), is("sports"));
+        assertThat(categories.get(1).getScores(), is(new int[]{0}));
+    }
+
+    @Test
+    public void apply_removesProgressOfRemovedContent() throws JSONException {
+        ContentDelta.apply(mDatabase, DELTA);
+        assertThat(DatabaseUtils.queryNumEntries(mDatabase, QuizProgressTable.NAME), is(1L));
+    }
+
+    @Test
+    public void apply_addedQuizzes_unsolveCategory() throws JSONException {
+        ContentDelta.apply(mDatabase, DELTA);
+        final Category food = TopekaDatabaseHelper.loadCategories(mDatabase, PLAYER_ID).get(0);
+        assertThat(food.isSolved(), is(false));
+    }
+
+    @Test
+    public void apply_doesNotShareProgressBetweenPlayers() throws JSONException {
+        ContentDelta.apply(mDatabase, DELTA);
+        final Category food = TopekaDatabaseHelper.loadCategories(mDatabase, PLAYER_ID + 1)
+                .get(0);
+        assertThat(food.getScores(), is(new int[]{0, 0, 0}));
+        assertThat(food.getQuizzes().get(1).isSolved(), is(false));
+    }
+
+    @Test
+    public void apply_updatesQuizzesInPlace() throws JSONException {
+        ContentDelta.apply(mDatabase, DELTA);
+        final Quiz three = TopekaDatabaseHelper.loadCategories(mDatabase, PLAYER_ID).get(0)
+                .getQuizzes().get(1);
+        assertThat(three.getStringAnswer(), is("false"));
+    }
+
+    @Test
+    public void apply_updatesVersion() throws JSONException {
+        ContentDelta.apply(mDatabase, DELTA);
+        assertThat(ContentDelta.getVersion(mDatabase), is(2));
+    }
+
+    @Test
+    public void apply_otherBaseVersion_isNotApplied() throws JSONException {
+        ContentDelta.setVersion(mDatabase, 3);
+        assertThat(ContentDelta.apply(mDatabase, DELTA), is(ContentDelta.NOT_APPLICABLE));
+        assertThat(TopekaDatabaseHelper.loadCategories(mDatabase, PLAYER_ID).size(), is(2));
+        assertThat(ContentDelta.getVersion(mDatabase), is(3));
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2015 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.samples.apps.topeka.persistence;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.support.test.runner.AndroidJUnit4;
+import android.test.suitebuilder.annotation.SmallTest;
+
+import com.google.samples.apps.topeka.model.Category;
+
+import org.json.JSONException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@SmallTest
+@RunWith(AndroidJUnit4.class)
+public class CursorTrackerAndroidTest {
+
+    private static final String CONTENT = "[{\"id\": \"food\", \"name\": \"Food\","
+            + " \"theme\": \"green\", \"quizzes\": ["
+            + "{\"type\": \"true-false\", \"question\": \"One\", \"answer\": true},"
+            + "{\"type\": \"true-false\", \"question\": \"Two\", \"answer\": true}]},"
+            + "{\"id\": \"music\", \"name\": \"Music\", \"theme\": \"red\", \"quizzes\": ["
+            + "{\"type\": \"true-false\", \"question\": \"Three\", \"answer\": true}]}]";
+
+    private SQLiteDatabase mDatabase;
+    private boolean mWasEnabled;
+
+    @Before
+    public void setUp() throws JSONException {
+        mWasEnabled = CursorTracker.isEnabled();
+        CursorTracker.setEnabled(true);
+        mDatabase = SQLiteDatabase.create(null);
+        TopekaDatabaseHelper.createTables(mDatabase);
+        TopekaDatabaseHelper.fillCategoriesAndQuizzes(mDatabase, CONTENT);
+    }
+
+    @After
+    public void tearDown() {
+        mDatabase.close();
+        CursorTracker.setEnabled(mWasEnabled);
+    }
+
+    @Test
+    public void loadCategories_closesAllCursors() {
+        final List<Category> categories = TopekaDatabaseHelper.loadCategories(mDatabase, 0);
+        assertThat(CursorTracker.getOpenCursors().isEmpty(), is(true));
+        // the quizzes are read through a shared window, which must not mix up their rows
+        assertThat(categories.size(), is(2));
+        assertThat(categories.get(0).getQuizzes().size(), is(2));
+        assertThat(categories.get(0).getQuizzes().get(1).getQuestion(), is("Two"));
+        assertThat(categories.get(1).getQuizzes().size(), is(1));
+        assertThat(categories.get(1).getQuizzes().get(0).getQuestion(), is("Three"));
+    }
+
+    @Test
+    public void openCursor_isReportedWithItsOrigin() {
+        final Cursor cursor = CursorTracker.track(mDatabase.rawQuery("SELECT 1", null));
+        final List<CursorTracker.Origin> openCursors = CursorTracker.getOpenCursors();
+        assertThat(openCursors.size(), is(1));
+        assertThat(openCursors.get(0).getCallSite(),
+                is("CursorTrackerAndroidTest.openCursor_isReportedWithItsOrigin"));
+        cursor.close();
+        assertThat(CursorTracker.getOpenCursors().isEmpty(), is(true));
+    }
+
+    @Test
+    public void disabled_passesCursorThrough() {
+        CursorTracker.setEnabled(false);
+        final Cursor cursor = mDatabase.rawQuery("SELECT 1", null);
+        try {
+            assertThat(CursorTracker.track(cursor) == cursor, is(true));
+        } finally {
+            cursor.close();
+        }
+    }
+}
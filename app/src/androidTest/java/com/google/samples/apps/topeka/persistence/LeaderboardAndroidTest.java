@@ -0,0 +1,146 @@
+/*
+ * Copyright 2015 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.samples.apps.topeka.persistence;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.support.test.runner.AndroidJUnit4;
+import android.test.suitebuilder.annotation.SmallTest;
+
+import com.google.samples.apps.topeka.model.Avatar;
+import com.google.samples.apps.topeka.model.Category;
+import com.google.samples.apps.topeka.model.LeaderboardEntry;
+import com.google.samples.apps.topeka.model.Player;
+import com.google.samples.apps.topeka.model.quiz.Quiz;
+
+import org.json.JSONException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@SmallTest
+@RunWith(AndroidJUnit4.class)
+public class LeaderboardAndroidTest {
+
+    private static final String CONTENT = "[{\"id\": \"food\", \"name\": \"Food\","
+            + " \"theme\": \"green\", \"quizzes\": ["
+            + "{\"type\": \"true-false\", \"question\": \"One\", \"answer\": true},"
+            + "{\"type\": \"true-false\", \"question\": \"Two\", \"answer\": true}]},"
+            + "{\"id\": \"music\", \"name\": \"Music\", \"theme\": \"red\", \"quizzes\": ["
+            + "{\"type\": \"true-false\", \"question\": \"Three\", \"answer\": true}]}]";
+
+    private static final Player ALICE = new Player("Alice", "A", Avatar.ONE);
+    private static final Player BOB = new Player("Bob", "B", Avatar.TWO);
+
+    private SQLiteDatabase mDatabase;
+    private long mAliceId;
+    private long mBobId;
+
+    @Before
+    public void setUp() throws JSONException {
+        mDatabase = SQLiteDatabase.create(null);
+        TopekaDatabaseHelper.createTables(mDatabase);
+        TopekaDatabaseHelper.fillCategoriesAndQuizzes(mDatabase, CONTENT);
+        mAliceId = TopekaDatabaseHelper.getOrCreatePlayerId(mDatabase, ALICE);
+        mBobId = TopekaDatabaseHelper.getOrCreatePlayerId(mDatabase, BOB);
+        solve(mAliceId, 0, 0, true);
+        solve(mAliceId, 0, 1, true);
+        solve(mBobId, 1, 0, true);
+    }
+
+    private void solve(long playerId, int categoryIndex, int quizIndex, boolean correctly) {
+        final Category category = TopekaDatabaseHelper.loadCategories(mDatabase, playerId)
+                .get(categoryIndex);
+        final Quiz quiz = category.getQuizzes().get(quizIndex);
+        quiz.setSolved(true);
+        category.setScore(quiz, correctly);
+        TopekaDatabaseHelper.updateProgress(mDatabase, category, playerId);
+    }
+
+    @After
+    public void tearDown() {
+        mDatabase.close();
+    }
+
+    @Test
+    public void categoryNames_inStoredOrder() {
+        final Map<String, String> names = TopekaDatabaseHelper.getCategoryNames(mDatabase);
+        assertThat(new ArrayList<>(names.keySet()), is(Arrays.asList("food", "music")));
+        assertThat(names.get("food"), is("Food"));
+        assertThat(names.get("music"), is("Music"));
+    }
+
+    @Test
+    public void overall_ordersByTotalScore() {
+        final List<LeaderboardEntry> leaderboard =
+                TopekaDatabaseHelper.getLeaderboard(mDatabase, null, 10);
+        assertThat(leaderboard.size(), is(2));
+        assertThat(leaderboard.get(0).getPlayer(), is(ALICE));
+        assertThat(leaderboard.get(0).getScore(), is(16));
+        assertThat(leaderboard.get(1).getPlayer(), is(BOB));
+        assertThat(leaderboard.get(1).getScore(), is(8));
+    }
+
+    @Test
+    public void overall_respectsLimit() {
+        final List<LeaderboardEntry> leaderboard =
+                TopekaDatabaseHelper.getLeaderboard(mDatabase, null, 1);
+        assertThat(leaderboard.size(), is(1));
+        assertThat(leaderboard.get(0).getPlayer(), is(ALICE));
+    }
+
+    @Test
+    public void category_onlyRanksScoresOfCategory() {
+        final List<LeaderboardEntry> leaderboard =
+                TopekaDatabaseHelper.getLeaderboard(mDatabase, "music", 10);
+        assertThat(leaderboard.size(), is(1));
+        assertThat(leaderboard.get(0).getPlayer(), is(BOB));
+        assertThat(leaderboard.get(0).getScore(), is(8));
+    }
+
+    @Test
+    public void changedScore_updatesLeaderboards() {
+        solve(mBobId, 0, 0, false);
+        assertThat(TopekaDatabaseHelper.getLeaderboard(mDatabase, "food", 10).size(), is(1));
+        solve(mBobId, 0, 0, true);
+        final List<LeaderboardEntry> food =
+                TopekaDatabaseHelper.getLeaderboard(mDatabase, "food", 10);
+        assertThat(food.size(), is(2));
+        assertThat(food.get(1).getPlayer(), is(BOB));
+        assertThat(food.get(1).getScore(), is(8));
+        assertThat(TopekaDatabaseHelper.getLeaderboard(mDatabase, null, 10).get(1).getScore(),
+                is(16));
+    }
+
+    @Test
+    public void removedProgress_removesPlayer() {
+        mDatabase.delete(QuizProgressTable.NAME, QuizProgressTable.FK_PLAYER + "=?",
+                new String[]{String.valueOf(mAliceId)});
+        final List<LeaderboardEntry> leaderboard =
+                TopekaDatabaseHelper.getLeaderboard(mDatabase, null, 10);
+        assertThat(leaderboard.size(), is(1));
+        assertThat(leaderboard.get(0).getPlayer(), is(BOB));
+        assertThat(TopekaDatabaseHelper.getLeaderboard(mDatabase, "food", 10).size(), is(0));
+    }
+}
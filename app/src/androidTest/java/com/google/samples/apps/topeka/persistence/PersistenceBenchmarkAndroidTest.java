@@ -0,0 +1,353 @@
+/*
+ * Copyright 2015 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.samples.apps.topeka.persistence;
+
+import android.content.Context;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.os.Bundle;
+import android.os.SystemClock;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.test.suitebuilder.annotation.LargeTest;
+import android.util.Log;
+
+import com.google.samples.apps.topeka.benchmark.ContentGenerator;
+import com.google.samples.apps.topeka.helper.StringPool;
+import com.google.samples.apps.topeka.model.Avatar;
+import com.google.samples.apps.topeka.model.Category;
+import com.google.samples.apps.topeka.model.LeaderboardEntry;
+import com.google.samples.apps.topeka.model.Player;
+import com.google.samples.apps.topeka.model.SearchResult;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Measures pre-filling and loading the database with generated content, the heap used by
+ * loaded content, as well as searching it, querying leaderboards of many players and loading
+ * it while progress is written concurrently.
+ * <p>
+ * Only runs when requested, sizes and seed can be passed as instrumentation arguments:
+ * <code>./gradlew connectedAndroidTest
+ * -Pandroid.testInstrumentationRunnerArguments.benchmark=true
+ * -Pandroid.testInstrumentationRunnerArguments.categories=1000
+ * -Pandroid.testInstrumentationRunnerArguments.quizzesPerCategory=100
+ * -Pandroid.testInstrumentationRunnerArguments.players=10000</code>
+ * Searches and heap usage should be measured with at least 100,000 quizzes, e.g. 1000
+ * categories with 100 quizzes each.
+ * </p>
+ */
+@LargeTest
+@RunWith(AndroidJUnit4.class)
+public class PersistenceBenchmarkAndroidTest {
+
+    private static final String TAG = "PersistenceBenchmark";
+    private static final String ARG_BENCHMARK = "benchmark";
+    private static final String ARG_CATEGORIES = "categories";
+    private static final String ARG_QUIZZES_PER_CATEGORY = "quizzesPerCategory";
+    private static final String ARG_SEED = "seed";
+    private static final String ARG_PLAYERS = "players";
+    private static final int QUIZZES_PER_PLAYER = 10;
+    private static final int MAX_QUIZ_SCORE = 8;
+    private static final int LEADERBOARD_SIZE = 100;
+    private static final int QUERY_REPETITIONS = 50;
+    private static final int MAX_SEARCH_RESULTS = 50;
+    private static final int LOAD_REPETITIONS = 10;
+    private static final String CONCURRENCY_DATABASE = "concurrency_benchmark.db";
+    /**
+     * Texts as typed by a user: rare and common words, prefixes and category names.
+     */
+    private static final String[] SEARCH_TEXTS = {"question 1.2", "foxtrot", "fox", "fo",
+            "tango romeo", "category 7"};
+
+    private SQLiteDatabase mDatabase;
+    private int mCategoryCount;
+    private int mQuizzesPerCategory;
+    private int mPlayerCount;
+    private long mSeed;
+    private String mContent;
+
+    @Before
+    public void setUp() {
+        final Bundle arguments = InstrumentationRegistry.getArguments();
+        assumeTrue(Boolean.parseBoolean(arguments.getString(ARG_BENCHMARK)));
+        mCategoryCount = Integer.parseInt(arguments.getString(ARG_CATEGORIES, "200"));
+        mQuizzesPerCategory =
+                Integer.parseInt(arguments.getString(ARG_QUIZZES_PER_CATEGORY, "50"));
+        mPlayerCount = Integer.parseInt(arguments.getString(ARG_PLAYERS, "10000"));
+        mSeed = Long.parseLong(arguments.getString(ARG_SEED,
+                String.valueOf(ContentGenerator.DEFAULT_SEED)));
+        mContent = new ContentGenerator(mSeed).generate(mCategoryCount, mQuizzesPerCategory);
+        Log.i(TAG, "Generated " + mCategoryCount + " categories with " + mQuizzesPerCategory
+                + " quizzes each");
+
+        mDatabase = SQLiteDatabase.create(null);
+        TopekaDatabaseHelper.createTables(mDatabase);
+    }
+
+    @After
+    public void tearDown() {
+        StringPool.setEnabled(true);
+        if (mDatabase != null) {
+            mDatabase.close();
+        }
+    }
+
+    @Test
+    public void preFillAndLoad() throws Exception {
+        long start = SystemClock.elapsedRealtime();
+        mDatabase.beginTransaction();
+        try {
+            TopekaDatabaseHelper.fillCategoriesAndQuizzes(mDatabase, mContent);
+            mDatabase.setTransactionSuccessful();
+        } finally {
+            mDatabase.endTransaction();
+        }
+        Log.i(TAG, "Pre-fill took " + (SystemClock.elapsedRealtime() - start) + "ms");
+
+        start = SystemClock.elapsedRealtime();
+        final List<Category> categories = TopekaDatabaseHelper.loadCategories(mDatabase, 0);
+        Log.i(TAG, "Loading categories took " + (SystemClock.elapsedRealtime() - start) + "ms");
+        assertThat(categories.size(), is(mCategoryCount));
+    }
+
+    @Test
+    public void stringPoolHeapUsage() throws Exception {
+        mDatabase.beginTransaction();
+        try {
+            TopekaDatabaseHelper.fillCategoriesAndQuizzes(mDatabase, mContent);
+            mDatabase.setTransactionSuccessful();
+        } finally {
+            mDatabase.endTransaction();
+        }
+        // The generated json isn't needed anymore and would only blur the measurement.
+        mContent = null;
+
+        StringPool.setEnabled(false);
+        long heapBefore = getUsedHeap();
+        List<Category> categories = TopekaDatabaseHelper.loadCategories(mDatabase, 0);
+        final long unpooledHeap = getUsedHeap() - heapBefore;
+        assertThat(categories.size(), is(mCategoryCount));
+        //noinspection UnusedAssignment, releases the categories before measuring again
+        categories = null;
+
+        StringPool.setEnabled(true);
+        StringPool.clear();
+        heapBefore = getUsedHeap();
+        categories = TopekaDatabaseHelper.loadCategories(mDatabase, 0);
+        final long pooledHeap = getUsedHeap() - heapBefore;
+        assertThat(categories.size(), is(mCategoryCount));
+        Log.i(TAG, "Loaded content uses " + unpooledHeap / 1024 + "KiB without and "
+                + pooledHeap / 1024 + "KiB with the string pool, which holds "
+                + StringPool.size() + " strings");
+    }
+
+    @Test
+    public void search() throws Exception {
+        long start = SystemClock.elapsedRealtime();
+        mDatabase.beginTransaction();
+        try {
+            TopekaDatabaseHelper.fillCategoriesAndQuizzes(mDatabase, mContent);
+            mDatabase.setTransactionSuccessful();
+        } finally {
+            mDatabase.endTransaction();
+        }
+        Log.i(TAG, "Pre-fill including the search index took "
+                + (SystemClock.elapsedRealtime() - start) + "ms");
+
+        for (String text : SEARCH_TEXTS) {
+            List<SearchResult> results = null;
+            start = SystemClock.elapsedRealtime();
+            for (int i = 0; i < QUERY_REPETITIONS; i++) {
+                results = TopekaDatabaseHelper.search(mDatabase, text, MAX_SEARCH_RESULTS);
+            }
+            logQueryTime("search for \"" + text + "\"", start);
+            assertThat(results.isEmpty(), is(false));
+        }
+    }
+
+    @Test
+    public void leaderboards() throws Exception {
+        mDatabase.beginTransaction();
+        try {
+            TopekaDatabaseHelper.fillCategoriesAndQuizzes(mDatabase, mContent);
+            mDatabase.setTransactionSuccessful();
+        } finally {
+            mDatabase.endTransaction();
+        }
+        final int[] totalScores = new int[mPlayerCount];
+        long start = SystemClock.elapsedRealtime();
+        fillProgress(totalScores);
+        Log.i(TAG, "Storing progress of " + mPlayerCount + " players took "
+                + (SystemClock.elapsedRealtime() - start) + "ms");
+        int bestScore = 0;
+        for (int totalScore : totalScores) {
+            bestScore = Math.max(bestScore, totalScore);
+        }
+
+        List<LeaderboardEntry> leaderboard = null;
+        start = SystemClock.elapsedRealtime();
+        for (int i = 0; i < QUERY_REPETITIONS; i++) {
+            leaderboard = TopekaDatabaseHelper.getLeaderboard(mDatabase, null, LEADERBOARD_SIZE);
+        }
+        logQueryTime("overall leaderboard", start);
+        assertThat(leaderboard.get(0).getScore(), is(bestScore));
+
+        final String categoryId = ContentGenerator.getCategoryId(0);
+        start = SystemClock.elapsedRealtime();
+        for (int i = 0; i < QUERY_REPETITIONS; i++) {
+            leaderboard = TopekaDatabaseHelper.getLeaderboard(mDatabase, categoryId,
+                    LEADERBOARD_SIZE);
+        }
+        logQueryTime("category leaderboard", start);
+
+        // ranking by scanning all progress, for comparison
+        start = SystemClock.elapsedRealtime();
+        for (int i = 0; i < QUERY_REPETITIONS; i++) {
+            DatabaseUtils.longForQuery(mDatabase, "SELECT SUM(" + QuizProgressTable.COLUMN_SCORE
+                    + ") AS total FROM " + QuizProgressTable.NAME + " GROUP BY "
+                    + QuizProgressTable.FK_PLAYER + " ORDER BY total DESC LIMIT 1", null);
+        }
+        logQueryTime("progress scan", start);
+    }
+
+    @Test
+    public void loadWhileWriting() throws Exception {
+        final String rollbackJournal = loadWhileWriting(false);
+        final String writeAheadLog = loadWhileWriting(true);
+        Log.i(TAG, "Loading categories while writing progress took " + rollbackJournal
+                + " with a rollback journal and " + writeAheadLog + " with write-ahead logging");
+    }
+
+    /**
+     * Loads categories repeatedly from a database file, while another thread keeps storing
+     * progress through the same database object like the app does.
+     *
+     * @return Percentiles of the loading latency.
+     */
+    private String loadWhileWriting(boolean writeAheadLogging) throws Exception {
+        final Context context = InstrumentationRegistry.getTargetContext();
+        context.deleteDatabase(CONCURRENCY_DATABASE);
+        // write-ahead logging has no effect on in-memory databases
+        final SQLiteDatabase database = SQLiteDatabase.openOrCreateDatabase(
+                context.getDatabasePath(CONCURRENCY_DATABASE), null);
+        final boolean metricsEnabled = DatabaseMetrics.isEnabled();
+        try {
+            if (writeAheadLogging) {
+                database.enableWriteAheadLogging();
+            }
+            TopekaDatabaseHelper.createTables(database);
+            database.beginTransaction();
+            try {
+                TopekaDatabaseHelper.fillCategoriesAndQuizzes(database, mContent);
+                database.setTransactionSuccessful();
+            } finally {
+                database.endTransaction();
+            }
+            final long playerId = TopekaDatabaseHelper.getOrCreatePlayerId(database,
+                    new Player("Writer", "W", Avatar.ONE));
+            final List<Category> categories =
+                    TopekaDatabaseHelper.loadCategories(database, playerId);
+
+            final AtomicBoolean writing = new AtomicBoolean(true);
+            final Thread writer = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; writing.get(); i++) {
+                        TopekaDatabaseHelper.updateProgress(database,
+                                categories.get(i % categories.size()), playerId);
+                    }
+                }
+            });
+            DatabaseMetrics.setEnabled(true);
+            DatabaseMetrics.reset();
+            writer.start();
+            try {
+                for (int i = 0; i < LOAD_REPETITIONS; i++) {
+                    TopekaDatabaseHelper.loadCategories(database, playerId);
+                }
+            } finally {
+                writing.set(false);
+                writer.join();
+            }
+            final DatabaseMetrics.Operation load = DatabaseMetrics.Operation.LOAD_CATEGORIES;
+            return "p50 <" + DatabaseMetrics.getPercentileMicros(load, 50) + "us, p90 <"
+                    + DatabaseMetrics.getPercentileMicros(load, 90) + "us";
+        } finally {
+            DatabaseMetrics.setEnabled(metricsEnabled);
+            database.close();
+            context.deleteDatabase(CONCURRENCY_DATABASE);
+        }
+    }
+
+    /**
+     * Lets each player solve random quizzes, summing up their scores.
+     */
+    private void fillProgress(int[] totalScores) {
+        final Random random = new Random(mSeed);
+        final int quizCount = mCategoryCount * mQuizzesPerCategory;
+        final Avatar[] avatars = Avatar.values();
+        final SQLiteStatement solve = mDatabase.compileStatement("INSERT OR IGNORE INTO "
+                + QuizProgressTable.NAME + " VALUES (?, ?, 1, ?)");
+        mDatabase.beginTransaction();
+        try {
+            for (int i = 0; i < mPlayerCount; i++) {
+                final long playerId = TopekaDatabaseHelper.getOrCreatePlayerId(mDatabase,
+                        new Player("Player" + i, "B", avatars[i % avatars.length]));
+                for (int j = 0; j < QUIZZES_PER_PLAYER; j++) {
+                    final int score = 1 + random.nextInt(MAX_QUIZ_SCORE);
+                    solve.bindLong(1, playerId);
+                    // quiz ids start at 1 in a freshly filled database
+                    solve.bindLong(2, 1 + random.nextInt(quizCount));
+                    solve.bindLong(3, score);
+                    if (solve.executeInsert() != -1) {
+                        totalScores[i] += score;
+                    }
+                }
+            }
+            mDatabase.setTransactionSuccessful();
+        } finally {
+            mDatabase.endTransaction();
+            solve.close();
+        }
+    }
+
+    private static long getUsedHeap() {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            runtime.gc();
+            System.runFinalization();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static void logQueryTime(String query, long start) {
+        final long micros = (SystemClock.elapsedRealtime() - start) * 1000 / QUERY_REPETITIONS;
+        Log.i(TAG, "Querying the " + query + " took " + micros + "us on average");
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2015 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.samples.apps.topeka.persistence;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.support.test.runner.AndroidJUnit4;
+import android.test.suitebuilder.annotation.SmallTest;
+
+import com.google.samples.apps.topeka.model.SearchResult;
+
+import org.json.JSONException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@SmallTest
+@RunWith(AndroidJUnit4.class)
+public class SearchAndroidTest {
+
+    private static final String CONTENT = "[{\"id\": \"geography\", \"name\": \"Geography\","
+            + " \"theme\": \"green\", \"quizzes\": ["
+            + "{\"type\": \"single-select\", \"question\": \"Capital of Italy?\","
+            + " \"answer\": [0], \"options\": [\"Rome\", \"Paris\"]},"
+            + "{\"type\": \"true-false\", \"question\": \"Is Paris in France?\","
+            + " \"answer\": true}]},"
+            + "{\"id\": \"music\", \"name\": \"Music\", \"theme\": \"red\", \"quizzes\": ["
+            + "{\"type\": \"true-false\", \"question\": \"Is Italy known for opera?\","
+            + " \"answer\": true}]}]";
+
+    private static final String DELTA = "{\"baseVersion\": 1, \"version\": 2,"
+            + " \"categories\": [{\"id\": \"geography\", \"name\": \"Places\","
+            + " \"removedQuizzes\": [\"Is Paris in France?\"], \"quizzes\": ["
+            + "{\"type\": \"single-select\", \"question\": \"Capital of Italy?\","
+            + " \"answer\": [0], \"options\": [\"Rome\", \"Milan\"]}]}]}";
+
+    private SQLiteDatabase mDatabase;
+
+    @Before
+    public void setUp() throws JSONException {
+        mDatabase = SQLiteDatabase.create(null);
+        TopekaDatabaseHelper.createTables(mDatabase);
+        TopekaDatabaseHelper.fillCategoriesAndQuizzes(mDatabase, CONTENT);
+        ContentDelta.setVersion(mDatabase, ContentDelta.BUNDLED_VERSION);
+    }
+
+    @After
+    public void tearDown() {
+        mDatabase.close();
+    }
+
+    private List<SearchResult> search(String text) {
+        return TopekaDatabaseHelper.search(mDatabase, text, 10);
+    }
+
+    @Test
+    public void search_findsQuestions() {
+        final List<SearchResult> results = search("capital");
+        assertThat(results.size(), is(1));
+        assertThat(results.get(0).getQuestion(), is("Capital of Italy?"));
+        assertThat(results.get(0).getCategoryId(), is("geography"));
+        assertThat(results.get(0).getCategoryName(), is("Geography"));
+    }
+
+    @Test
+    public void search_findsOptionsAndCategoryNames() {
+        assertThat(search("rome").size(), is(1));
+        assertThat(search("mus").get(0).getCategoryId(), is("music"));
+    }
+
+    @Test
+    public void search_matchesAllWordsAsPrefixes() {
+        assertThat(search("ital").size(), is(2));
+        assertThat(search("ital par").size(), is(1));
+    }
+
+    @Test
+    public void search_tooShort_findsNothing() {
+        assertThat(search("i").size(), is(0));
+    }
+
+    @Test
+    public void delta_updatesIndex() throws JSONException {
+        ContentDelta.apply(mDatabase, DELTA);
+        assertThat(search("geography").size(), is(0));
+        assertThat(search("places").size(), is(1));
+        assertThat(search("france").size(), is(0));
+        assertThat(search("paris").size(), is(0));
+        assertThat(search("milan").size(), is(1));
+    }
+
+    @Test
+    public void replacedContent_isRemovedFromIndex() {
+        mDatabase.delete(QuizTable.NAME, null, null);
+        assertThat(search("italy").size(), is(0));
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2015 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.samples.apps.topeka.persistence;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.support.test.runner.AndroidJUnit4;
+import android.test.suitebuilder.annotation.SmallTest;
+
+import com.google.samples.apps.topeka.model.Avatar;
+import com.google.samples.apps.topeka.model.Category;
+import com.google.samples.apps.topeka.model.LeaderboardEntry;
+import com.google.samples.apps.topeka.model.Player;
+import com.google.samples.apps.topeka.model.SearchResult;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@SmallTest
+@RunWith(AndroidJUnit4.class)
+public class UpgradeAndroidTest {
+
+    /*
+     * Schemas of older database versions are spelled out, as the table definitions only
+     * describe the current version.
+     */
+    private static final String CATEGORY_TABLE_V1 = "CREATE TABLE category ("
+            + "_id TEXT PRIMARY KEY, name TEXT NOT NULL, theme TEXT NOT NULL,"
+            + " solved TEXT NOT NULL, scores TEXT);";
+    private static final String QUIZ_TABLE_V1 = "CREATE TABLE quiz ("
+            + "_id INTEGER PRIMARY KEY, fk_category REFERENCES category(_id),"
+            + " type TEXT NOT NULL, question TEXT NOT NULL, answer TEXT NOT NULL, options TEXT,"
+            + " min TEXT, max TEXT, step TEXT, start TEXT, end TEXT, solved);";
+    private static final String CATEGORY_TABLE_V3 = "CREATE TABLE category ("
+            + "_id TEXT PRIMARY KEY, name TEXT NOT NULL, theme TEXT NOT NULL);";
+    private static final String QUIZ_TABLE_V3 = "CREATE TABLE quiz ("
+            + "_id INTEGER PRIMARY KEY, fk_category REFERENCES category(_id),"
+            + " type TEXT NOT NULL, question TEXT NOT NULL, answer TEXT NOT NULL, options TEXT,"
+            + " min TEXT, max TEXT, step TEXT, start TEXT, end TEXT);";
+    private static final String CONTENT_TABLE_V3 =
+            "CREATE TABLE content (version INTEGER NOT NULL);";
+    private static final String CATEGORY_PROGRESS_TABLE_V3 = "CREATE TABLE category_progress ("
+            + "fk_category TEXT PRIMARY KEY REFERENCES category(_id),"
+            + " solved INTEGER NOT NULL);";
+    private static final String QUIZ_PROGRESS_TABLE_V3 = "CREATE TABLE quiz_progress ("
+            + "fk_quiz INTEGER PRIMARY KEY REFERENCES quiz(_id),"
+            + " solved INTEGER NOT NULL, score INTEGER NOT NULL);";
+
+    private static final Player ALICE = new Player("Alice", "A", Avatar.ONE);
+
+    private SQLiteDatabase mDatabase;
+
+    @Before
+    public void setUp() {
+        mDatabase = SQLiteDatabase.create(null);
+    }
+
+    @After
+    public void tearDown() {
+        mDatabase.close();
+    }
+
+    @Test
+    public void upgradeFromVersion1_movesProgressToPlayer() {
+        mDatabase.execSQL(CATEGORY_TABLE_V1);
+        mDatabase.execSQL(QUIZ_TABLE_V1);
+        // version 1 stores the progress along with the content
+        mDatabase.execSQL("INSERT INTO category VALUES ('food', 'Food', 'green', 1, '[8,0]')");
+        mDatabase.execSQL("INSERT INTO category VALUES ('music', 'Music', 'red', 0, '[0]')");
+        mDatabase.execSQL("INSERT INTO quiz (_id, fk_category, type, question, answer, solved)"
+                + " VALUES (1, 'food', 'true-false', 'Is pizza from Italy?', 'true', 1)");
+        mDatabase.execSQL("INSERT INTO quiz (_id, fk_category, type, question, answer, solved)"
+                + " VALUES (2, 'food', 'true-false', 'Is sushi from Spain?', 'false', 1)");
+        mDatabase.execSQL("INSERT INTO quiz (_id, fk_category, type, question, answer, solved)"
+                + " VALUES (3, 'music', 'true-false', 'Is opera sung?', 'true', 0)");
+
+        TopekaDatabaseHelper.upgrade(mDatabase, 1, ALICE);
+
+        assertUpgraded();
+    }
+
+    @Test
+    public void upgradeFromVersion3_addsPlayerToProgress() {
+        mDatabase.execSQL(CATEGORY_TABLE_V3);
+        mDatabase.execSQL(QUIZ_TABLE_V3);
+        mDatabase.execSQL(CONTENT_TABLE_V3);
+        mDatabase.execSQL(CATEGORY_PROGRESS_TABLE_V3);
+        mDatabase.execSQL(QUIZ_PROGRESS_TABLE_V3);
+        mDatabase.execSQL("INSERT INTO content VALUES (" + ContentDelta.BUNDLED_VERSION + ")");
+        mDatabase.execSQL("INSERT INTO category VALUES ('food', 'Food', 'green')");
+        mDatabase.execSQL("INSERT INTO category VALUES ('music', 'Music', 'red')");
+        mDatabase.execSQL("INSERT INTO quiz (_id, fk_category, type, question, answer)"
+                + " VALUES (1, 'food', 'true-false', 'Is pizza from Italy?', 'true')");
+        mDatabase.execSQL("INSERT INTO quiz (_id, fk_category, type, question, answer)"
+                + " VALUES (2, 'food', 'true-false', 'Is sushi from Spain?', 'false')");
+        mDatabase.execSQL("INSERT INTO quiz (_id, fk_category, type, question, answer)"
+                + " VALUES (3, 'music', 'true-false', 'Is opera sung?', 'true')");
+        // version 3 keeps progress in its own tables, but not per player yet
+        mDatabase.execSQL("INSERT INTO category_progress VALUES ('food', 1)");
+        mDatabase.execSQL("INSERT INTO quiz_progress VALUES (1, 1, 8)");
+        mDatabase.execSQL("INSERT INTO quiz_progress VALUES (2, 1, 0)");
+
+        TopekaDatabaseHelper.upgrade(mDatabase, 3, ALICE);
+
+        assertUpgraded();
+    }
+
+    /**
+     * Checks that the content and progress stored by the tests are available to the player
+     * after the upgrade.
+     */
+    private void assertUpgraded() {
+        final long aliceId = TopekaDatabaseHelper.getOrCreatePlayerId(mDatabase, ALICE);
+        final List<Category> categories = TopekaDatabaseHelper.loadCategories(mDatabase, aliceId);
+        assertThat(categories.size(), is(2));
+        final Category food = categories.get(0);
+        assertThat(food.getId(), is("food"));
+        assertThat(food.isSolved(), is(true));
+        assertThat(food.getQuizzes().get(0).isSolved(), is(true));
+        assertThat(food.getQuizzes().get(1).isSolved(), is(true));
+        assertThat(food.getScore(), is(8));
+        final Category music = categories.get(1);
+        assertThat(music.isSolved(), is(false));
+        assertThat(music.getQuizzes().get(0).isSolved(), is(false));
+        assertThat(music.getScore(), is(0));
+
+        final List<LeaderboardEntry> leaderboard =
+                TopekaDatabaseHelper.getLeaderboard(mDatabase, null, 10);
+        assertThat(leaderboard.size(), is(1));
+        assertThat(leaderboard.get(0).getPlayer(), is(ALICE));
+        assertThat(leaderboard.get(0).getScore(), is(8));
+
+        final List<SearchResult> results = TopekaDatabaseHelper.search(mDatabase, "opera", 10);
+        assertThat(results.size(), is(1));
+        assertThat(results.get(0).getCategoryName(), is("Music"));
+
+        assertThat(ContentDelta.getVersion(mDatabase), is(ContentDelta.BUNDLED_VERSION));
+        // quizzes can be stored with a tolerance
+        final Cursor quizzes = mDatabase.query(QuizTable.NAME,
+                new String[]{QuizTable.COLUMN_TOLERANCE}, null, null, null, null, null);
+        try {
+            assertThat(quizzes.getCount(), is(3));
+        } finally {
+            quizzes.close();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2015 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.samples.apps.topeka.rule;
+
+import android.content.Context;
+import android.support.test.InstrumentationRegistry;
+import android.util.Log;
+
+import com.google.samples.apps.topeka.helper.FrameMetricsCollector;
+
+import org.junit.rules.TestWatcher;
+import org.junit.runner.Description;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * A test rule that collects frame metrics for each test and exports them as a report.
+ * <p>
+ * Reports are logged and written to <code>frame-metrics/TestClass#testMethod.txt</code>
+ * within the app's external files directory, from where they can be pulled after the run.
+ * </p>
+ */
+public class FrameMetricsRule extends TestWatcher {
+
+    private static final String TAG = "FrameMetricsRule";
+    private static final String REPORT_DIRECTORY = "frame-metrics";
+
+    @Override
+    protected void starting(Description description) {
+        FrameMetricsCollector.reset();
+    }
+
+    @Override
+    protected void finished(Description description) {
+        final String report = FrameMetricsCollector.getReport();
+        Log.i(TAG, description.getDisplayName() + ": " + report);
+        try {
+            writeReport(description, report);
+        } catch (IOException e) {
+            Log.e(TAG, "Could not write frame metrics report", e);
+        }
+    }
+
+    private static void writeReport(Description description, String report)
+            throws IOException {
+        final Context context = InstrumentationRegistry.getTargetContext();
+        File baseDirectory = context.getExternalFilesDir(null);
+        if (baseDirectory == null) {
+            baseDirectory = context.getFilesDir();
+        }
+        final File directory = new File(baseDirectory, REPORT_DIRECTORY);
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create " + directory);
+        }
+        final String fileName = description.getTestClass().getSimpleName() + "#"
+                + description.getMethodName() + ".txt";
+        Writer writer = new FileWriter(new File(directory, fileName));
+        try {
+            writer.write(report);
+        } finally {
+            writer.close();
+        }
+    }
+}
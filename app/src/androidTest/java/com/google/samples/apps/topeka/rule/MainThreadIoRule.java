@@ -0,0 +1,62 @@
+/*
+ * Copyright 2015 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.samples.apps.topeka.rule;
+
+import com.google.samples.apps.topeka.helper.MainThreadIoGuard;
+
+import org.junit.rules.ExternalResource;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A test rule that fails a test if the app accessed the database or preferences on the main
+ * thread from a call site that is not known yet.
+ * <p>
+ * Call sites that are moved off the main thread should be removed from
+ * {@link #KNOWN_CALL_SITES}, new ones must not be added.
+ * </p>
+ */
+public class MainThreadIoRule extends ExternalResource {
+
+    private static final Set<String> KNOWN_CALL_SITES = new HashSet<>(Arrays.asList(
+            "CategoryAdapter.updateCategories",
+            "CategorySelectionActivity.onCreate",
+            "CategorySelectionActivity.onResume",
+            "CategorySelectionActivity.signOut",
+            "QuizActivity.getQuizSession",
+            "QuizFragment.setAvatarDrawable",
+            "QuizFragment.showNextPage",
+            "QuizFragment.markCategorySolved",
+            "SignInActivity.onStop",
+            "SignInFragment.assurePlayerInit",
+            "SignInFragment.savePlayer"));
+
+    @Override
+    protected void before() throws Throwable {
+        MainThreadIoGuard.clearViolations();
+    }
+
+    @Override
+    protected void after() {
+        for (MainThreadIoGuard.Violation violation : MainThreadIoGuard.getViolations()) {
+            if (!KNOWN_CALL_SITES.contains(violation.getCallSite())) {
+                throw new AssertionError(violation);
+            }
+        }
+    }
+}
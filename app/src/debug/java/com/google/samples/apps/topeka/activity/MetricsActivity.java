@@ -0,0 +1,62 @@
+/*
+ * Copyright 2015 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.samples.apps.topeka.activity;
+
+import android.graphics.Typeface;
+import android.os.Bundle;
+import android.support.v7.app.AppCompatActivity;
+import android.widget.ScrollView;
+import android.widget.TextView;
+
+import com.google.samples.apps.topeka.R;
+import com.google.samples.apps.topeka.helper.FrameMetricsCollector;
+import com.google.samples.apps.topeka.helper.StartupTracer;
+import com.google.samples.apps.topeka.persistence.DatabaseMetrics;
+
+/**
+ * Debug screen listing the metrics collected within the current process.
+ * <p>
+ * Start it with
+ * <code>adb shell am start -n com.google.samples.apps.topeka/.activity.MetricsActivity</code>
+ * </p>
+ */
+public class MetricsActivity extends AppCompatActivity {
+
+    private TextView mReport;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        final int padding = getResources().getDimensionPixelSize(R.dimen.spacing_double);
+        mReport = new TextView(this);
+        mReport.setTypeface(Typeface.MONOSPACE);
+        mReport.setPadding(padding, padding, padding, padding);
+        mReport.setTextIsSelectable(true);
+        ScrollView scrollView = new ScrollView(this);
+        scrollView.addView(mReport);
+        setContentView(scrollView);
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        final String separator = System.getProperty("line.separator");
+        mReport.setText(DatabaseMetrics.getReport() + separator + separator
+                + StartupTracer.getReport() + separator + separator
+                + FrameMetricsCollector.getReport());
+    }
+}
@@ -34,6 +34,7 @@ import android.transition.TransitionInflater;
 import android.view.Menu;
 import android.view.MenuItem;
 import android.view.View;
+import android.view.ViewTreeObserver;
 import android.widget.TextView;
 
 import com.google.samples.apps.topeka.R;
@@ -41,6 +42,7 @@ import com.google.samples.apps.topeka.databinding.ActivityCategorySelectionBindi
 import com.google.samples.apps.topeka.fragment.CategorySelectionFragment;
 import com.google.samples.apps.topeka.helper.ApiLevelHelper;
 import com.google.samples.apps.topeka.helper.PreferencesHelper;
+import com.google.samples.apps.topeka.helper.StartupTracer;
 import com.google.samples.apps.topeka.model.Player;
 import com.google.samples.apps.topeka.persistence.TopekaDatabaseHelper;
 
@@ -67,6 +69,7 @@ public class CategorySelectionActivity extends AppCompatActivity {
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
+        StartupTracer.mark(StartupTracer.MILESTONE_CATEGORY_SELECTION_CREATED);
         super.onCreate(savedInstanceState);
         ActivityCategorySelectionBinding binding = DataBindingUtil
                 .setContentView(this, R.layout.activity_category_selection);
@@ -78,6 +81,7 @@ public class CategorySelectionActivity extends AppCompatActivity {
                 PreferencesHelper.writeToPreferences(this, player);
             }
         }
+        TopekaDatabaseHelper.setPlayer(this, player);
         binding.setPlayer(player);
         setUpToolbar();
         if (savedInstanceState == null) {
@@ -86,6 +90,20 @@ public class CategorySelectionActivity extends AppCompatActivity {
             setProgressBarVisibility(View.GONE);
         }
         supportPostponeEnterTransition();
+        markFirstFrame();
+    }
+
+    private void markFirstFrame() {
+        final View decorView = getWindow().getDecorView();
+        decorView.getViewTreeObserver().addOnPreDrawListener(
+                new ViewTreeObserver.OnPreDrawListener() {
+                    @Override
+                    public boolean onPreDraw() {
+                        decorView.getViewTreeObserver().removeOnPreDrawListener(this);
+                        StartupTracer.mark(StartupTracer.MILESTONE_FIRST_FRAME);
+                        return true;
+                    }
+                });
     }
 
     @Override
@@ -120,6 +138,14 @@ public class CategorySelectionActivity extends AppCompatActivity {
     @Override
     public boolean onOptionsItemSelected(MenuItem item) {
         switch (item.getItemId()) {
+            case R.id.search: {
+                SearchActivity.start(this);
+                return true;
+            }
+            case R.id.leaderboard: {
+                LeaderboardActivity.start(this);
+                return true;
+            }
             case R.id.sign_out: {
                 signOut();
                 return true;
@@ -131,7 +157,8 @@ public class CategorySelectionActivity extends AppCompatActivity {
     @SuppressLint("NewApi")
     private void signOut() {
         PreferencesHelper.signOut(this);
-        TopekaDatabaseHelper.reset(this);
+        // keeps the player's progress for the next sign in
+        TopekaDatabaseHelper.setPlayer(this, null);
         if (ApiLevelHelper.isAtLeast(Build.VERSION_CODES.LOLLIPOP)) {
             getWindow().setExitTransition(TransitionInflater.from(this)
                     .inflateTransition(R.transition.category_enter));
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2015 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.samples.apps.topeka.activity;
+
+import android.app.Activity;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.Nullable;
+import android.support.v7.app.AppCompatActivity;
+import android.support.v7.widget.Toolbar;
+import android.view.MenuItem;
+import android.view.View;
+import android.widget.AdapterView;
+import android.widget.ArrayAdapter;
+import android.widget.ListView;
+import android.widget.Spinner;
+
+import com.google.samples.apps.topeka.R;
+import com.google.samples.apps.topeka.adapter.LeaderboardAdapter;
+import com.google.samples.apps.topeka.model.LeaderboardEntry;
+import com.google.samples.apps.topeka.persistence.TopekaDatabaseHelper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Ranks the players of this device, either overall or for a single category.
+ */
+public class LeaderboardActivity extends AppCompatActivity
+        implements AdapterView.OnItemSelectedListener {
+
+    private static final int LEADERBOARD_SIZE = 100;
+    private static final Executor sQueryExecutor = Executors.newSingleThreadExecutor();
+
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+    private final List<String> mCategoryIds = new ArrayList<>();
+    private ArrayAdapter<String> mCategoryAdapter;
+    private LeaderboardAdapter mLeaderboardAdapter;
+    /**
+     * Incremented for each leaderboard query, so results of outdated queries are dropped.
+     */
+    private int mQueryGeneration;
+    private boolean mDestroyed;
+
+    public static void start(Context context) {
+        context.startActivity(new Intent(context, LeaderboardActivity.class));
+    }
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_leaderboard);
+        setUpToolbar();
+        mCategoryAdapter = new ArrayAdapter<>(this, android.R.layout.simple_spinner_item);
+        mCategoryAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+        mCategoryAdapter.add(getString(R.string.all_categories));
+        Spinner categorySpinner = (Spinner) findViewById(R.id.leaderboard_category);
+        categorySpinner.setAdapter(mCategoryAdapter);
+        categorySpinner.setOnItemSelectedListener(this);
+        mLeaderboardAdapter = new LeaderboardAdapter(this);
+        ListView leaderboard = (ListView) findViewById(R.id.leaderboard);
+        leaderboard.setEmptyView(findViewById(R.id.empty));
+        leaderboard.setAdapter(mLeaderboardAdapter);
+        loadCategories();
+    }
+
+    private void setUpToolbar() {
+        Toolbar toolbar = (Toolbar) findViewById(R.id.toolbar_leaderboard);
+        setSupportActionBar(toolbar);
+        //noinspection ConstantConditions
+        getSupportActionBar().setDisplayShowTitleEnabled(false);
+        getSupportActionBar().setDisplayHomeAsUpEnabled(true);
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(MenuItem item) {
+        if (item.getItemId() == android.R.id.home) {
+            finish();
+            return true;
+        }
+        return super.onOptionsItemSelected(item);
+    }
+
+    @Override
+    protected void onDestroy() {
+        // drops all pending results
+        mQueryGeneration++;
+        mDestroyed = true;
+        super.onDestroy();
+    }
+
+    @Override
+    public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
+        // the first entry ranks all categories
+        loadLeaderboard(position == 0 ? null : mCategoryIds.get(position - 1));
+    }
+
+    @Override
+    public void onNothingSelected(AdapterView<?> parent) {
+        // the first entry stays selected
+    }
+
+    private void loadCategories() {
+        final Context applicationContext = getApplicationContext();
+        sQueryExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                // the spinner only needs the names, so the quizzes are not loaded
+                final Map<String, String> categoryNames =
+                        TopekaDatabaseHelper.getCategoryNames(applicationContext);
+                mMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        // leaderboard queries don't outdate the categories
+                        if (!mDestroyed) {
+                            setCategories(categoryNames);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    private void setCategories(Map<String, String> categoryNames) {
+        mCategoryIds.clear();
+        mCategoryIds.addAll(categoryNames.keySet());
+        mCategoryAdapter.addAll(categoryNames.values());
+    }
+
+    private void loadLeaderboard(@Nullable final String categoryId) {
+        final Context applicationContext = getApplicationContext();
+        final int generation = ++mQueryGeneration;
+        sQueryExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final List<LeaderboardEntry> leaderboard = TopekaDatabaseHelper.getLeaderboard(
+                        applicationContext, categoryId, LEADERBOARD_SIZE);
+                mMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (generation == mQueryGeneration) {
+                            mLeaderboardAdapter.setEntries(leaderboard);
+                        }
+                    }
+                });
+            }
+        });
+    }
+}
@@ -25,6 +25,8 @@ import android.annotation.SuppressLint;
 import android.annotation.TargetApi;
 import android.content.Context;
 import android.content.Intent;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
 import android.graphics.Color;
 import android.os.Build;
 import android.os.Bundle;
@@ -51,9 +53,12 @@ import android.widget.TextView;
 import com.google.samples.apps.topeka.R;
 import com.google.samples.apps.topeka.fragment.QuizFragment;
 import com.google.samples.apps.topeka.helper.ApiLevelHelper;
+import com.google.samples.apps.topeka.helper.BitmapCache;
+import com.google.samples.apps.topeka.helper.FrameMetricsCollector;
 import com.google.samples.apps.topeka.helper.ViewUtils;
 import com.google.samples.apps.topeka.model.Category;
 import com.google.samples.apps.topeka.model.JsonAttributes;
+import com.google.samples.apps.topeka.model.QuizSession;
 import com.google.samples.apps.topeka.persistence.TopekaDatabaseHelper;
 import com.google.samples.apps.topeka.widget.TextSharedElementCallback;
 
@@ -61,15 +66,18 @@ import java.util.List;
 
 import static com.google.samples.apps.topeka.adapter.CategoryAdapter.DRAWABLE;
 
-public class QuizActivity extends AppCompatActivity {
+public class QuizActivity extends AppCompatActivity implements QuizFragment.SessionHolder {
 
     private static final String TAG = "QuizActivity";
     private static final String IMAGE_CATEGORY = "image_category_";
+    private static final String RASTER = "_raster";
     private static final String STATE_IS_PLAYING = "isPlaying";
+    private static final String STATE_SESSION = "session";
     private static final String FRAGMENT_TAG = "Quiz";
 
     private Interpolator mInterpolator;
     private Category mCategory;
+    private QuizSession mSession;
     private QuizFragment mQuizFragment;
     private FloatingActionButton mQuizFab;
     private boolean mSavedStateIsPlaying;
@@ -78,6 +86,7 @@ public class QuizActivity extends AppCompatActivity {
     private ObjectAnimator mColorChange;
     private CountingIdlingResource mCountingIdlingResource;
     private View mToolbarBack;
+    private BitmapCache.OnBitmapLoadedListener mCategoryImageListener;
 
 
     private final View.OnClickListener mOnClickListener = new View.OnClickListener() {
@@ -105,18 +114,72 @@ public class QuizActivity extends AppCompatActivity {
     };
 
     public static Intent getStartIntent(Context context, Category category) {
+        return getStartIntent(context, category.getId());
+    }
+
+    public static Intent getStartIntent(Context context, String categoryId) {
         Intent starter = new Intent(context, QuizActivity.class);
-        starter.putExtra(Category.TAG, category.getId());
+        starter.putExtra(Category.TAG, categoryId);
         return starter;
     }
 
+    /**
+     * Decodes the header image of a category in the background,
+     * so it is ready to be displayed once the quiz for this category is started.
+     *
+     * @param context The context this is running in.
+     * @param category The category to load the image for.
+     */
+    public static void prefetchCategoryImage(Context context, Category category) {
+        final int imageResId = getCategoryImageResId(context, category.getId());
+        if (imageResId == 0) {
+            return;
+        }
+        final Resources resources = context.getResources();
+        BitmapCache.prefetchBitmap(resources, imageResId,
+                getMaxCategoryImageWidth(resources), getMaxCategoryImageHeight(resources));
+    }
+
+    private static int getCategoryImageResId(Context context, String categoryId) {
+        final Context applicationContext = context.getApplicationContext();
+        final String imageName = IMAGE_CATEGORY + categoryId + RASTER;
+        return applicationContext.getResources().getIdentifier(imageName, DRAWABLE,
+                applicationContext.getPackageName());
+    }
+
+    /**
+     * @return The maximum width the category image is displayed in, based on the display's
+     * size minus the icon's margins and padding.
+     */
+    private static int getMaxCategoryImageWidth(Resources resources) {
+        return resources.getDisplayMetrics().widthPixels - getCategoryImageInsets(resources);
+    }
+
+    /**
+     * @return The maximum height the category image is displayed in, based on the display's
+     * size minus the icon's margins and padding.
+     */
+    private static int getMaxCategoryImageHeight(Resources resources) {
+        return resources.getDisplayMetrics().heightPixels - getCategoryImageInsets(resources);
+    }
+
+    private static int getCategoryImageInsets(Resources resources) {
+        // margin and padding of the icon on both sides
+        return 4 * resources.getDimensionPixelSize(R.dimen.spacing_double);
+    }
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         mCountingIdlingResource = new CountingIdlingResource("Quiz");
         String categoryId = getIntent().getStringExtra(Category.TAG);
         mInterpolator = new FastOutSlowInInterpolator();
+        // Restore the session before the fragment is recreated, as it is shared with it.
+        mSession = (QuizSession) getLastCustomNonConfigurationInstance();
         if (null != savedInstanceState) {
             mSavedStateIsPlaying = savedInstanceState.getBoolean(STATE_IS_PLAYING);
+            if (null == mSession) {
+                mSession = savedInstanceState.getParcelable(STATE_SESSION);
+            }
         }
         super.onCreate(savedInstanceState);
         populate(categoryId);
@@ -174,6 +237,26 @@ public class QuizActivity extends AppCompatActivity {
     public void onSaveInstanceState(@NonNull Bundle outState) {
         outState.putBoolean(STATE_IS_PLAYING, mQuizFab.getVisibility() == View.GONE);
         super.onSaveInstanceState(outState);
+        // The fragment has stored its current input into the session by now.
+        outState.putParcelable(STATE_SESSION, mSession);
+    }
+
+    @Override
+    public Object onRetainCustomNonConfigurationInstance() {
+        return mSession;
+    }
+
+    /**
+     * Loads the category on first use. Afterwards the session is kept across configuration
+     * changes and restored from the saved instance state, so it is loaded once per screen.
+     */
+    @Override
+    public QuizSession getQuizSession() {
+        if (null == mSession) {
+            final String categoryId = getIntent().getStringExtra(Category.TAG);
+            mSession = new QuizSession(TopekaDatabaseHelper.getCategoryWith(this, categoryId));
+        }
+        return mSession;
     }
 
     @Override
@@ -266,6 +349,8 @@ public class QuizActivity extends AppCompatActivity {
         fragmentContainer.setVisibility(View.VISIBLE);
         AnimatorSet animatorSet = new AnimatorSet();
         animatorSet.play(mCircularReveal).with(mColorChange);
+        FrameMetricsCollector.track(animatorSet, FrameMetricsCollector.SCREEN_QUIZ,
+                FrameMetricsCollector.INTERACTION_REVEAL);
         animatorSet.start();
     }
 
@@ -392,7 +477,7 @@ public class QuizActivity extends AppCompatActivity {
             Log.w(TAG, "Didn't find a category. Finishing");
             finish();
         }
-        mCategory = TopekaDatabaseHelper.getCategoryWith(this, categoryId);
+        mCategory = getQuizSession().getCategory();
         setTheme(mCategory.getTheme().getStyleId());
         if (ApiLevelHelper.isAtLeast(Build.VERSION_CODES.LOLLIPOP)) {
             Window window = getWindow();
@@ -407,10 +492,7 @@ public class QuizActivity extends AppCompatActivity {
         setContentView(R.layout.activity_quiz);
         //noinspection PrivateResource
         mIcon = (ImageView) findViewById(R.id.icon);
-        int resId = getResources().getIdentifier(IMAGE_CATEGORY + categoryId, DRAWABLE,
-                getApplicationContext().getPackageName());
-        mIcon.setImageResource(resId);
-        mIcon.setImageResource(resId);
+        loadCategoryImage(categoryId);
         ViewCompat.animate(mIcon)
                 .scaleX(1)
                 .scaleY(1)
@@ -428,6 +510,37 @@ public class QuizActivity extends AppCompatActivity {
         mQuizFab.setOnClickListener(mOnClickListener);
     }
 
+    /**
+     * Sets the category's image to the icon. Usually the image has been prefetched already,
+     * otherwise it is decoded in the background. The enter transition is postponed until the
+     * image is set, so it doesn't pop in while the transition runs.
+     *
+     * @param categoryId The id of the category to display the image for.
+     */
+    private void loadCategoryImage(String categoryId) {
+        final int imageResId = getCategoryImageResId(this, categoryId);
+        if (imageResId == 0) {
+            // e.g. categories added by content updates don't come with an image
+            return;
+        }
+        final Resources resources = getResources();
+        supportPostponeEnterTransition();
+        // BitmapCache only keeps a weak reference, so the listener lives as long as this activity
+        mCategoryImageListener = new BitmapCache.OnBitmapLoadedListener() {
+            @Override
+            public void onBitmapLoaded(Bitmap bitmap) {
+                mCategoryImageListener = null;
+                if (bitmap != null && !isFinishing()) {
+                    mIcon.setImageBitmap(bitmap);
+                }
+                supportStartPostponedEnterTransition();
+            }
+        };
+        BitmapCache.loadBitmap(resources, imageResId,
+                getMaxCategoryImageWidth(resources), getMaxCategoryImageHeight(resources),
+                mCategoryImageListener);
+    }
+
     private void initToolbar(Category category) {
         mToolbarBack = findViewById(R.id.back);
         mToolbarBack.setOnClickListener(mOnClickListener);
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2015 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.samples.apps.topeka.activity;
+
+import android.annotation.SuppressLint;
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Build;
+import android.os.Bundle;
+import android.os.CancellationSignal;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.v7.app.AppCompatActivity;
+import android.support.v7.widget.SearchView;
+import android.support.v7.widget.Toolbar;
+import android.view.MenuItem;
+import android.view.View;
+import android.widget.AdapterView;
+import android.widget.ListView;
+
+import com.google.samples.apps.topeka.R;
+import com.google.samples.apps.topeka.adapter.SearchResultAdapter;
+import com.google.samples.apps.topeka.helper.ApiLevelHelper;
+import com.google.samples.apps.topeka.model.SearchResult;
+import com.google.samples.apps.topeka.persistence.TopekaDatabaseHelper;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Searches quizzes while the user types.
+ * <p>
+ * Searches start once typing paused for {@link #DEBOUNCE_MILLIS}. Each new search cancels the
+ * one still running on Jelly Bean and above, results of outdated searches are dropped.
+ * </p>
+ */
+public class SearchActivity extends AppCompatActivity
+        implements SearchView.OnQueryTextListener, AdapterView.OnItemClickListener {
+
+    private static final long DEBOUNCE_MILLIS = 150;
+    private static final int MAX_RESULTS = 50;
+    private static final Executor sSearchExecutor = Executors.newSingleThreadExecutor();
+
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+    private final Runnable mSearchRunnable = new Runnable() {
+        @Override
+        public void run() {
+            search(mPendingQuery);
+        }
+    };
+    private SearchResultAdapter mAdapter;
+    private String mPendingQuery = "";
+    /**
+     * Incremented for each search, so results of outdated searches are dropped.
+     */
+    private int mSearchGeneration;
+    /**
+     * The {@link CancellationSignal} of the running search on Jelly Bean and above.
+     */
+    private Object mCancellationSignal;
+
+    public static void start(Context context) {
+        context.startActivity(new Intent(context, SearchActivity.class));
+    }
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_search);
+        Toolbar toolbar = (Toolbar) findViewById(R.id.toolbar_search);
+        setSupportActionBar(toolbar);
+        //noinspection ConstantConditions
+        getSupportActionBar().setDisplayShowTitleEnabled(false);
+        getSupportActionBar().setDisplayHomeAsUpEnabled(true);
+        SearchView searchView = (SearchView) findViewById(R.id.search);
+        searchView.setIconifiedByDefault(false);
+        searchView.setOnQueryTextListener(this);
+        mAdapter = new SearchResultAdapter(this);
+        ListView results = (ListView) findViewById(R.id.search_results);
+        results.setEmptyView(findViewById(R.id.empty));
+        results.setAdapter(mAdapter);
+        results.setOnItemClickListener(this);
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(MenuItem item) {
+        if (item.getItemId() == android.R.id.home) {
+            finish();
+            return true;
+        }
+        return super.onOptionsItemSelected(item);
+    }
+
+    @Override
+    protected void onDestroy() {
+        mMainHandler.removeCallbacks(mSearchRunnable);
+        cancelSearch();
+        super.onDestroy();
+    }
+
+    @Override
+    public boolean onQueryTextChange(String newText) {
+        mPendingQuery = newText;
+        mMainHandler.removeCallbacks(mSearchRunnable);
+        mMainHandler.postDelayed(mSearchRunnable, DEBOUNCE_MILLIS);
+        return true;
+    }
+
+    @Override
+    public boolean onQueryTextSubmit(String query) {
+        mPendingQuery = query;
+        mMainHandler.removeCallbacks(mSearchRunnable);
+        search(query);
+        return true;
+    }
+
+    @Override
+    public void onItemClick(AdapterView<?> parent, View view, int position, long id) {
+        startActivity(QuizActivity.getStartIntent(this,
+                mAdapter.getItem(position).getCategoryId()));
+    }
+
+    private void search(final String query) {
+        cancelSearch();
+        final int generation = mSearchGeneration;
+        final Object cancellationSignal = createCancellationSignal();
+        mCancellationSignal = cancellationSignal;
+        final Context applicationContext = getApplicationContext();
+        sSearchExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final List<SearchResult> results;
+                if (cancellationSignal == null) {
+                    results = TopekaDatabaseHelper.search(applicationContext, query,
+                            MAX_RESULTS);
+                } else {
+                    try {
+                        results = search(applicationContext, query, cancellationSignal);
+                    } catch (RuntimeException e) {
+                        if (isCanceled(cancellationSignal)) {
+                            return;
+                        }
+                        throw e;
+                    }
+                }
+                mMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (generation == mSearchGeneration) {
+                            mAdapter.setResults(results);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    private void cancelSearch() {
+        mSearchGeneration++;
+        if (mCancellationSignal != null) {
+            cancel(mCancellationSignal);
+            mCancellationSignal = null;
+        }
+    }
+
+    @SuppressLint("NewApi")
+    private static Object createCancellationSignal() {
+        if (ApiLevelHelper.isAtLeast(Build.VERSION_CODES.JELLY_BEAN)) {
+            return new CancellationSignal();
+        }
+        return null;
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private static List<SearchResult> search(Context context, String query,
+                                             Object cancellationSignal) {
+        return TopekaDatabaseHelper.search(context, query, MAX_RESULTS,
+                (CancellationSignal) cancellationSignal);
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private static void cancel(Object cancellationSignal) {
+        ((CancellationSignal) cancellationSignal).cancel();
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private static boolean isCanceled(Object cancellationSignal) {
+        return ((CancellationSignal) cancellationSignal).isCanceled();
+    }
+}
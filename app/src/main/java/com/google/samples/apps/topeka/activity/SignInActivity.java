@@ -26,6 +26,7 @@ import android.support.v7.app.AppCompatActivity;
 import com.google.samples.apps.topeka.R;
 import com.google.samples.apps.topeka.fragment.SignInFragment;
 import com.google.samples.apps.topeka.helper.PreferencesHelper;
+import com.google.samples.apps.topeka.helper.StartupTracer;
 
 public class SignInActivity extends AppCompatActivity {
 
@@ -42,6 +43,7 @@ public class SignInActivity extends AppCompatActivity {
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
+        StartupTracer.mark(StartupTracer.MILESTONE_SIGN_IN_CREATED);
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_sign_in);
         final boolean edit = isInEditMode();
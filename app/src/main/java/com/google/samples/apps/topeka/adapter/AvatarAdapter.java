@@ -49,7 +49,7 @@ public class AvatarAdapter extends BaseAdapter {
     }
 
     private void setAvatar(AvatarView mIcon, Avatar avatar) {
-        mIcon.setAvatar(avatar.getDrawableId());
+        mIcon.setAvatar(avatar);
         mIcon.setContentDescription(avatar.getNameForAccessibility());
     }
 
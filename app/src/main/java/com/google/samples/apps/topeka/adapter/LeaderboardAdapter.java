@@ -0,0 +1,103 @@
+/*
+ * Copyright 2015 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.samples.apps.topeka.adapter;
+
+import android.content.Context;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.BaseAdapter;
+import android.widget.TextView;
+
+import com.google.samples.apps.topeka.R;
+import com.google.samples.apps.topeka.model.LeaderboardEntry;
+import com.google.samples.apps.topeka.model.Player;
+import com.google.samples.apps.topeka.widget.AvatarView;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Adapter for displaying a leaderboard, ordered by rank.
+ */
+public class LeaderboardAdapter extends BaseAdapter {
+
+    private final LayoutInflater mLayoutInflater;
+    private final Context mContext;
+    private List<LeaderboardEntry> mEntries = new ArrayList<>();
+
+    public LeaderboardAdapter(Context context) {
+        mContext = context;
+        mLayoutInflater = LayoutInflater.from(context);
+    }
+
+    /**
+     * Replaces the shown entries.
+     *
+     * @param entries The entries ordered by rank, the best player first.
+     */
+    public void setEntries(List<LeaderboardEntry> entries) {
+        mEntries = entries;
+        notifyDataSetChanged();
+    }
+
+    @Override
+    public int getCount() {
+        return mEntries.size();
+    }
+
+    @Override
+    public LeaderboardEntry getItem(int position) {
+        return mEntries.get(position);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return position;
+    }
+
+    @Override
+    public View getView(int position, View convertView, ViewGroup parent) {
+        if (null == convertView) {
+            convertView = mLayoutInflater.inflate(R.layout.item_leaderboard, parent, false);
+            convertView.setTag(new ViewHolder(convertView));
+        }
+        final ViewHolder holder = (ViewHolder) convertView.getTag();
+        final LeaderboardEntry entry = getItem(position);
+        final Player player = entry.getPlayer();
+        holder.mRank.setText(String.valueOf(position + 1));
+        holder.mAvatar.setAvatar(player.getAvatar());
+        holder.mName.setText(mContext.getString(R.string.player_name, player.getFirstName(),
+                player.getLastInitial()));
+        holder.mScore.setText(mContext.getString(R.string.x_points, entry.getScore()));
+        return convertView;
+    }
+
+    private static class ViewHolder {
+
+        final TextView mRank;
+        final AvatarView mAvatar;
+        final TextView mName;
+        final TextView mScore;
+
+        public ViewHolder(View view) {
+            mRank = (TextView) view.findViewById(R.id.rank);
+            mAvatar = (AvatarView) view.findViewById(R.id.avatar);
+            mName = (TextView) view.findViewById(R.id.name);
+            mScore = (TextView) view.findViewById(R.id.score);
+        }
+    }
+}
@@ -18,22 +18,28 @@ package com.google.samples.apps.topeka.adapter;
 
 import android.content.Context;
 import android.support.annotation.LayoutRes;
+import android.support.annotation.VisibleForTesting;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.BaseAdapter;
 import android.widget.TextView;
 
-import com.google.samples.apps.topeka.R;
+import com.google.samples.apps.topeka.helper.Alphabet;
 
 /**
  * A simple adapter to display a options of a quiz.
+ * <p>
+ * Labels, including their prefixes, are created once so binding views doesn't allocate.
+ * </p>
  */
 public class OptionsQuizAdapter extends BaseAdapter {
 
+    private static final String PREFIX_SEPARATOR = ". ";
+
     private final String[] mOptions;
+    private final String[] mLabels;
     private final int mLayoutId;
-    private final String[] mAlphabet;
 
     /**
      * Creates an {@link OptionsQuizAdapter}.
@@ -43,8 +49,8 @@ public class OptionsQuizAdapter extends BaseAdapter {
      */
     public OptionsQuizAdapter(String[] options, @LayoutRes int layoutId) {
         mOptions = options;
+        mLabels = options;
         mLayoutId = layoutId;
-        mAlphabet = null;
     }
 
     /**
@@ -60,9 +66,9 @@ public class OptionsQuizAdapter extends BaseAdapter {
         mOptions = options;
         mLayoutId = layoutId;
         if (withPrefix) {
-            mAlphabet = context.getResources().getStringArray(R.array.alphabet);
+            mLabels = createPrefixedLabels(options, Alphabet.getInstance(context));
         } else {
-            mAlphabet = null;
+            mLabels = options;
         }
     }
 
@@ -93,36 +99,31 @@ public class OptionsQuizAdapter extends BaseAdapter {
             LayoutInflater inflater = LayoutInflater.from(parent.getContext());
             convertView = inflater.inflate(mLayoutId, parent, false);
         }
-        String text = getText(position);
-        ((TextView) convertView).setText(text);
+        ((TextView) convertView).setText(mLabels[position]);
         return convertView;
     }
 
-    private String getText(int position) {
-        String text;
-        if (mAlphabet == null) {
-            text = getItem(position);
-        } else {
-            text = getPrefix(position) + getItem(position);
+    @VisibleForTesting
+    static String[] createPrefixedLabels(String[] options, Alphabet alphabet) {
+        final String[] labels = new String[options.length];
+        final StringBuilder label = new StringBuilder();
+        for (int i = 0; i < options.length; i++) {
+            label.setLength(0);
+            appendPrefix(label, i, alphabet);
+            labels[i] = label.append(PREFIX_SEPARATOR).append(options[i]).toString();
         }
-        return text;
+        return labels;
     }
 
-    private String getPrefix(int position) {
-        final int length = mAlphabet.length;
-        if (position >= length || 0 > position) {
-            throw new IllegalArgumentException(
-                    "Only positions between 0 and " + length + " are supported");
-        }
-        StringBuilder prefix;
-        if (position < length) {
-            prefix = new StringBuilder(mAlphabet[position]);
-        } else {
-            int tmpPosition = position % length;
-            prefix = new StringBuilder(tmpPosition);
-            prefix.append(getPrefix(position - tmpPosition));
+    /**
+     * Appends the letters for a position, continuing with two or more letters once the
+     * alphabet is used up, e.g. <code>Z, AA, AB</code>.
+     */
+    private static void appendPrefix(StringBuilder prefix, int position, Alphabet alphabet) {
+        final int length = alphabet.size();
+        if (position >= length) {
+            appendPrefix(prefix, position / length - 1, alphabet);
         }
-        prefix.append(". ");
-        return prefix.toString();
+        prefix.append(alphabet.get(position % length));
     }
 }
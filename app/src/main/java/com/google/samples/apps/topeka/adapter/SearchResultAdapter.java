@@ -0,0 +1,91 @@
+/*
+ * Copyright 2015 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.samples.apps.topeka.adapter;
+
+import android.content.Context;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.BaseAdapter;
+import android.widget.TextView;
+
+import com.google.samples.apps.topeka.R;
+import com.google.samples.apps.topeka.model.SearchResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Adapter for displaying the quizzes found by a search.
+ */
+public class SearchResultAdapter extends BaseAdapter {
+
+    private final LayoutInflater mLayoutInflater;
+    private List<SearchResult> mResults = new ArrayList<>();
+
+    public SearchResultAdapter(Context context) {
+        mLayoutInflater = LayoutInflater.from(context);
+    }
+
+    /**
+     * Replaces the shown results.
+     *
+     * @param results The results of the latest search.
+     */
+    public void setResults(List<SearchResult> results) {
+        mResults = results;
+        notifyDataSetChanged();
+    }
+
+    @Override
+    public int getCount() {
+        return mResults.size();
+    }
+
+    @Override
+    public SearchResult getItem(int position) {
+        return mResults.get(position);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return position;
+    }
+
+    @Override
+    public View getView(int position, View convertView, ViewGroup parent) {
+        if (null == convertView) {
+            convertView = mLayoutInflater.inflate(R.layout.item_search_result, parent, false);
+            convertView.setTag(new ViewHolder(convertView));
+        }
+        final ViewHolder holder = (ViewHolder) convertView.getTag();
+        final SearchResult result = getItem(position);
+        holder.mQuestion.setText(result.getQuestion());
+        holder.mCategory.setText(result.getCategoryName());
+        return convertView;
+    }
+
+    private static class ViewHolder {
+
+        final TextView mQuestion;
+        final TextView mCategory;
+
+        public ViewHolder(View view) {
+            mQuestion = (TextView) view.findViewById(R.id.question);
+            mCategory = (TextView) view.findViewById(R.id.category);
+        }
+    }
+}
@@ -25,6 +25,7 @@ import android.support.v4.app.Fragment;
 import android.support.v4.util.Pair;
 import android.support.v7.widget.RecyclerView;
 import android.view.LayoutInflater;
+import android.view.MotionEvent;
 import android.view.View;
 import android.view.ViewGroup;
 import android.view.ViewTreeObserver;
@@ -32,6 +33,8 @@ import android.view.ViewTreeObserver;
 import com.google.samples.apps.topeka.R;
 import com.google.samples.apps.topeka.activity.QuizActivity;
 import com.google.samples.apps.topeka.adapter.CategoryAdapter;
+import com.google.samples.apps.topeka.helper.FrameMetricsCollector;
+import com.google.samples.apps.topeka.helper.StartupTracer;
 import com.google.samples.apps.topeka.helper.TransitionHelper;
 import com.google.samples.apps.topeka.model.Category;
 import com.google.samples.apps.topeka.model.JsonAttributes;
@@ -74,17 +77,53 @@ public class CategorySelectionFragment extends Fragment {
                     }
                 });
         categoriesView.setAdapter(mAdapter);
+        categoriesView.addOnItemTouchListener(new RecyclerView.SimpleOnItemTouchListener() {
+            @Override
+            public boolean onInterceptTouchEvent(RecyclerView rv, MotionEvent e) {
+                if (e.getActionMasked() == MotionEvent.ACTION_DOWN) {
+                    prefetchCategoryImageUnder(rv, e.getX(), e.getY());
+                }
+                return false;
+            }
+        });
+        categoriesView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrollStateChanged(RecyclerView recyclerView, int newState) {
+                if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+                    FrameMetricsCollector.end(FrameMetricsCollector.SCREEN_CATEGORIES,
+                            FrameMetricsCollector.INTERACTION_SCROLL);
+                } else {
+                    FrameMetricsCollector.begin(FrameMetricsCollector.SCREEN_CATEGORIES,
+                            FrameMetricsCollector.INTERACTION_SCROLL);
+                }
+            }
+        });
         categoriesView.getViewTreeObserver()
                 .addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
                     @Override
                     public boolean onPreDraw() {
                         categoriesView.getViewTreeObserver().removeOnPreDrawListener(this);
                         getActivity().supportStartPostponedEnterTransition();
+                        StartupTracer.mark(StartupTracer.MILESTONE_ENTER_TRANSITION);
                         return true;
                     }
                 });
     }
 
+    /**
+     * Starts decoding the image of a touched category, so it's ready when the quiz starts.
+     */
+    private void prefetchCategoryImageUnder(RecyclerView categoriesView, float x, float y) {
+        final View child = categoriesView.findChildViewUnder(x, y);
+        if (child == null) {
+            return;
+        }
+        final int position = categoriesView.getChildAdapterPosition(child);
+        if (position != RecyclerView.NO_POSITION) {
+            QuizActivity.prefetchCategoryImage(getActivity(), mAdapter.getItem(position));
+        }
+    }
+
     @Override
     public void onActivityResult(int requestCode, int resultCode, Intent data) {
         if (requestCode == REQUEST_CATEGORY && resultCode == R.id.solved) {
@@ -19,6 +19,7 @@ package com.google.samples.apps.topeka.fragment;
 import android.annotation.TargetApi;
 import android.os.Build;
 import android.os.Bundle;
+import android.os.SystemClock;
 import android.support.annotation.Nullable;
 import android.support.v4.view.ViewCompat;
 import android.support.v4.view.animation.FastOutLinearInInterpolator;
@@ -35,27 +36,27 @@ import com.google.samples.apps.topeka.R;
 import com.google.samples.apps.topeka.adapter.QuizAdapter;
 import com.google.samples.apps.topeka.adapter.ScoreAdapter;
 import com.google.samples.apps.topeka.helper.ApiLevelHelper;
+import com.google.samples.apps.topeka.helper.FrameMetricsCollector;
 import com.google.samples.apps.topeka.helper.PreferencesHelper;
 import com.google.samples.apps.topeka.model.Category;
 import com.google.samples.apps.topeka.model.Player;
+import com.google.samples.apps.topeka.model.QuizSession;
 import com.google.samples.apps.topeka.model.Theme;
-import com.google.samples.apps.topeka.model.quiz.Quiz;
 import com.google.samples.apps.topeka.persistence.TopekaDatabaseHelper;
 import com.google.samples.apps.topeka.widget.AvatarView;
 import com.google.samples.apps.topeka.widget.quiz.AbsQuizView;
 
-import java.util.List;
-
 /**
  * Encapsulates Quiz solving and displays it to the user.
  */
 public class QuizFragment extends android.support.v4.app.Fragment {
 
-    private static final String KEY_USER_INPUT = "USER_INPUT";
+    private static final String KEY_SESSION = "SESSION";
     private TextView mProgressText;
     private int mQuizSize;
     private ProgressBar mProgressBar;
     private Category mCategory;
+    private QuizSession mSession;
     private AdapterViewAnimator mQuizView;
     private ScoreAdapter mScoreAdapter;
     private QuizAdapter mQuizAdapter;
@@ -78,11 +79,36 @@ public class QuizFragment extends android.support.v4.app.Fragment {
 
     @Override
     public void onCreate(Bundle savedInstanceState) {
-        String categoryId = getArguments().getString(Category.TAG);
-        mCategory = TopekaDatabaseHelper.getCategoryWith(getActivity(), categoryId);
+        if (getActivity() instanceof SessionHolder) {
+            // The host keeps the session across configuration changes, so the category is
+            // loaded only once per screen.
+            mSession = ((SessionHolder) getActivity()).getQuizSession();
+        } else {
+            if (null != savedInstanceState) {
+                mSession = savedInstanceState.getParcelable(KEY_SESSION);
+            }
+            if (null == mSession) {
+                String categoryId = getArguments().getString(Category.TAG);
+                mSession = new QuizSession(
+                        TopekaDatabaseHelper.getCategoryWith(getActivity(), categoryId));
+            }
+        }
+        mCategory = mSession.getCategory();
         super.onCreate(savedInstanceState);
     }
 
+    @Override
+    public void onResume() {
+        super.onResume();
+        mSession.resume(SystemClock.elapsedRealtime());
+    }
+
+    @Override
+    public void onPause() {
+        mSession.pause(SystemClock.elapsedRealtime());
+        super.onPause();
+    }
+
     @Override
     public View onCreateView(LayoutInflater inflater, @Nullable ViewGroup container,
                              @Nullable Bundle savedInstanceState) {
@@ -113,17 +139,17 @@ public class QuizFragment extends android.support.v4.app.Fragment {
         }
         mQuizView.setInAnimation(getActivity(), R.animator.slide_in_bottom);
         mQuizView.setOutAnimation(getActivity(), R.animator.slide_out_top);
+        FrameMetricsCollector.track(mQuizView.getInAnimation(), FrameMetricsCollector.SCREEN_QUIZ,
+                FrameMetricsCollector.INTERACTION_NEXT_QUIZ);
     }
 
     private void initProgressToolbar(View view) {
-        final int firstUnsolvedQuizPosition = mCategory.getFirstUnsolvedQuizPosition();
-        final List<Quiz> quizzes = mCategory.getQuizzes();
-        mQuizSize = quizzes.size();
+        mQuizSize = mCategory.getQuizzes().size();
         mProgressText = (TextView) view.findViewById(R.id.progress_text);
         mProgressBar = ((ProgressBar) view.findViewById(R.id.progress));
         mProgressBar.setMax(mQuizSize);
 
-        setProgress(firstUnsolvedQuizPosition);
+        setProgress(mSession.getPosition());
     }
 
     private void setProgress(int currentQuizPosition) {
@@ -138,7 +164,7 @@ public class QuizFragment extends android.support.v4.app.Fragment {
     @SuppressWarnings("ConstantConditions")
     private void setAvatarDrawable(AvatarView avatarView) {
         Player player = PreferencesHelper.getPlayer(getActivity());
-        avatarView.setAvatar(player.getAvatar().getDrawableId());
+        avatarView.setAvatar(player.getAvatar());
         ViewCompat.animate(avatarView)
                 .setInterpolator(new FastOutLinearInInterpolator())
                 .setStartDelay(500)
@@ -156,7 +182,7 @@ public class QuizFragment extends android.support.v4.app.Fragment {
             }
         } else {
             mQuizView.setAdapter(getQuizAdapter());
-            mQuizView.setSelection(mCategory.getFirstUnsolvedQuizPosition());
+            mQuizView.setSelection(mSession.getPosition());
         }
     }
 
@@ -166,20 +192,25 @@ public class QuizFragment extends android.support.v4.app.Fragment {
         if (focusedChild instanceof ViewGroup) {
             View currentView = ((ViewGroup) focusedChild).getChildAt(0);
             if (currentView instanceof AbsQuizView) {
-                outState.putBundle(KEY_USER_INPUT, ((AbsQuizView) currentView).getUserInput());
+                mSession.setInput(mSession.getPosition(),
+                        ((AbsQuizView) currentView).getUserInput());
             }
         }
+        if (!(getActivity() instanceof SessionHolder)) {
+            outState.putParcelable(KEY_SESSION, mSession);
+        }
         super.onSaveInstanceState(outState);
     }
 
     @Override
     public void onViewStateRestored(Bundle savedInstanceState) {
-        restoreQuizState(savedInstanceState);
+        restoreQuizState();
         super.onViewStateRestored(savedInstanceState);
     }
 
-    private void restoreQuizState(final Bundle savedInstanceState) {
-        if (null == savedInstanceState) {
+    private void restoreQuizState() {
+        final Bundle input = mSession.getInput(mSession.getPosition());
+        if (null == input) {
             return;
         }
         mQuizView.addOnLayoutChangeListener(new View.OnLayoutChangeListener() {
@@ -192,8 +223,7 @@ public class QuizFragment extends android.support.v4.app.Fragment {
                 if (currentChild instanceof ViewGroup) {
                     final View potentialQuizView = ((ViewGroup) currentChild).getChildAt(0);
                     if (potentialQuizView instanceof AbsQuizView) {
-                        ((AbsQuizView) potentialQuizView).setUserInput(savedInstanceState.
-                                getBundle(KEY_USER_INPUT));
+                        ((AbsQuizView) potentialQuizView).setUserInput(input);
                     }
                 }
             }
@@ -217,12 +247,12 @@ public class QuizFragment extends android.support.v4.app.Fragment {
         if (null == mQuizView) {
             return false;
         }
-        int nextItem = mQuizView.getDisplayedChild() + 1;
+        TopekaDatabaseHelper.updateQuiz(getActivity(), mCategory, mSession.getPosition());
+        int nextItem = mSession.moveToNext();
         setProgress(nextItem);
         final int count = mQuizView.getAdapter().getCount();
         if (nextItem < count) {
             mQuizView.showNext();
-            TopekaDatabaseHelper.updateCategory(getActivity(), mCategory);
             return true;
         }
         markCategorySolved();
@@ -270,4 +300,16 @@ public class QuizFragment extends android.support.v4.app.Fragment {
          */
         void onCategorySolved();
     }
+
+    /**
+     * Implemented by activities hosting a {@link QuizFragment} that keep its session,
+     * including across configuration changes.
+     */
+    public interface SessionHolder {
+
+        /**
+         * @return The session to play, loading it if it is not available yet.
+         */
+        QuizSession getQuizSession();
+    }
 }
\ No newline at end of file
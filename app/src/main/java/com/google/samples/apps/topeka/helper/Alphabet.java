@@ -0,0 +1,132 @@
+/*
+ * Copyright 2015 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.samples.apps.topeka.helper;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.google.samples.apps.topeka.R;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * The letters of <code>R.array.alphabet</code>, indexed both ways.
+ * <p>
+ * Looking up a letter's position is a single array access for letters made of one char,
+ * and letters are handed out as the same instances every time, so pickers can update their
+ * selection on every change without allocating.
+ * </p>
+ */
+public final class Alphabet {
+
+    private static final int NOT_FOUND = -1;
+
+    private static volatile Alphabet sInstance;
+
+    /**
+     * The locale the letters have been loaded for, <code>null</code> if they were passed in.
+     */
+    private final Locale mLocale;
+    private final String[] mLetters;
+    /**
+     * Positions of single char letters, indexed by their char.
+     */
+    private final int[] mPositions;
+
+    /**
+     * Creates an alphabet from the given letters. Most callers should use the shared instance
+     * from {@link #getInstance(Context)}.
+     *
+     * @param letters The letters in order.
+     */
+    public Alphabet(@NonNull String[] letters) {
+        this(letters, null);
+    }
+
+    private Alphabet(@NonNull String[] letters, @Nullable Locale locale) {
+        mLocale = locale;
+        mLetters = letters;
+        char maxChar = 0;
+        for (String letter : letters) {
+            if (letter.length() == 1) {
+                maxChar = (char) Math.max(maxChar, letter.charAt(0));
+            }
+        }
+        mPositions = new int[maxChar + 1];
+        Arrays.fill(mPositions, NOT_FOUND);
+        for (int i = letters.length - 1; i >= 0; i--) {
+            if (letters[i].length() == 1) {
+                mPositions[letters[i].charAt(0)] = i;
+            }
+        }
+    }
+
+    /**
+     * @return The alphabet shared across the process, loaded from resources again once the
+     * configured locale changes.
+     */
+    public static Alphabet getInstance(Context context) {
+        final Locale locale = context.getResources().getConfiguration().locale;
+        Alphabet instance = sInstance;
+        if (instance == null || !locale.equals(instance.mLocale)) {
+            synchronized (Alphabet.class) {
+                instance = sInstance;
+                if (instance == null || !locale.equals(instance.mLocale)) {
+                    instance = new Alphabet(
+                            context.getResources().getStringArray(R.array.alphabet), locale);
+                    sInstance = instance;
+                }
+            }
+        }
+        return instance;
+    }
+
+    public int size() {
+        return mLetters.length;
+    }
+
+    /**
+     * @return The letter at a position, always the same instance.
+     */
+    public String get(int position) {
+        return mLetters[position];
+    }
+
+    /**
+     * Finds the position of a letter.
+     *
+     * @param letter The letter to look up.
+     * @return The letter's position or <code>-1</code> if it isn't part of this alphabet.
+     */
+    public int indexOf(CharSequence letter) {
+        if (letter == null) {
+            return NOT_FOUND;
+        }
+        if (letter.length() == 1) {
+            final char c = letter.charAt(0);
+            return c < mPositions.length ? mPositions[c] : NOT_FOUND;
+        }
+        for (int i = 0; i < mLetters.length; i++) {
+            if (mLetters[i].contentEquals(letter)) {
+                return i;
+            }
+        }
+        return NOT_FOUND;
+    }
+}
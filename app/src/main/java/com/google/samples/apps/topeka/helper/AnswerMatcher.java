@@ -0,0 +1,217 @@
+/*
+ * Copyright 2015 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.samples.apps.topeka.helper;
+
+import android.support.annotation.Nullable;
+
+import java.text.Normalizer;
+
+/**
+ * Matches text input against a correct answer, accepting differences in case, diacritics,
+ * punctuation and whitespace as well as a number of typos.
+ * <p>
+ * The answer is folded once on creation. Matching folds the input into a reused buffer and
+ * computes the edit distance in two reused rows, stopping as soon as the tolerance is exceeded,
+ * so it can run on every keystroke without allocating. Instances are not thread safe.
+ * </p>
+ */
+public final class AnswerMatcher {
+
+    /**
+     * Lets the tolerance depend on the length of the answer, see
+     * {@link #getDefaultTolerance(int)}.
+     */
+    public static final int DEFAULT_TOLERANCE = -1;
+
+    private static final char WORD_SEPARATOR = ' ';
+    /**
+     * Folded characters of Latin-1 and Latin Extended-A, <code>0</code> for separators.
+     */
+    private static final char[] FOLDED = createFoldingTable('\u0180');
+
+    private final char[] mAnswer;
+    private final int mTolerance;
+    private char[] mInput;
+    private int[] mPreviousRow;
+    private int[] mCurrentRow;
+
+    /**
+     * @param answer The correct answer.
+     * @param tolerance The number of typos to accept, each being an inserted, deleted or
+     * replaced character, or {@link #DEFAULT_TOLERANCE}.
+     */
+    public AnswerMatcher(String answer, int tolerance) {
+        final char[] folded = new char[getFoldedCapacity(answer.length())];
+        final int length = fold(answer, folded);
+        mAnswer = new char[length];
+        System.arraycopy(folded, 0, mAnswer, 0, length);
+        mTolerance = tolerance == DEFAULT_TOLERANCE ? getDefaultTolerance(length) : tolerance;
+        mInput = new char[getFoldedCapacity(length + mTolerance)];
+        mPreviousRow = new int[length + 1];
+        mCurrentRow = new int[length + 1];
+    }
+
+    /**
+     * Short answers have to match exactly, longer ones may contain one typo per five
+     * characters, up to three.
+     *
+     * @param length The length of the folded answer.
+     * @return The number of typos to accept.
+     */
+    public static int getDefaultTolerance(int length) {
+        return Math.min(3, length / 5);
+    }
+
+    public int getTolerance() {
+        return mTolerance;
+    }
+
+    /**
+     * Checks whether an input is close enough to the answer.
+     *
+     * @param input The input, e.g. the {@link android.text.Editable} of an EditText.
+     * @return <code>true</code> if the input matches the answer.
+     */
+    public boolean matches(@Nullable CharSequence input) {
+        if (input == null) {
+            return false;
+        }
+        final int capacity = getFoldedCapacity(input.length());
+        if (mInput.length < capacity) {
+            mInput = new char[capacity];
+        }
+        final int length = fold(input, mInput);
+        if (Math.abs(length - mAnswer.length) > mTolerance) {
+            return false;
+        }
+        return isWithinTolerance(mInput, length);
+    }
+
+    /**
+     * Computes the edit distance between the input and the answer row by row, giving up once
+     * all of a row's values exceed the tolerance.
+     */
+    private boolean isWithinTolerance(char[] input, int inputLength) {
+        final int answerLength = mAnswer.length;
+        int[] previous = mPreviousRow;
+        int[] current = mCurrentRow;
+        for (int j = 0; j <= answerLength; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= inputLength; i++) {
+            current[0] = i;
+            int rowMinimum = i;
+            final char c = input[i - 1];
+            for (int j = 1; j <= answerLength; j++) {
+                final int substitution = previous[j - 1] + (c == mAnswer[j - 1] ? 0 : 1);
+                final int distance = Math.min(substitution,
+                        Math.min(previous[j], current[j - 1]) + 1);
+                current[j] = distance;
+                rowMinimum = Math.min(rowMinimum, distance);
+            }
+            if (rowMinimum > mTolerance) {
+                return false;
+            }
+            final int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[answerLength] <= mTolerance;
+    }
+
+    /**
+     * Folding may expand a character to two, e.g. the sharp s to <code>ss</code>.
+     */
+    private static int getFoldedCapacity(int length) {
+        return 2 * length;
+    }
+
+    /**
+     * Lower cases text, strips diacritics and replaces runs of whitespace and punctuation by a
+     * single separator. Leading and trailing separators are dropped.
+     *
+     * @param text The text to fold.
+     * @param out Receives the folded text, needs room for {@link #getFoldedCapacity(int)}.
+     * @return The length of the folded text.
+     */
+    static int fold(CharSequence text, char[] out) {
+        int length = 0;
+        boolean separate = false;
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            final char folded = c < FOLDED.length ? FOLDED[c]
+                    : Character.isLetterOrDigit(c) ? Character.toLowerCase(c) : 0;
+            if (folded == 0) {
+                separate = length > 0;
+                continue;
+            }
+            if (separate) {
+                out[length++] = WORD_SEPARATOR;
+                separate = false;
+            }
+            out[length++] = folded;
+            final char expansion = getExpansion(c);
+            if (expansion != 0) {
+                out[length++] = expansion;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * @return The second character of ligatures folded to two characters, else <code>0</code>.
+     */
+    private static char getExpansion(char c) {
+        switch (c) {
+            case '\u00df': // sharp s
+                return 's';
+            case '\u00c6': // AE
+            case '\u00e6': // ae
+            case '\u0152': // OE
+            case '\u0153': // oe
+                return 'e';
+            default:
+                return 0;
+        }
+    }
+
+    private static char[] createFoldingTable(char size) {
+        final char[] table = new char[size];
+        for (char c = 0; c < size; c++) {
+            if (!Character.isLetterOrDigit(c)) {
+                continue;
+            }
+            // the first character of the canonical decomposition is the base letter
+            final char base = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD)
+                    .charAt(0);
+            table[c] = Character.toLowerCase(base);
+        }
+        // letters without a decomposition
+        table['\u00df'] = 's';
+        table['\u00c6'] = 'a';
+        table['\u00e6'] = 'a';
+        table['\u00d8'] = 'o';
+        table['\u00f8'] = 'o';
+        table['\u0110'] = 'd';
+        table['\u0111'] = 'd';
+        table['\u0141'] = 'l';
+        table['\u0142'] = 'l';
+        table['\u0152'] = 'o';
+        table['\u0153'] = 'o';
+        return table;
+    }
+}
@@ -0,0 +1,327 @@
+/*
+ * Copyright 2015 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.samples.apps.topeka.helper;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.BitmapShader;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.graphics.Shader;
+import android.graphics.drawable.Drawable;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.DrawableRes;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v4.content.res.ResourcesCompat;
+import android.support.v4.util.LruCache;
+import android.util.Log;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Decodes bitmaps at the size they are displayed in and keeps them in a bounded, process wide
+ * cache.
+ */
+public class BitmapCache {
+
+    private static final String TAG = "BitmapCache";
+
+    /**
+     * The cache uses at most 1/16th of the available heap.
+     */
+    private static final int MAX_SIZE_BYTES = (int) (Runtime.getRuntime().maxMemory() / 16);
+
+    private static final LruCache<String, Bitmap> sCache =
+            new LruCache<String, Bitmap>(MAX_SIZE_BYTES) {
+                @Override
+                protected int sizeOf(String key, Bitmap value) {
+                    return value.getRowBytes() * value.getHeight();
+                }
+            };
+
+    /**
+     * Decodes images in the background. A single thread is used so a pending request for an
+     * image is done before a following request for the same image checks the cache.
+     */
+    private static final Executor sDecodeExecutor = Executors.newSingleThreadExecutor();
+
+    private BitmapCache() {
+        //no instance
+    }
+
+    /**
+     * Gets a circular version of an image with the given size.
+     * Creates and caches it if it has not been requested before.
+     *
+     * @param resources The resources to load the image from.
+     * @param resId The image's resource id.
+     * @param size Width and height of the resulting bitmap in pixels.
+     * @return The circular bitmap or <code>null</code> if the resource could not be decoded.
+     */
+    @Nullable
+    public static Bitmap getRoundedBitmap(@NonNull Resources resources, @DrawableRes int resId,
+                                          int size) {
+        final String key = createKey(resId, size, size, true);
+        Bitmap rounded = sCache.get(key);
+        if (rounded == null) {
+            final Bitmap source = decodeBitmap(resources, resId, size, size);
+            if (source == null) {
+                return null;
+            }
+            rounded = createRoundedBitmap(source, size);
+            source.recycle();
+            sCache.put(key, rounded);
+        }
+        return rounded;
+    }
+
+    /**
+     * Gets a circular version of an image with the given size if it already is cached.
+     *
+     * @param resources The resources to load the image from.
+     * @param resId The image's resource id.
+     * @param size Width and height of the bitmap in pixels.
+     * @return The cached bitmap or <code>null</code> if it has not been created yet.
+     */
+    @Nullable
+    public static Bitmap getCachedRoundedBitmap(@NonNull Resources resources,
+                                                @DrawableRes int resId, int size) {
+        return sCache.get(createKey(resId, size, size, true));
+    }
+
+    /**
+     * Loads a circular version of an image with the given size. Cached images are delivered
+     * right away, all others are created in the background and delivered on the main thread.
+     *
+     * @param resources The resources to load the image from.
+     * @param resId The image's resource id.
+     * @param size Width and height of the bitmap in pixels.
+     * @param listener Notified once the image is loaded. Only weakly referenced while the image
+     * is loaded in the background, so callers keep a reference until it is notified.
+     */
+    public static void loadRoundedBitmap(@NonNull Resources resources, @DrawableRes int resId,
+                                         int size, @Nullable OnBitmapLoadedListener listener) {
+        final Bitmap cached = getCachedRoundedBitmap(resources, resId, size);
+        if (cached != null) {
+            if (listener != null) {
+                listener.onBitmapLoaded(cached);
+            }
+            return;
+        }
+        loadInBackground(resources, resId, size, size, true, listener);
+    }
+
+    /**
+     * Gets an image decoded to fit the given bounds if it already is cached.
+     *
+     * @param resources The resources to load the image from.
+     * @param resId The image's resource id.
+     * @param width The width the image will be displayed in.
+     * @param height The height the image will be displayed in.
+     * @return The cached bitmap or <code>null</code> if it has not been decoded yet.
+     */
+    @Nullable
+    public static Bitmap getCachedBitmap(@NonNull Resources resources, @DrawableRes int resId,
+                                         int width, int height) {
+        return sCache.get(createKey(resId, width, height, false));
+    }
+
+    /**
+     * Gets an image decoded to fit the given bounds.
+     * Decodes and caches it on the calling thread if it has not been requested before.
+     *
+     * @param resources The resources to load the image from.
+     * @param resId The image's resource id.
+     * @param width The width the image will be displayed in.
+     * @param height The height the image will be displayed in.
+     * @return The bitmap or <code>null</code> if the resource could not be decoded.
+     */
+    @Nullable
+    public static Bitmap getBitmap(@NonNull Resources resources, @DrawableRes int resId,
+                                   int width, int height) {
+        final String key = createKey(resId, width, height, false);
+        Bitmap bitmap = sCache.get(key);
+        if (bitmap == null) {
+            bitmap = decodeBitmap(resources, resId, width, height);
+            if (bitmap == null) {
+                return null;
+            }
+            sCache.put(key, bitmap);
+        }
+        return bitmap;
+    }
+
+    /**
+     * Decodes an image in the background, so it's cached once it is needed.
+     *
+     * @see #getBitmap(Resources, int, int, int)
+     */
+    public static void prefetchBitmap(@NonNull Resources resources, @DrawableRes int resId,
+                                      int width, int height) {
+        loadBitmap(resources, resId, width, height, null);
+    }
+
+    /**
+     * Loads an image decoded to fit the given bounds. Cached images are delivered right away,
+     * all others are decoded in the background and delivered on the main thread.
+     *
+     * @param resources The resources to load the image from.
+     * @param resId The image's resource id.
+     * @param width The width the image will be displayed in.
+     * @param height The height the image will be displayed in.
+     * @param listener Notified once the image is loaded. Only weakly referenced while the image
+     * is loaded in the background, so callers keep a reference until it is notified.
+     */
+    public static void loadBitmap(@NonNull Resources resources, @DrawableRes int resId,
+                                  int width, int height,
+                                  @Nullable OnBitmapLoadedListener listener) {
+        final Bitmap cached = getCachedBitmap(resources, resId, width, height);
+        if (cached != null) {
+            if (listener != null) {
+                listener.onBitmapLoaded(cached);
+            }
+            return;
+        }
+        loadInBackground(resources, resId, width, height, false, listener);
+    }
+
+    private static void loadInBackground(@NonNull final Resources resources,
+                                         @DrawableRes final int resId, final int width,
+                                         final int height, final boolean rounded,
+                                         @Nullable OnBitmapLoadedListener listener) {
+        final WeakReference<OnBitmapLoadedListener> listenerRef =
+                listener == null ? null : new WeakReference<>(listener);
+        final Handler mainHandler = listener == null ? null : new Handler(Looper.getMainLooper());
+        sDecodeExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                Bitmap bitmap;
+                try {
+                    bitmap = rounded ? getRoundedBitmap(resources, resId, width)
+                            : getBitmap(resources, resId, width, height);
+                } catch (RuntimeException | OutOfMemoryError e) {
+                    Log.e(TAG, "Could not decode " + resId, e);
+                    bitmap = null;
+                }
+                if (mainHandler == null) {
+                    return;
+                }
+                final Bitmap result = bitmap;
+                mainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        final OnBitmapLoadedListener target = listenerRef.get();
+                        if (target != null) {
+                            target.onBitmapLoaded(result);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    private static String createKey(@DrawableRes int resId, int width, int height,
+                                    boolean rounded) {
+        return resId + ":" + width + "x" + height + (rounded ? ":round" : "");
+    }
+
+    /**
+     * Decodes an image to at least the requested size, skipping full resolution decoding
+     * where possible. Resources that are no plain bitmaps are drawn at the requested size.
+     */
+    @Nullable
+    private static Bitmap decodeBitmap(Resources resources, @DrawableRes int resId,
+                                       int width, int height) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        options.inScaled = false;
+        BitmapFactory.decodeResource(resources, resId, options);
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            return drawBitmap(resources, resId, width, height);
+        }
+        options.inSampleSize = calculateInSampleSize(options.outWidth, options.outHeight,
+                width, height);
+        options.inJustDecodeBounds = false;
+        final Bitmap bitmap = BitmapFactory.decodeResource(resources, resId, options);
+        if (bitmap != null && bitmap.getDensity() != Bitmap.DENSITY_NONE) {
+            // Keep the image's intrinsic size when displayed, even though less pixels were read.
+            bitmap.setDensity(bitmap.getDensity() / options.inSampleSize);
+        }
+        return bitmap;
+    }
+
+    @Nullable
+    private static Bitmap drawBitmap(Resources resources, @DrawableRes int resId,
+                                     int width, int height) {
+        final Drawable drawable = ResourcesCompat.getDrawable(resources, resId, null);
+        if (drawable == null) {
+            return null;
+        }
+        Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        drawable.setBounds(0, 0, width, height);
+        drawable.draw(new Canvas(bitmap));
+        return bitmap;
+    }
+
+    /**
+     * Calculates the largest power of two sample size that keeps both dimensions at least as
+     * large as requested.
+     */
+    static int calculateInSampleSize(int outWidth, int outHeight, int width, int height) {
+        int inSampleSize = 1;
+        while (outWidth / (inSampleSize * 2) >= width
+                && outHeight / (inSampleSize * 2) >= height) {
+            inSampleSize *= 2;
+        }
+        return inSampleSize;
+    }
+
+    private static Bitmap createRoundedBitmap(Bitmap source, int size) {
+        Bitmap rounded = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+        BitmapShader shader = new BitmapShader(source, Shader.TileMode.CLAMP,
+                Shader.TileMode.CLAMP);
+        Matrix matrix = new Matrix();
+        matrix.setRectToRect(new RectF(0, 0, source.getWidth(), source.getHeight()),
+                new RectF(0, 0, size, size), Matrix.ScaleToFit.CENTER);
+        shader.setLocalMatrix(matrix);
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.FILTER_BITMAP_FLAG);
+        paint.setShader(shader);
+        final float radius = size / 2f;
+        new Canvas(rounded).drawCircle(radius, radius, radius, paint);
+        return rounded;
+    }
+
+    /**
+     * Interface definition for a callback to be invoked when an image has been loaded.
+     */
+    public interface OnBitmapLoadedListener {
+
+        /**
+         * This method will be invoked on the main thread when an image has been loaded.
+         *
+         * @param bitmap The loaded image or <code>null</code> if it could not be decoded.
+         */
+        void onBitmapLoaded(@Nullable Bitmap bitmap);
+    }
+}
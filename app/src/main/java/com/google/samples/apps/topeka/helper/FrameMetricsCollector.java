@@ -0,0 +1,263 @@
+/*
+ * Copyright 2015 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.samples.apps.topeka.helper;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.support.annotation.Nullable;
+import android.view.Choreographer;
+
+import com.google.samples.apps.topeka.BuildConfig;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Collects frame times while interactions are running, tagged by screen and interaction.
+ * <p>
+ * Frames are observed through {@link Choreographer} callbacks, which are only posted while an
+ * interaction is running. Collection is enabled in debug builds on Jelly Bean and above,
+ * all other calls are no-ops.
+ * </p>
+ */
+public class FrameMetricsCollector {
+
+    public static final String SCREEN_CATEGORIES = "Categories";
+    public static final String SCREEN_QUIZ = "Quiz";
+    public static final String INTERACTION_SCROLL = "Scroll";
+    public static final String INTERACTION_REVEAL = "Reveal";
+    public static final String INTERACTION_ANSWER = "Answer";
+    public static final String INTERACTION_NEXT_QUIZ = "NextQuiz";
+
+    /**
+     * Frames taking longer than one and a half refresh intervals at 60 Hz missed a vsync.
+     */
+    static final long JANK_THRESHOLD_NANOS = 25000000;
+
+    private static final boolean ENABLED = BuildConfig.DEBUG
+            && ApiLevelHelper.isAtLeast(Build.VERSION_CODES.JELLY_BEAN);
+
+    private static final Map<String, FrameStats> sStats = new LinkedHashMap<>();
+    private static final Set<String> sRunning = new HashSet<>();
+    private static Object sFrameCallback;
+    private static long sLastFrameTimeNanos;
+
+    private FrameMetricsCollector() {
+        //no instance
+    }
+
+    /**
+     * Starts collecting frames for an interaction. Has to be called on the main thread.
+     *
+     * @param screen One of the <code>SCREEN_</code> constants.
+     * @param interaction One of the <code>INTERACTION_</code> constants.
+     */
+    public static void begin(String screen, String interaction) {
+        if (!ENABLED) {
+            return;
+        }
+        final boolean idle;
+        synchronized (FrameMetricsCollector.class) {
+            idle = sRunning.isEmpty();
+            sRunning.add(createKey(screen, interaction));
+        }
+        if (idle) {
+            startFrameCallbacks();
+        }
+    }
+
+    /**
+     * Stops collecting frames for an interaction.
+     * Does nothing if the interaction is not running.
+     *
+     * @param screen One of the <code>SCREEN_</code> constants.
+     * @param interaction One of the <code>INTERACTION_</code> constants.
+     */
+    public static void end(String screen, String interaction) {
+        if (!ENABLED) {
+            return;
+        }
+        synchronized (FrameMetricsCollector.class) {
+            sRunning.remove(createKey(screen, interaction));
+        }
+    }
+
+    /**
+     * Collects frames for an interaction while an animator runs.
+     *
+     * @param animator The animator to track.
+     * @param screen One of the <code>SCREEN_</code> constants.
+     * @param interaction One of the <code>INTERACTION_</code> constants.
+     */
+    public static void track(Animator animator, final String screen, final String interaction) {
+        if (!ENABLED) {
+            return;
+        }
+        animator.addListener(new AnimatorListenerAdapter() {
+            @Override
+            public void onAnimationStart(Animator animation) {
+                begin(screen, interaction);
+            }
+
+            @Override
+            public void onAnimationEnd(Animator animation) {
+                end(screen, interaction);
+            }
+        });
+    }
+
+    /**
+     * Gets the frames collected for an interaction.
+     *
+     * @param screen One of the <code>SCREEN_</code> constants.
+     * @param interaction One of the <code>INTERACTION_</code> constants.
+     * @return The collected frames or <code>null</code> if none have been collected.
+     */
+    @Nullable
+    public static synchronized FrameStats getStats(String screen, String interaction) {
+        return sStats.get(createKey(screen, interaction));
+    }
+
+    /**
+     * @return Jank and percentile frame times of all interactions that were collected.
+     */
+    public static synchronized String getReport() {
+        StringBuilder report = new StringBuilder("Frame metrics");
+        for (Map.Entry<String, FrameStats> entry : sStats.entrySet()) {
+            report.append(System.getProperty("line.separator"))
+                    .append(entry.getKey())
+                    .append(": ")
+                    .append(entry.getValue());
+        }
+        return report.toString();
+    }
+
+    /**
+     * Discards all collected frames.
+     */
+    public static synchronized void reset() {
+        sStats.clear();
+    }
+
+    private static String createKey(String screen, String interaction) {
+        return screen + "/" + interaction;
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private static void startFrameCallbacks() {
+        if (sFrameCallback == null) {
+            sFrameCallback = new Choreographer.FrameCallback() {
+                @Override
+                public void doFrame(long frameTimeNanos) {
+                    if (onFrame(frameTimeNanos)) {
+                        Choreographer.getInstance().postFrameCallback(this);
+                    }
+                }
+            };
+        }
+        sLastFrameTimeNanos = 0;
+        final Choreographer.FrameCallback callback = (Choreographer.FrameCallback) sFrameCallback;
+        // Drop a callback that still is pending from a previous interaction.
+        Choreographer.getInstance().removeFrameCallback(callback);
+        Choreographer.getInstance().postFrameCallback(callback);
+    }
+
+    /**
+     * Adds the time since the last frame to all running interactions.
+     *
+     * @return <code>true</code> if the next frame should be observed.
+     */
+    private static synchronized boolean onFrame(long frameTimeNanos) {
+        if (sLastFrameTimeNanos != 0) {
+            final long frameDurationNanos = frameTimeNanos - sLastFrameTimeNanos;
+            for (String key : sRunning) {
+                FrameStats stats = sStats.get(key);
+                if (stats == null) {
+                    stats = new FrameStats();
+                    sStats.put(key, stats);
+                }
+                stats.add(frameDurationNanos);
+            }
+        }
+        sLastFrameTimeNanos = frameTimeNanos;
+        return !sRunning.isEmpty();
+    }
+
+    /**
+     * Frame times collected for a single interaction.
+     */
+    public static final class FrameStats {
+
+        private static final int INITIAL_CAPACITY = 64;
+
+        private long[] mFrameNanos = new long[INITIAL_CAPACITY];
+        private int mFrameCount;
+        private int mJankCount;
+
+        void add(long frameNanos) {
+            if (mFrameCount == mFrameNanos.length) {
+                mFrameNanos = Arrays.copyOf(mFrameNanos, mFrameCount * 2);
+            }
+            mFrameNanos[mFrameCount++] = frameNanos;
+            if (frameNanos > JANK_THRESHOLD_NANOS) {
+                mJankCount++;
+            }
+        }
+
+        public int getFrameCount() {
+            return mFrameCount;
+        }
+
+        /**
+         * @return The share of frames that missed at least one vsync, from 0 to 100.
+         */
+        public float getJankPercentage() {
+            return mFrameCount == 0 ? 0 : mJankCount * 100f / mFrameCount;
+        }
+
+        /**
+         * Gets a percentile of the frame times using the nearest rank method.
+         *
+         * @param percentile The percentile to get, from 1 to 100.
+         * @return The frame time in milliseconds or <code>0</code> if there are no frames.
+         */
+        public float getPercentileMillis(int percentile) {
+            if (mFrameCount == 0) {
+                return 0;
+            }
+            final long[] sorted = Arrays.copyOf(mFrameNanos, mFrameCount);
+            Arrays.sort(sorted);
+            // Rounds up in integer math, as floating point could be off by one rank.
+            final int rank = (percentile * mFrameCount + 99) / 100;
+            return sorted[Math.max(0, rank - 1)] / 1000000f;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "%d frames, %.1f%% jank, p50 %.1fms, p90 %.1fms, p95 %.1fms, p99 %.1fms",
+                    mFrameCount, getJankPercentage(), getPercentileMillis(50),
+                    getPercentileMillis(90), getPercentileMillis(95), getPercentileMillis(99));
+        }
+    }
+}
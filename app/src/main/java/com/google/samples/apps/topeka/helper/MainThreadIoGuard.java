@@ -0,0 +1,134 @@
+/*
+ * Copyright 2015 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.samples.apps.topeka.helper;
+
+import android.os.Looper;
+import android.util.Log;
+
+import com.google.samples.apps.topeka.BuildConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Detects database and preferences access on the main thread in debug builds.
+ * <p>
+ * Each access is logged with the stack of its call site and kept, so tests can fail on
+ * call sites they don't expect. In release builds all checks are no-ops.
+ * </p>
+ */
+public class MainThreadIoGuard {
+
+    public static final String DATABASE = "database";
+    public static final String PREFERENCES = "preferences";
+
+    private static final String TAG = "MainThreadIoGuard";
+    private static final int MAX_VIOLATIONS = 100;
+    private static final String[] GUARDED_CLASSES = {MainThreadIoGuard.class.getName(),
+            PreferencesHelper.class.getName(),
+            "com.google.samples.apps.topeka.persistence.TopekaDatabaseHelper"};
+
+    private static final List<Violation> sViolations = new ArrayList<>();
+
+    private MainThreadIoGuard() {
+        //no instance
+    }
+
+    /**
+     * Flags an access if it happens on the main thread.
+     *
+     * @param resource What is accessed, one of {@link #DATABASE} or {@link #PREFERENCES}.
+     */
+    public static void check(String resource) {
+        if (!BuildConfig.DEBUG || Looper.myLooper() != Looper.getMainLooper()) {
+            return;
+        }
+        Violation violation = new Violation(resource);
+        Log.w(TAG, violation.getMessage(), violation);
+        synchronized (sViolations) {
+            if (sViolations.size() < MAX_VIOLATIONS) {
+                sViolations.add(violation);
+            }
+        }
+    }
+
+    /**
+     * @return All violations since the last call to {@link #clearViolations()}.
+     */
+    public static List<Violation> getViolations() {
+        synchronized (sViolations) {
+            return new ArrayList<>(sViolations);
+        }
+    }
+
+    public static void clearViolations() {
+        synchronized (sViolations) {
+            sViolations.clear();
+        }
+    }
+
+    /**
+     * An access on the main thread, carrying the stack of its call site.
+     */
+    public static class Violation extends RuntimeException {
+
+        private final String mResource;
+        private final String mCallSite;
+
+        Violation(String resource) {
+            mResource = resource;
+            mCallSite = findCallSite(getStackTrace());
+        }
+
+        @Override
+        public String getMessage() {
+            return "Main thread " + mResource + " access from " + mCallSite;
+        }
+
+        /**
+         * @return The first caller outside of the guarded helpers as
+         * <code>SimpleClassName.method</code>, without the names of inner classes.
+         */
+        public String getCallSite() {
+            return mCallSite;
+        }
+
+        private static String findCallSite(StackTraceElement[] stackTrace) {
+            for (StackTraceElement element : stackTrace) {
+                if (!isGuarded(element.getClassName())) {
+                    String className = element.getClassName();
+                    className = className.substring(className.lastIndexOf('.') + 1);
+                    final int innerClassStart = className.indexOf('$');
+                    if (innerClassStart >= 0) {
+                        className = className.substring(0, innerClassStart);
+                    }
+                    return className + "." + element.getMethodName();
+                }
+            }
+            return "unknown";
+        }
+
+        private static boolean isGuarded(String className) {
+            for (String guarded : GUARDED_CLASSES) {
+                if (className.equals(guarded) || className.startsWith(guarded + "$")) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -118,6 +118,7 @@ public class PreferencesHelper {
     }
 
     private static SharedPreferences getSharedPreferences(Context context) {
+        MainThreadIoGuard.check(MainThreadIoGuard.PREFERENCES);
         return context.getSharedPreferences(PLAYER_PREFERENCES, Context.MODE_PRIVATE);
     }
 }
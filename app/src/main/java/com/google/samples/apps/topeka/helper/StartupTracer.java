@@ -0,0 +1,190 @@
+/*
+ * Copyright 2015 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.samples.apps.topeka.helper;
+
+import android.os.SystemClock;
+import android.support.annotation.VisibleForTesting;
+import android.support.v4.os.TraceCompat;
+import android.util.Log;
+
+import com.google.samples.apps.topeka.BuildConfig;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Measures the phases on the critical path of a cold start, from signing in up to displaying
+ * the categories.
+ * <p>
+ * Sections show up in systrace and their durations are recorded, as well as the time of
+ * milestones relative to the first recorded event. Only the first occurrence of each section
+ * and milestone is recorded, as later ones are no part of the startup. Sections are matched
+ * per thread, so the same section may run on several threads at once.
+ * In debug builds the results are logged once the categories' enter transition started.
+ * </p>
+ */
+public class StartupTracer {
+
+    public static final String SECTION_DB_OPEN = "DbOpen";
+    public static final String SECTION_PRE_FILL = "PreFill";
+    public static final String SECTION_CATEGORY_LOAD = "CategoryLoad";
+    public static final String MILESTONE_SIGN_IN_CREATED = "SignInCreated";
+    public static final String MILESTONE_CATEGORY_SELECTION_CREATED = "CategorySelectionCreated";
+    public static final String MILESTONE_FIRST_FRAME = "FirstFrame";
+    public static final String MILESTONE_ENTER_TRANSITION = "EnterTransition";
+
+    private static final String TAG = "StartupTracer";
+    private static final long NOT_STARTED = -1;
+
+    /**
+     * Starts of sections that have not ended yet, by section name and thread.
+     */
+    private static final Map<String, Long> sSectionStarts = new HashMap<>();
+    private static final Map<String, Long> sSectionDurations = new LinkedHashMap<>();
+    private static final Map<String, Long> sMilestones = new LinkedHashMap<>();
+    private static long sStartTime = NOT_STARTED;
+
+    private StartupTracer() {
+        //no instance
+    }
+
+    /**
+     * Begins a section. Sections have to be ended on the same thread they were started on.
+     *
+     * @param sectionName One of the <code>SECTION_</code> constants.
+     */
+    public static void beginSection(String sectionName) {
+        TraceCompat.beginSection(sectionName);
+        recordSectionStart(sectionName, Thread.currentThread().getId(),
+                SystemClock.elapsedRealtime());
+    }
+
+    @VisibleForTesting
+    static synchronized void recordSectionStart(String sectionName, long threadId, long now) {
+        startIfNeeded(now);
+        final String key = createStartKey(sectionName, threadId);
+        if (!sSectionDurations.containsKey(sectionName) && !sSectionStarts.containsKey(key)) {
+            sSectionStarts.put(key, now);
+        }
+    }
+
+    /**
+     * Ends a section that has previously been begun on the same thread.
+     *
+     * @param sectionName One of the <code>SECTION_</code> constants.
+     */
+    public static void endSection(String sectionName) {
+        TraceCompat.endSection();
+        recordSectionEnd(sectionName, Thread.currentThread().getId(),
+                SystemClock.elapsedRealtime());
+    }
+
+    @VisibleForTesting
+    static synchronized void recordSectionEnd(String sectionName, long threadId, long now) {
+        final Long start = sSectionStarts.remove(createStartKey(sectionName, threadId));
+        if (start != null && !sSectionDurations.containsKey(sectionName)) {
+            sSectionDurations.put(sectionName, now - start);
+        }
+    }
+
+    private static String createStartKey(String sectionName, long threadId) {
+        return sectionName + "@" + threadId;
+    }
+
+    /**
+     * Records a point in time during startup.
+     *
+     * @param milestoneName One of the <code>MILESTONE_</code> constants.
+     */
+    public static void mark(String milestoneName) {
+        recordMilestone(milestoneName, SystemClock.elapsedRealtime());
+        if (MILESTONE_ENTER_TRANSITION.equals(milestoneName) && BuildConfig.DEBUG) {
+            Log.d(TAG, getReport());
+        }
+    }
+
+    @VisibleForTesting
+    static synchronized void recordMilestone(String milestoneName, long now) {
+        startIfNeeded(now);
+        if (!sMilestones.containsKey(milestoneName)) {
+            sMilestones.put(milestoneName, now - sStartTime);
+        }
+    }
+
+    private static void startIfNeeded(long now) {
+        if (sStartTime == NOT_STARTED) {
+            sStartTime = now;
+        }
+    }
+
+    /**
+     * Discards all recorded sections and milestones.
+     */
+    @VisibleForTesting
+    static synchronized void reset() {
+        sSectionStarts.clear();
+        sSectionDurations.clear();
+        sMilestones.clear();
+        sStartTime = NOT_STARTED;
+    }
+
+    /**
+     * @return Durations of all completed sections and times of all milestones in milliseconds.
+     */
+    public static synchronized String getReport() {
+        StringBuilder report = new StringBuilder("Startup timings (ms)");
+        appendEntries(report, "section", sSectionDurations);
+        appendEntries(report, "milestone", sMilestones);
+        return report.toString();
+    }
+
+    private static void appendEntries(StringBuilder report, String type,
+                                      Map<String, Long> entries) {
+        for (Map.Entry<String, Long> entry : entries.entrySet()) {
+            report.append(System.getProperty("line.separator"))
+                    .append(type)
+                    .append(' ')
+                    .append(entry.getKey())
+                    .append(": ")
+                    .append(entry.getValue());
+        }
+    }
+
+    /**
+     * Gets the recorded duration of a section.
+     *
+     * @param sectionName One of the <code>SECTION_</code> constants.
+     * @return The duration in milliseconds or <code>-1</code> if the section was not completed.
+     */
+    public static synchronized long getSectionDuration(String sectionName) {
+        final Long duration = sSectionDurations.get(sectionName);
+        return duration == null ? NOT_STARTED : duration;
+    }
+
+    /**
+     * Gets the recorded time of a milestone.
+     *
+     * @param milestoneName One of the <code>MILESTONE_</code> constants.
+     * @return The time since the first recorded event in milliseconds or <code>-1</code> if the
+     * milestone has not been reached.
+     */
+    public static synchronized long getMilestone(String milestoneName) {
+        final Long time = sMilestones.get(milestoneName);
+        return time == null ? NOT_STARTED : time;
+    }
+}
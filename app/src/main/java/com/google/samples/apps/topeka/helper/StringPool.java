@@ -0,0 +1,105 @@
+/*
+ * Copyright 2015 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.samples.apps.topeka.helper;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * A process-wide pool for strings of content loaded from the database.
+ * <p>
+ * Options, answers and translations repeat a lot across quizzes of large content packs.
+ * Pooling them lets all quizzes share a single instance of each distinct string. Pooled
+ * strings are only weakly referenced, so the pool doesn't keep content alive after it has
+ * been unloaded.
+ * </p>
+ */
+public final class StringPool {
+
+    private static final Map<String, WeakReference<String>> sPool = new WeakHashMap<>();
+    private static volatile boolean sEnabled = true;
+
+    private StringPool() {
+        //no instance
+    }
+
+    /**
+     * Enables or disables pooling, e.g. to compare heap usage with and without it.
+     */
+    public static void setEnabled(boolean enabled) {
+        sEnabled = enabled;
+    }
+
+    /**
+     * Gets the pooled instance of a string, adding it to the pool if it isn't contained yet.
+     *
+     * @param value The string to pool, may be <code>null</code>.
+     * @return An equal string that is shared with all other callers.
+     */
+    public static String intern(String value) {
+        if (value == null || !sEnabled) {
+            return value;
+        }
+        synchronized (sPool) {
+            final WeakReference<String> reference = sPool.get(value);
+            final String pooled = reference == null ? null : reference.get();
+            if (pooled != null) {
+                return pooled;
+            }
+            sPool.put(value, new WeakReference<>(value));
+            return value;
+        }
+    }
+
+    /**
+     * Replaces the strings of an array with their pooled instances.
+     *
+     * @param values The strings to pool.
+     * @return The same array, for chaining.
+     */
+    public static String[] intern(String[] values) {
+        if (values == null || !sEnabled) {
+            return values;
+        }
+        synchronized (sPool) {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = intern(values[i]);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * @return The number of strings currently pooled, including ones that are no longer used
+     * but haven't been collected yet.
+     */
+    public static int size() {
+        synchronized (sPool) {
+            return sPool.size();
+        }
+    }
+
+    /**
+     * Removes all strings from the pool. Strings that were handed out remain valid.
+     */
+    public static void clear() {
+        synchronized (sPool) {
+            sPool.clear();
+        }
+    }
+}
@@ -20,9 +20,7 @@ import android.graphics.Color;
 import android.graphics.drawable.ColorDrawable;
 import android.graphics.drawable.Drawable;
 import android.support.v4.view.ViewCompat;
-import android.transition.ChangeBounds;
 import android.util.Property;
-import android.util.TypedValue;
 import android.view.View;
 import android.widget.FrameLayout;
 import android.widget.TextView;
@@ -73,43 +71,6 @@ public class ViewUtils {
                 }
             };
 
-    /**
-     * Allows changes to the text size in transitions and animations.
-     * Using this with something else than {@link ChangeBounds}
-     * can result in a severe performance penalty due to layout passes.
-     */
-    public static final Property<TextView, Float> PROPERTY_TEXT_SIZE =
-            new FloatProperty<TextView>("textSize") {
-                @Override
-                public Float get(TextView view) {
-                    return view.getTextSize();
-                }
-
-                @Override
-                public void setValue(TextView view, float textSize) {
-                    view.setTextSize(TypedValue.COMPLEX_UNIT_PX, textSize);
-                }
-            };
-
-    /**
-     * Allows making changes to the start padding of a view.
-     * Using this with something else than {@link ChangeBounds}
-     * can result in a severe performance penalty due to layout passes.
-     */
-    public static final Property<TextView, Integer> PROPERTY_TEXT_PADDING_START =
-            new IntProperty<TextView>("paddingStart") {
-                @Override
-                public Integer get(TextView view) {
-                    return ViewCompat.getPaddingStart(view);
-                }
-
-                @Override
-                public void setValue(TextView view, int paddingStart) {
-                    ViewCompat.setPaddingRelative(view, paddingStart, view.getPaddingTop(),
-                            ViewCompat.getPaddingEnd(view), view.getPaddingBottom());
-                }
-            };
-
     public static abstract class IntProperty<T> extends Property<T, Integer> {
 
         public IntProperty(String name) {
@@ -130,25 +91,6 @@ public class ViewUtils {
         }
     }
 
-    public static abstract class FloatProperty<T> extends Property<T, Float> {
-
-        public FloatProperty(String name) {
-            super(Float.class, name);
-        }
-
-        /**
-         * A type-specific override of the {@link #set(Object, Float)} that is faster when dealing
-         * with fields of type <code>int</code>.
-         */
-        public abstract void setValue(T object, float value);
-
-        @Override
-        final public void set(T object, Float value) {
-            //noinspection UnnecessaryUnboxing
-            setValue(object, value.floatValue());
-        }
-    }
-
     public static void setPaddingStart(TextView target, int paddingStart) {
         ViewCompat.setPaddingRelative(target, paddingStart, target.getPaddingTop(),
                 ViewCompat.getPaddingEnd(target), target.getPaddingBottom());
@@ -25,29 +25,31 @@ import com.google.samples.apps.topeka.R;
  */
 public enum Avatar {
 
-    ONE(R.drawable.avatar_1),
-    TWO(R.drawable.avatar_2),
-    THREE(R.drawable.avatar_3),
-    FOUR(R.drawable.avatar_4),
-    FIVE(R.drawable.avatar_5),
-    SIX(R.drawable.avatar_6),
-    SEVEN(R.drawable.avatar_7),
-    EIGHT(R.drawable.avatar_8),
-    NINE(R.drawable.avatar_9),
-    TEN(R.drawable.avatar_10),
-    ELEVEN(R.drawable.avatar_11),
-    TWELVE(R.drawable.avatar_12),
-    THIRTEEN(R.drawable.avatar_13),
-    FOURTEEN(R.drawable.avatar_14),
-    FIFTEEN(R.drawable.avatar_15),
-    SIXTEEN(R.drawable.avatar_16);
+    ONE(R.drawable.avatar_1, R.drawable.avatar_1_raster),
+    TWO(R.drawable.avatar_2, R.drawable.avatar_2_raster),
+    THREE(R.drawable.avatar_3, R.drawable.avatar_3_raster),
+    FOUR(R.drawable.avatar_4, R.drawable.avatar_4_raster),
+    FIVE(R.drawable.avatar_5, R.drawable.avatar_5_raster),
+    SIX(R.drawable.avatar_6, R.drawable.avatar_6_raster),
+    SEVEN(R.drawable.avatar_7, R.drawable.avatar_7_raster),
+    EIGHT(R.drawable.avatar_8, R.drawable.avatar_8_raster),
+    NINE(R.drawable.avatar_9, R.drawable.avatar_9_raster),
+    TEN(R.drawable.avatar_10, R.drawable.avatar_10_raster),
+    ELEVEN(R.drawable.avatar_11, R.drawable.avatar_11_raster),
+    TWELVE(R.drawable.avatar_12, R.drawable.avatar_12_raster),
+    THIRTEEN(R.drawable.avatar_13, R.drawable.avatar_13_raster),
+    FOURTEEN(R.drawable.avatar_14, R.drawable.avatar_14_raster),
+    FIFTEEN(R.drawable.avatar_15, R.drawable.avatar_15_raster),
+    SIXTEEN(R.drawable.avatar_16, R.drawable.avatar_16_raster);
 
     private static final String TAG = "Avatar";
 
     private final int mResId;
+    private final int mRasterResId;
 
-    Avatar(@DrawableRes final int resId) {
+    Avatar(@DrawableRes final int resId, @DrawableRes final int rasterResId) {
         mResId = resId;
+        mRasterResId = rasterResId;
     }
 
     @DrawableRes
@@ -55,6 +57,14 @@ public enum Avatar {
         return mResId;
     }
 
+    /**
+     * @return The id of the plain bitmap backing this avatar's drawable.
+     */
+    @DrawableRes
+    public int getRasterDrawableId() {
+        return mRasterResId;
+    }
+
     public String getNameForAccessibility() {
         return TAG + " " + (ordinal() + 1);
     }
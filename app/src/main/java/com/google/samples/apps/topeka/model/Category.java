@@ -158,6 +158,20 @@ public class Category implements Parcelable {
         this.mSolved = solved;
     }
 
+    /**
+     * Copies this category along with its quizzes and scores, so progress made in one of them
+     * doesn't show in the other.
+     *
+     * @return A copy of this category.
+     */
+    public Category copy() {
+        final List<Quiz> quizzes = new ArrayList<>(mQuizzes.size());
+        for (Quiz quiz : mQuizzes) {
+            quizzes.add(quiz.copy());
+        }
+        return new Category(mName, mId, mTheme, quizzes, mScores.clone(), mSolved);
+    }
+
     /**
      * Checks which quiz is the first unsolved within this category.
      *
@@ -30,6 +30,7 @@ public interface JsonAttributes {
     String START = "start";
     String STEP = "step";
     String THEME = "theme";
+    String TOLERANCE = "tolerance";
     String TYPE = "type";
     String SCORES = "scores";
     String SOLVED = "solved";
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2015 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.samples.apps.topeka.model;
+
+import android.os.Bundle;
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.SparseArray;
+
+/**
+ * The state of solving a category's quizzes, independent from the views displaying them.
+ * <p>
+ * Holds the category, the position of the current quiz, the input made for quizzes that
+ * have not been answered yet and the time spent playing. Sessions are small enough to be
+ * saved with the instance state, so they can be restored without loading the category again.
+ * Only time counted until the last {@link #pause(long)} is saved.
+ * </p>
+ */
+public class QuizSession implements Parcelable {
+
+    public static final String TAG = "QuizSession";
+    public static final Creator<QuizSession> CREATOR = new Creator<QuizSession>() {
+        @Override
+        public QuizSession createFromParcel(Parcel in) {
+            return new QuizSession(in);
+        }
+
+        @Override
+        public QuizSession[] newArray(int size) {
+            return new QuizSession[size];
+        }
+    };
+    private static final long NOT_RUNNING = -1;
+
+    private final Category mCategory;
+    private final SparseArray<Bundle> mInputs;
+    private int mPosition;
+    private long mElapsedMillis;
+    private long mResumedAtMillis = NOT_RUNNING;
+
+    /**
+     * Starts a session at the category's first unsolved quiz.
+     *
+     * @param category The category to play.
+     */
+    public QuizSession(@NonNull Category category) {
+        mCategory = category;
+        mInputs = new SparseArray<>();
+        mPosition = category.getFirstUnsolvedQuizPosition();
+    }
+
+    protected QuizSession(Parcel in) {
+        mCategory = in.readParcelable(Category.class.getClassLoader());
+        mPosition = in.readInt();
+        mElapsedMillis = in.readLong();
+        final int inputCount = in.readInt();
+        mInputs = new SparseArray<>(inputCount);
+        for (int i = 0; i < inputCount; i++) {
+            mInputs.put(in.readInt(), in.readBundle(getClass().getClassLoader()));
+        }
+    }
+
+    @NonNull
+    public Category getCategory() {
+        return mCategory;
+    }
+
+    /**
+     * @return The position of the quiz that is currently played.
+     */
+    public int getPosition() {
+        return mPosition;
+    }
+
+    /**
+     * @return <code>true</code> if all quizzes have been answered.
+     */
+    public boolean isFinished() {
+        return mPosition >= mCategory.getQuizzes().size();
+    }
+
+    /**
+     * Keeps the input made for a quiz that has not been answered yet.
+     *
+     * @param position The position of the quiz.
+     * @param input The input as provided by the quiz's view.
+     */
+    public void setInput(int position, @Nullable Bundle input) {
+        if (input == null) {
+            mInputs.remove(position);
+        } else {
+            mInputs.put(position, input);
+        }
+    }
+
+    /**
+     * @return The input kept for a quiz or <code>null</code> if there is none.
+     */
+    @Nullable
+    public Bundle getInput(int position) {
+        return mInputs.get(position);
+    }
+
+    /**
+     * Moves on to the next quiz once the current one has been answered, discarding the input
+     * made for it.
+     *
+     * @return The position of the next quiz.
+     */
+    public int moveToNext() {
+        mInputs.remove(mPosition);
+        return ++mPosition;
+    }
+
+    /**
+     * Starts counting time as spent playing, e.g. when the quiz becomes visible.
+     *
+     * @param nowMillis The current time, e.g. from
+     * {@link android.os.SystemClock#elapsedRealtime()}.
+     */
+    public void resume(long nowMillis) {
+        if (mResumedAtMillis == NOT_RUNNING) {
+            mResumedAtMillis = nowMillis;
+        }
+    }
+
+    /**
+     * Stops counting time as spent playing.
+     *
+     * @param nowMillis The current time, on the same clock as passed to {@link #resume(long)}.
+     */
+    public void pause(long nowMillis) {
+        mElapsedMillis = getElapsedMillis(nowMillis);
+        mResumedAtMillis = NOT_RUNNING;
+    }
+
+    /**
+     * @param nowMillis The current time, on the same clock as passed to {@link #resume(long)}.
+     * @return The time spent playing this session.
+     */
+    public long getElapsedMillis(long nowMillis) {
+        if (mResumedAtMillis == NOT_RUNNING) {
+            return mElapsedMillis;
+        }
+        return mElapsedMillis + nowMillis - mResumedAtMillis;
+    }
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    @Override
+    public void writeToParcel(Parcel dest, int flags) {
+        dest.writeParcelable(mCategory, flags);
+        dest.writeInt(mPosition);
+        dest.writeLong(mElapsedMillis);
+        final int inputCount = mInputs.size();
+        dest.writeInt(inputCount);
+        for (int i = 0; i < inputCount; i++) {
+            dest.writeInt(mInputs.keyAt(i));
+            dest.writeBundle(mInputs.valueAt(i));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2015 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.samples.apps.topeka.model;
+
+/**
+ * A quiz matching a search, along with the category it belongs to.
+ */
+public class SearchResult {
+
+    private final String mCategoryId;
+    private final String mCategoryName;
+    private final String mQuestion;
+
+    public SearchResult(String categoryId, String categoryName, String question) {
+        mCategoryId = categoryId;
+        mCategoryName = categoryName;
+        mQuestion = question;
+    }
+
+    public String getCategoryId() {
+        return mCategoryId;
+    }
+
+    public String getCategoryName() {
+        return mCategoryName;
+    }
+
+    public String getQuestion() {
+        return mQuestion;
+    }
+}
@@ -19,6 +19,8 @@ package com.google.samples.apps.topeka.model.quiz;
 import android.annotation.SuppressLint;
 import android.os.Parcel;
 
+import com.google.samples.apps.topeka.helper.Alphabet;
+
 @SuppressLint("ParcelCreator")
 public final class AlphaPickerQuiz extends Quiz<String> {
 
@@ -32,6 +34,15 @@ public final class AlphaPickerQuiz extends Quiz<String> {
         setAnswer(in.readString());
     }
 
+    private AlphaPickerQuiz(AlphaPickerQuiz quiz) {
+        super(quiz);
+    }
+
+    @Override
+    public AlphaPickerQuiz copy() {
+        return new AlphaPickerQuiz(this);
+    }
+
     @Override
     public QuizType getType() {
         return QuizType.ALPHA_PICKER;
@@ -42,6 +53,17 @@ public final class AlphaPickerQuiz extends Quiz<String> {
         return getAnswer();
     }
 
+    /**
+     * Checks a letter by its position, without creating or comparing strings.
+     *
+     * @param alphabet The alphabet the letter was picked from.
+     * @param position The position of the picked letter.
+     * @return <code>true</code> if the letter at the position is the answer.
+     */
+    public boolean isAnswerCorrect(Alphabet alphabet, int position) {
+        return alphabet.indexOf(getAnswer()) == position;
+    }
+
     @Override
     public void writeToParcel(Parcel dest, int flags) {
         super.writeToParcel(dest, flags);
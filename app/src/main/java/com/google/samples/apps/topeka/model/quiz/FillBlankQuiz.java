@@ -18,25 +18,53 @@ package com.google.samples.apps.topeka.model.quiz;
 
 import android.annotation.SuppressLint;
 import android.os.Parcel;
+import android.support.annotation.Nullable;
+
+import com.google.samples.apps.topeka.helper.AnswerMatcher;
 
 @SuppressLint("ParcelCreator")
 public final class FillBlankQuiz extends Quiz<String> {
 
     private final String mStart;
     private final String mEnd;
+    private final AnswerMatcher mMatcher;
 
     public FillBlankQuiz(String question, String answer, String start, String end, boolean solved) {
+        this(question, answer, start, end, solved, AnswerMatcher.DEFAULT_TOLERANCE);
+    }
+
+    /**
+     * @param tolerance The number of typos to accept or {@link AnswerMatcher#DEFAULT_TOLERANCE}.
+     */
+    public FillBlankQuiz(String question, String answer, String start, String end, boolean solved,
+                         int tolerance) {
         super(question, answer, solved);
         mStart = start;
         mEnd = end;
+        mMatcher = new AnswerMatcher(answer, tolerance);
     }
 
     @SuppressWarnings("unused")
     public FillBlankQuiz(Parcel in) {
         super(in);
-        setAnswer(in.readString());
+        final String answer = in.readString();
+        setAnswer(answer);
         mStart = in.readString();
         mEnd = in.readString();
+        mMatcher = new AnswerMatcher(answer, in.readInt());
+    }
+
+    private FillBlankQuiz(FillBlankQuiz quiz) {
+        super(quiz);
+        mStart = quiz.mStart;
+        mEnd = quiz.mEnd;
+        // matchers keep buffers that are reused per check, so they can't be shared
+        mMatcher = new AnswerMatcher(quiz.getAnswer(), quiz.getTolerance());
+    }
+
+    @Override
+    public FillBlankQuiz copy() {
+        return new FillBlankQuiz(this);
     }
 
     @Override
@@ -57,9 +85,23 @@ public final class FillBlankQuiz extends Quiz<String> {
         return QuizType.FILL_BLANK;
     }
 
+    public int getTolerance() {
+        return mMatcher.getTolerance();
+    }
+
     @Override
     public boolean isAnswerCorrect(String answer) {
-        return getAnswer().equalsIgnoreCase(answer);
+        return matches(answer);
+    }
+
+    /**
+     * Checks an input without allocating, e.g. on every keystroke.
+     *
+     * @param input The input to check.
+     * @return <code>true</code> if the input is close enough to the answer.
+     */
+    public boolean matches(@Nullable CharSequence input) {
+        return mMatcher.matches(input);
     }
 
     @Override
@@ -68,5 +110,6 @@ public final class FillBlankQuiz extends Quiz<String> {
         dest.writeString(getAnswer());
         dest.writeString(mStart);
         dest.writeString(mEnd);
+        dest.writeInt(mMatcher.getTolerance());
     }
 }
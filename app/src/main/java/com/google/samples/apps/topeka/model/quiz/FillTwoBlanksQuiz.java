@@ -19,16 +19,32 @@ package com.google.samples.apps.topeka.model.quiz;
 import android.annotation.SuppressLint;
 import android.os.Parcel;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import com.google.samples.apps.topeka.helper.AnswerHelper;
+import com.google.samples.apps.topeka.helper.AnswerMatcher;
 
 import java.util.Arrays;
 
 @SuppressLint("ParcelCreator")
 public final class FillTwoBlanksQuiz extends Quiz<String[]> {
 
+    private final int mTolerance;
+    private final AnswerMatcher[] mMatchers;
+
     public FillTwoBlanksQuiz(@NonNull String question, @NonNull String[] answer, boolean solved) {
+        this(question, answer, solved, AnswerMatcher.DEFAULT_TOLERANCE);
+    }
+
+    /**
+     * @param tolerance The number of typos to accept per blank or
+     * {@link AnswerMatcher#DEFAULT_TOLERANCE}.
+     */
+    public FillTwoBlanksQuiz(@NonNull String question, @NonNull String[] answer, boolean solved,
+                             int tolerance) {
         super(question, answer, solved);
+        mTolerance = tolerance;
+        mMatchers = createMatchers(answer, tolerance);
     }
 
     @SuppressWarnings("unused")
@@ -36,6 +52,28 @@ public final class FillTwoBlanksQuiz extends Quiz<String[]> {
         super(in);
         String answer[] = in.createStringArray();
         setAnswer(answer);
+        mTolerance = in.readInt();
+        mMatchers = createMatchers(answer, mTolerance);
+    }
+
+    private FillTwoBlanksQuiz(FillTwoBlanksQuiz quiz) {
+        super(quiz);
+        mTolerance = quiz.mTolerance;
+        // matchers keep buffers that are reused per check, so they can't be shared
+        mMatchers = createMatchers(quiz.getAnswer(), mTolerance);
+    }
+
+    @Override
+    public FillTwoBlanksQuiz copy() {
+        return new FillTwoBlanksQuiz(this);
+    }
+
+    private static AnswerMatcher[] createMatchers(String[] answer, int tolerance) {
+        final AnswerMatcher[] matchers = new AnswerMatcher[answer.length];
+        for (int i = 0; i < answer.length; i++) {
+            matchers[i] = new AnswerMatcher(answer[i], tolerance);
+        }
+        return matchers;
     }
 
     @Override
@@ -52,20 +90,31 @@ public final class FillTwoBlanksQuiz extends Quiz<String[]> {
     public void writeToParcel(Parcel dest, int flags) {
         super.writeToParcel(dest, flags);
         dest.writeStringArray(getAnswer());
+        dest.writeInt(mTolerance);
     }
 
     @Override
     public boolean isAnswerCorrect(String[] answer) {
-        String[] correctAnswers = getAnswer();
-        if (answer == null || correctAnswers == null) {
+        if (answer == null || answer.length != mMatchers.length) {
             return false;
         }
         for (int i = 0; i < answer.length; i++) {
-            if (!answer[i].equalsIgnoreCase(correctAnswers[i])) {
+            if (!matches(i, answer[i])) {
                 return false;
             }
         }
-        return answer.length == correctAnswers.length;
+        return true;
+    }
+
+    /**
+     * Checks the input of a single blank without allocating, e.g. on every keystroke.
+     *
+     * @param blank The index of the blank.
+     * @param input The input to check.
+     * @return <code>true</code> if the input is close enough to the blank's answer.
+     */
+    public boolean matches(int blank, @Nullable CharSequence input) {
+        return mMatchers[blank].matches(input);
     }
 
     @Override
@@ -48,6 +48,15 @@ public final class FourQuarterQuiz extends OptionsQuiz<String> {
         setOptions(options);
     }
 
+    private FourQuarterQuiz(FourQuarterQuiz quiz) {
+        super(quiz);
+    }
+
+    @Override
+    public FourQuarterQuiz copy() {
+        return new FourQuarterQuiz(this);
+    }
+
     @Override
     public QuizType getType() {
         return QuizType.FOUR_QUARTER;
@@ -36,6 +36,15 @@ public final class MultiSelectQuiz extends OptionsQuiz<String> {
         setOptions(options);
     }
 
+    private MultiSelectQuiz(MultiSelectQuiz quiz) {
+        super(quiz);
+    }
+
+    @Override
+    public MultiSelectQuiz copy() {
+        return new MultiSelectQuiz(this);
+    }
+
     @Override
     public QuizType getType() {
         return QuizType.MULTI_SELECT;
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2015 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.samples.apps.topeka.model.quiz;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+
+import java.util.Arrays;
+
+/**
+ * Options selected for an {@link OptionsQuiz}, stored as a bitmask.
+ * <p>
+ * Up to {@link #MASK_SIZE} options fit into a single <code>long</code>, so comparing a
+ * selection to the correct answer is a single compare. Quizzes with more options fall back
+ * to an array of words.
+ * </p>
+ */
+public final class OptionSelection implements Parcelable {
+
+    static final int MASK_SIZE = 64;
+
+    public static final Creator<OptionSelection> CREATOR = new Creator<OptionSelection>() {
+        @Override
+        public OptionSelection createFromParcel(Parcel in) {
+            return new OptionSelection(in);
+        }
+
+        @Override
+        public OptionSelection[] newArray(int size) {
+            return new OptionSelection[size];
+        }
+    };
+
+    private final int mOptionCount;
+    /**
+     * The words of quizzes with more than {@link #MASK_SIZE} options, otherwise
+     * <code>null</code> and {@link #mMask} holds the selection.
+     */
+    private final long[] mWords;
+    private long mMask;
+
+    /**
+     * Creates an empty selection.
+     *
+     * @param optionCount The number of options of the quiz.
+     */
+    public OptionSelection(int optionCount) {
+        mOptionCount = optionCount;
+        mWords = optionCount > MASK_SIZE ? new long[(optionCount + MASK_SIZE - 1) / MASK_SIZE]
+                : null;
+    }
+
+    private OptionSelection(Parcel in) {
+        mOptionCount = in.readInt();
+        mMask = in.readLong();
+        mWords = in.createLongArray();
+    }
+
+    /**
+     * Creates a selection of the given options.
+     *
+     * @param options The ids of the selected options.
+     * @param optionCount The number of options of the quiz.
+     */
+    static OptionSelection of(int[] options, int optionCount) {
+        final OptionSelection selection = new OptionSelection(optionCount);
+        for (int option : options) {
+            selection.set(option, true);
+        }
+        return selection;
+    }
+
+    public int getOptionCount() {
+        return mOptionCount;
+    }
+
+    public boolean isSelected(int option) {
+        // Shifts only use the low six bits, which address the option within its word.
+        final long bit = 1L << option;
+        if (mWords == null) {
+            return (mMask & bit) != 0;
+        }
+        return (mWords[option / MASK_SIZE] & bit) != 0;
+    }
+
+    public void set(int option, boolean selected) {
+        final long bit = 1L << option;
+        if (mWords == null) {
+            mMask = selected ? mMask | bit : mMask & ~bit;
+        } else {
+            final int word = option / MASK_SIZE;
+            mWords[word] = selected ? mWords[word] | bit : mWords[word] & ~bit;
+        }
+    }
+
+    public void toggle(int option) {
+        set(option, !isSelected(option));
+    }
+
+    /**
+     * Clears the selection and selects a single option.
+     */
+    public void select(int option) {
+        clear();
+        set(option, true);
+    }
+
+    public void clear() {
+        mMask = 0;
+        if (mWords != null) {
+            Arrays.fill(mWords, 0);
+        }
+    }
+
+    public boolean isEmpty() {
+        if (mWords == null) {
+            return mMask == 0;
+        }
+        for (long word : mWords) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    @Override
+    public void writeToParcel(Parcel dest, int flags) {
+        dest.writeInt(mOptionCount);
+        dest.writeLong(mMask);
+        dest.writeLongArray(mWords);
+    }
+
+    @SuppressWarnings("RedundantIfStatement")
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof OptionSelection)) {
+            return false;
+        }
+
+        OptionSelection that = (OptionSelection) o;
+
+        if (mMask != that.mMask) {
+            return false;
+        }
+        if (!Arrays.equals(mWords, that.mWords)) {
+            return false;
+        }
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = (int) (mMask ^ (mMask >>> 32));
+        result = 31 * result + Arrays.hashCode(mWords);
+        return result;
+    }
+}
@@ -28,6 +28,7 @@ import java.util.Arrays;
 public abstract class OptionsQuiz<T> extends Quiz<int[]> {
 
     private T[] mOptions;
+    private OptionSelection mAnswerSelection;
 
     public OptionsQuiz(String question, int[] answer, T[] options, boolean solved) {
         super(question, answer, solved);
@@ -40,12 +41,32 @@ public abstract class OptionsQuiz<T> extends Quiz<int[]> {
         setAnswer(answer);
     }
 
+    protected OptionsQuiz(OptionsQuiz<T> quiz) {
+        super(quiz);
+        // the answer's selection is created again on demand
+        mOptions = quiz.mOptions;
+    }
+
     public T[] getOptions() {
         return mOptions;
     }
 
     protected void setOptions(T[] options) {
         mOptions = options;
+        mAnswerSelection = null;
+    }
+
+    @Override
+    protected void setAnswer(int[] answer) {
+        super.setAnswer(answer);
+        mAnswerSelection = null;
+    }
+
+    /**
+     * @return An empty selection matching this quiz's options.
+     */
+    public OptionSelection createSelection() {
+        return new OptionSelection(mOptions.length);
     }
 
     @Override
@@ -53,6 +74,19 @@ public abstract class OptionsQuiz<T> extends Quiz<int[]> {
         return Arrays.equals(getAnswer(), answer);
     }
 
+    /**
+     * Checks a selection against the correct answer, which is converted to a mask only once.
+     *
+     * @param selection The options selected by the user.
+     * @return <code>true</code> if exactly the correct options are selected.
+     */
+    public boolean isAnswerCorrect(OptionSelection selection) {
+        if (mAnswerSelection == null) {
+            mAnswerSelection = OptionSelection.of(getAnswer(), mOptions.length);
+        }
+        return mAnswerSelection.equals(selection);
+    }
+
     @Override
     public int describeContents() {
         return 0;
@@ -41,6 +41,18 @@ public final class PickerQuiz extends Quiz<Integer> {
         mStep = in.readInt();
     }
 
+    private PickerQuiz(PickerQuiz quiz) {
+        super(quiz);
+        mMin = quiz.mMin;
+        mMax = quiz.mMax;
+        mStep = quiz.mStep;
+    }
+
+    @Override
+    public PickerQuiz copy() {
+        return new PickerQuiz(this);
+    }
+
     public int getMin() {
         return mMin;
     }
@@ -88,6 +88,19 @@ public abstract class Quiz<A> implements Parcelable {
         mSolved = ParcelableHelper.readBoolean(in);
     }
 
+    /**
+     * Copies a quiz. The question and answer are not modified after creation, so they are
+     * shared with the copy, while the solved state is not.
+     *
+     * @param quiz The quiz to copy.
+     */
+    protected Quiz(Quiz<A> quiz) {
+        mQuestion = quiz.mQuestion;
+        mQuizType = quiz.mQuizType;
+        mAnswer = quiz.mAnswer;
+        mSolved = quiz.mSolved;
+    }
+
     /**
      * @return The {@link QuizType} that represents this quiz.
      */
@@ -122,6 +135,12 @@ public abstract class Quiz<A> implements Parcelable {
         mSolved = solved;
     }
 
+    /**
+     * @return A copy of this quiz, with its own solved state and no state shared with this
+     * quiz that is modified after creation.
+     */
+    public abstract Quiz<A> copy();
+
     /**
      * @return The id of this quiz.
      */
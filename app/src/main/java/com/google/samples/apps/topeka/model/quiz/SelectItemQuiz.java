@@ -35,6 +35,15 @@ public final class SelectItemQuiz extends OptionsQuiz<String> {
         setOptions(options);
     }
 
+    private SelectItemQuiz(SelectItemQuiz quiz) {
+        super(quiz);
+    }
+
+    @Override
+    public SelectItemQuiz copy() {
+        return new SelectItemQuiz(this);
+    }
+
     @Override
     public QuizType getType() {
         return QuizType.SINGLE_SELECT;
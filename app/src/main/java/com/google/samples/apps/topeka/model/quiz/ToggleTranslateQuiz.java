@@ -20,6 +20,7 @@ import android.annotation.SuppressLint;
 import android.os.Parcel;
 
 import com.google.samples.apps.topeka.helper.AnswerHelper;
+import com.google.samples.apps.topeka.helper.StringPool;
 
 import java.util.Arrays;
 
@@ -39,6 +40,15 @@ public final class ToggleTranslateQuiz extends OptionsQuiz<String[]> {
         setOptions((String[][]) in.readSerializable());
     }
 
+    private ToggleTranslateQuiz(ToggleTranslateQuiz quiz) {
+        super(quiz);
+    }
+
+    @Override
+    public ToggleTranslateQuiz copy() {
+        return new ToggleTranslateQuiz(this);
+    }
+
     @Override
     public QuizType getType() {
         return QuizType.TOGGLE_TRANSLATE;
@@ -56,7 +66,7 @@ public final class ToggleTranslateQuiz extends OptionsQuiz<String[]> {
             mReadableOptions = new String[options.length];
             //iterate over the options and create readable pairs
             for (int i = 0; i < options.length; i++) {
-                mReadableOptions[i] = createReadablePair(options[i]);
+                mReadableOptions[i] = StringPool.intern(createReadablePair(options[i]));
             }
         }
         return mReadableOptions;
@@ -34,6 +34,15 @@ public final class TrueFalseQuiz extends Quiz<Boolean> {
         setAnswer(ParcelableHelper.readBoolean(in));
     }
 
+    private TrueFalseQuiz(TrueFalseQuiz quiz) {
+        super(quiz);
+    }
+
+    @Override
+    public TrueFalseQuiz copy() {
+        return new TrueFalseQuiz(this);
+    }
+
     @Override
     public String getStringAnswer() {
         return getAnswer().toString();
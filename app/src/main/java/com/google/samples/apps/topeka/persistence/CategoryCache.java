@@ -0,0 +1,111 @@
+/*
+ * Copyright 2015 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.samples.apps.topeka.persistence;
+
+import android.support.annotation.Nullable;
+
+import com.google.samples.apps.topeka.model.Category;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Holds the categories loaded by {@link TopekaDatabaseHelper} as an immutable snapshot.
+ * <p>
+ * Readers get the current snapshot without locking and can keep using it while it is
+ * replaced. Updates copy the snapshot and swap in the copy. Replaced categories are copied
+ * as well, so the snapshot doesn't change when their progress is modified later on.
+ * Loading happens outside of the cache, a loaded snapshot is only published if the cache has
+ * not been invalidated since the load started, so a stale load can't overwrite newer progress.
+ * </p>
+ */
+final class CategoryCache {
+
+    private volatile List<Category> mSnapshot;
+    private int mGeneration;
+
+    /**
+     * @return The current snapshot or <code>null</code> if the categories have to be loaded.
+     */
+    @Nullable
+    List<Category> get() {
+        return mSnapshot;
+    }
+
+    /**
+     * @return The generation to pass to {@link #publish(List, int)} once a load finished.
+     */
+    synchronized int getGeneration() {
+        return mGeneration;
+    }
+
+    /**
+     * Publishes freshly loaded categories.
+     *
+     * @param categories The loaded categories, which must not be modified afterwards.
+     * @param generation The value of {@link #getGeneration()} before the load started.
+     * @return The published snapshot or an unpublished one if the cache has been
+     * invalidated during the load.
+     */
+    synchronized List<Category> publish(List<Category> categories, int generation) {
+        final List<Category> snapshot = Collections.unmodifiableList(categories);
+        if (generation == mGeneration) {
+            mSnapshot = snapshot;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Replaces the category with the same id within a copy of the current snapshot.
+     * Snapshots that are still being loaded might miss the category's progress, so they are
+     * dropped.
+     *
+     * @param category The category to replace, which is copied and can be modified afterwards.
+     */
+    synchronized void replace(Category category) {
+        mGeneration++;
+        final List<Category> snapshot = mSnapshot;
+        if (snapshot == null) {
+            return;
+        }
+        final int location = indexOf(snapshot, category.getId());
+        if (location < 0) {
+            return;
+        }
+        final List<Category> copy = new ArrayList<>(snapshot);
+        copy.set(location, category.copy());
+        mSnapshot = Collections.unmodifiableList(copy);
+    }
+
+    private static int indexOf(List<Category> categories, String categoryId) {
+        for (int i = 0; i < categories.size(); i++) {
+            if (categories.get(i).getId().equals(categoryId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Drops the current snapshot, as well as snapshots that are still being loaded.
+     */
+    synchronized void invalidate() {
+        mGeneration++;
+        mSnapshot = null;
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2015 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.samples.apps.topeka.persistence;
+
+/**
+ * Structure of the category progress table, holding each player's progress per category.
+ * Categories without a row have not been solved by the player.
+ */
+public interface CategoryProgressTable {
+
+    String NAME = "category_progress";
+
+    String FK_PLAYER = "fk_player";
+    String FK_CATEGORY = "fk_category";
+    String COLUMN_SOLVED = "solved";
+
+    String CREATE = "CREATE TABLE " + NAME + " ("
+            + FK_PLAYER + " INTEGER NOT NULL REFERENCES "
+            + PlayerTable.NAME + "(" + PlayerTable.COLUMN_ID + "), "
+            + FK_CATEGORY + " TEXT NOT NULL REFERENCES "
+            + CategoryTable.NAME + "(" + CategoryTable.COLUMN_ID + "), "
+            + COLUMN_SOLVED + " INTEGER NOT NULL, "
+            + "PRIMARY KEY (" + FK_PLAYER + ", " + FK_CATEGORY + "));";
+
+    /**
+     * Speeds up removing the progress of a category for all players.
+     */
+    String CREATE_INDEX = "CREATE INDEX " + NAME + "_" + FK_CATEGORY
+            + " ON " + NAME + " (" + FK_CATEGORY + ");";
+}
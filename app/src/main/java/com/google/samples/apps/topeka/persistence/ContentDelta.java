@@ -0,0 +1,203 @@
+/*
+ * Copyright 2015 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.samples.apps.topeka.persistence;
+
+import android.content.ContentValues;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+
+import com.google.samples.apps.topeka.model.JsonAttributes;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Applies content updates to a database while keeping the player's progress.
+ * <p>
+ * A delta only lists what changed since the version it is based on:
+ * </p>
+ * <pre>
+ * {
+ *   "baseVersion": 1,
+ *   "version": 2,
+ *   "categories": [{"id": "food", "quizzes": [...], "removedQuizzes": ["question"]}],
+ *   "removedCategories": ["music"]
+ * }
+ * </pre>
+ * <p>
+ * Categories are identified by their id, quizzes by their question within a category.
+ * Listed quizzes are added or, if the question exists, updated in place, so their progress is
+ * kept. Progress of removed content is removed as well, and a category that gets new quizzes
+ * is no longer solved. Name and theme only have to be present for new categories.
+ * </p>
+ */
+final class ContentDelta {
+
+    static final String BASE_VERSION = "baseVersion";
+    static final String VERSION = "version";
+    static final String CATEGORIES = "categories";
+    static final String REMOVED_CATEGORIES = "removedCategories";
+    static final String REMOVED_QUIZZES = "removedQuizzes";
+
+    /**
+     * The version of the content bundled in <code>res/raw/categories.json</code>.
+     */
+    static final int BUNDLED_VERSION = 1;
+
+    /**
+     * Returned by {@link #apply(SQLiteDatabase, String)} if the database is not at the delta's
+     * base version.
+     */
+    static final int NOT_APPLICABLE = -1;
+
+    private static final String[] OPTIONAL_QUIZ_COLUMNS = {QuizTable.COLUMN_OPTIONS,
+            QuizTable.COLUMN_MIN, QuizTable.COLUMN_MAX, QuizTable.COLUMN_START,
+            QuizTable.COLUMN_END, QuizTable.COLUMN_STEP, QuizTable.COLUMN_TOLERANCE};
+    private static final String QUIZ_SELECTION = QuizTable.FK_CATEGORY + "=? AND "
+            + QuizTable.COLUMN_QUESTION + "=?";
+    private static final String CATEGORY_SELECTION = CategoryTable.COLUMN_ID + "=?";
+    private static final String QUIZ_PROGRESS_SELECTION = QuizProgressTable.FK_QUIZ
+            + " IN (SELECT " + QuizTable.COLUMN_ID + " FROM " + QuizTable.NAME + " WHERE ";
+
+    private ContentDelta() {
+        //no instance
+    }
+
+    static int getVersion(SQLiteDatabase db) {
+        return (int) DatabaseUtils.longForQuery(db,
+                "SELECT " + ContentTable.COLUMN_VERSION + " FROM " + ContentTable.NAME, null);
+    }
+
+    static void setVersion(SQLiteDatabase db, int version) {
+        ContentValues values = new ContentValues();
+        values.put(ContentTable.COLUMN_VERSION, version);
+        if (db.update(ContentTable.NAME, values, null, null) == 0) {
+            db.insert(ContentTable.NAME, null, values);
+        }
+    }
+
+    /**
+     * Applies a delta. Has to be called within a transaction, so a delta that can't be parsed
+     * completely is not applied at all.
+     *
+     * @param db The database to update.
+     * @param deltaJson The delta in the format described above.
+     * @return The number of changed rows or {@link #NOT_APPLICABLE}.
+     * @throws JSONException If the delta can't be parsed.
+     */
+    static int apply(SQLiteDatabase db, String deltaJson) throws JSONException {
+        final JSONObject delta = new JSONObject(deltaJson);
+        if (getVersion(db) != delta.getInt(BASE_VERSION)) {
+            return NOT_APPLICABLE;
+        }
+        int rows = 0;
+        final JSONArray removedCategories = delta.optJSONArray(REMOVED_CATEGORIES);
+        if (removedCategories != null) {
+            final String[] idArgs = new String[1];
+            for (int i = 0; i < removedCategories.length(); i++) {
+                idArgs[0] = removedCategories.getString(i);
+                rows += db.delete(QuizProgressTable.NAME, QUIZ_PROGRESS_SELECTION
+                        + QuizTable.FK_CATEGORY + "=?)", idArgs);
+                rows += db.delete(CategoryProgressTable.NAME,
+                        CategoryProgressTable.FK_CATEGORY + "=?", idArgs);
+                rows += db.delete(ScoreTable.NAME, ScoreTable.FK_CATEGORY + "=?", idArgs);
+                rows += db.delete(QuizTable.NAME, QuizTable.FK_CATEGORY + "=?", idArgs);
+                rows += db.delete(CategoryTable.NAME, CATEGORY_SELECTION, idArgs);
+            }
+        }
+        final JSONArray categories = delta.optJSONArray(CATEGORIES);
+        if (categories != null) {
+            ContentValues values = new ContentValues(); // reduce, reuse
+            for (int i = 0; i < categories.length(); i++) {
+                rows += applyCategory(db, values, categories.getJSONObject(i));
+            }
+        }
+        setVersion(db, delta.getInt(VERSION));
+        return rows;
+    }
+
+    private static int applyCategory(SQLiteDatabase db, ContentValues values,
+                                     JSONObject category) throws JSONException {
+        final String categoryId = category.getString(JsonAttributes.ID);
+        final String[] idArgs = {categoryId};
+        int rows = 0;
+
+        values.clear();
+        if (DatabaseUtils.queryNumEntries(db, CategoryTable.NAME, CATEGORY_SELECTION,
+                idArgs) == 0) {
+            values.put(CategoryTable.COLUMN_ID, categoryId);
+            values.put(CategoryTable.COLUMN_NAME, category.getString(JsonAttributes.NAME));
+            values.put(CategoryTable.COLUMN_THEME, category.getString(JsonAttributes.THEME));
+            db.insert(CategoryTable.NAME, null, values);
+            rows++;
+        } else {
+            putIfPresent(values, category, JsonAttributes.NAME, CategoryTable.COLUMN_NAME);
+            putIfPresent(values, category, JsonAttributes.THEME, CategoryTable.COLUMN_THEME);
+            if (values.size() > 0) {
+                rows += db.update(CategoryTable.NAME, values, CATEGORY_SELECTION, idArgs);
+            }
+        }
+
+        final String[] quizArgs = {categoryId, null};
+        final JSONArray removedQuizzes = category.optJSONArray(REMOVED_QUIZZES);
+        if (removedQuizzes != null) {
+            for (int i = 0; i < removedQuizzes.length(); i++) {
+                quizArgs[1] = removedQuizzes.getString(i);
+                rows += db.delete(QuizProgressTable.NAME,
+                        QUIZ_PROGRESS_SELECTION + QUIZ_SELECTION + ")", quizArgs);
+                rows += db.delete(QuizTable.NAME, QUIZ_SELECTION, quizArgs);
+            }
+        }
+
+        boolean quizzesAdded = false;
+        final JSONArray quizzes = category.optJSONArray(JsonAttributes.QUIZZES);
+        if (quizzes != null) {
+            for (int i = 0; i < quizzes.length(); i++) {
+                final JSONObject quiz = quizzes.getJSONObject(i);
+                TopekaDatabaseHelper.putQuiz(values, quiz, categoryId);
+                for (String column : OPTIONAL_QUIZ_COLUMNS) {
+                    if (!values.containsKey(column)) {
+                        values.putNull(column);
+                    }
+                }
+                quizArgs[1] = quiz.getString(JsonAttributes.QUESTION);
+                final int updated = db.update(QuizTable.NAME, values, QUIZ_SELECTION, quizArgs);
+                if (updated == 0) {
+                    db.insert(QuizTable.NAME, null, values);
+                    quizzesAdded = true;
+                    rows++;
+                } else {
+                    rows += updated;
+                }
+            }
+        }
+        if (quizzesAdded) {
+            rows += db.delete(CategoryProgressTable.NAME,
+                    CategoryProgressTable.FK_CATEGORY + "=?", idArgs);
+        }
+        return rows;
+    }
+
+    private static void putIfPresent(ContentValues values, JSONObject category,
+                                     String jsonKey, String contentKey) {
+        final String value = category.optString(jsonKey, null);
+        if (value != null) {
+            values.put(contentKey, value);
+        }
+    }
+}
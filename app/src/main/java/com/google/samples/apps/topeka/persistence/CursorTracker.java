@@ -0,0 +1,185 @@
+/*
+ * Copyright 2015 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.samples.apps.topeka.persistence;
+
+import android.database.Cursor;
+import android.database.CursorWrapper;
+import android.util.Log;
+
+import com.google.samples.apps.topeka.BuildConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Tracks the cursors opened by {@link TopekaDatabaseHelper}, so cursors that are not closed
+ * can be reported along with the stack of the call site that opened them.
+ * <p>
+ * Tracked cursors are registered until they are closed. Cursors that are garbage collected
+ * without being closed are logged and kept as leaks. Tracking is enabled in debug builds,
+ * otherwise cursors are passed through unchanged.
+ * </p>
+ */
+public final class CursorTracker {
+
+    private static final String TAG = "CursorTracker";
+    private static final int MAX_LEAKS = 100;
+
+    private static final Map<TrackedCursor, Boolean> sOpenCursors = new WeakHashMap<>();
+    private static final List<Origin> sLeaks = new ArrayList<>();
+    private static volatile boolean sEnabled = BuildConfig.DEBUG;
+
+    private CursorTracker() {
+        //no instance
+    }
+
+    public static void setEnabled(boolean enabled) {
+        sEnabled = enabled;
+    }
+
+    public static boolean isEnabled() {
+        return sEnabled;
+    }
+
+    /**
+     * Starts tracking a cursor that has just been opened.
+     *
+     * @param cursor The cursor to track.
+     * @return The cursor to use and close instead of the given one.
+     */
+    static Cursor track(Cursor cursor) {
+        if (!sEnabled) {
+            return cursor;
+        }
+        final TrackedCursor tracked = new TrackedCursor(cursor);
+        synchronized (sOpenCursors) {
+            sOpenCursors.put(tracked, Boolean.TRUE);
+        }
+        return tracked;
+    }
+
+    /**
+     * @return The origins of all tracked cursors that have not been closed yet.
+     */
+    public static List<Origin> getOpenCursors() {
+        synchronized (sOpenCursors) {
+            final List<Origin> origins = new ArrayList<>(sOpenCursors.size());
+            for (TrackedCursor cursor : sOpenCursors.keySet()) {
+                origins.add(cursor.mOrigin);
+            }
+            return origins;
+        }
+    }
+
+    /**
+     * @return The origins of all cursors that have been garbage collected without being closed
+     * since the last call to {@link #clearLeaks()}.
+     */
+    public static List<Origin> getLeaks() {
+        synchronized (sLeaks) {
+            return new ArrayList<>(sLeaks);
+        }
+    }
+
+    public static void clearLeaks() {
+        synchronized (sLeaks) {
+            sLeaks.clear();
+        }
+    }
+
+    private static void onClosed(TrackedCursor cursor) {
+        synchronized (sOpenCursors) {
+            sOpenCursors.remove(cursor);
+        }
+    }
+
+    private static void onLeaked(Origin origin) {
+        Log.e(TAG, origin.getMessage(), origin);
+        synchronized (sLeaks) {
+            if (sLeaks.size() < MAX_LEAKS) {
+                sLeaks.add(origin);
+            }
+        }
+    }
+
+    /**
+     * The place a cursor has been opened at, carrying the stack of its call site.
+     */
+    public static class Origin extends RuntimeException {
+
+        private final String mCallSite;
+
+        Origin() {
+            mCallSite = findCallSite(getStackTrace());
+        }
+
+        @Override
+        public String getMessage() {
+            return "Cursor opened by " + mCallSite + " has not been closed";
+        }
+
+        /**
+         * @return The method that opened the cursor as <code>SimpleClassName.method</code>.
+         */
+        public String getCallSite() {
+            return mCallSite;
+        }
+
+        private static String findCallSite(StackTraceElement[] stackTrace) {
+            final String trackerName = CursorTracker.class.getName();
+            for (StackTraceElement element : stackTrace) {
+                final String className = element.getClassName();
+                if (!className.startsWith(trackerName)) {
+                    return className.substring(className.lastIndexOf('.') + 1) + "."
+                            + element.getMethodName();
+                }
+            }
+            return "unknown";
+        }
+    }
+
+    private static final class TrackedCursor extends CursorWrapper {
+
+        private final Origin mOrigin = new Origin();
+        private volatile boolean mClosed;
+
+        TrackedCursor(Cursor cursor) {
+            super(cursor);
+        }
+
+        @Override
+        public void close() {
+            mClosed = true;
+            onClosed(this);
+            super.close();
+        }
+
+        @Override
+        protected void finalize() throws Throwable {
+            try {
+                // The wrapped cursor might have been finalized and closed already.
+                if (!mClosed) {
+                    onLeaked(mOrigin);
+                }
+            } finally {
+                super.finalize();
+            }
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2015 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.samples.apps.topeka.persistence;
+
+import com.google.samples.apps.topeka.BuildConfig;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts calls and affected rows of {@link TopekaDatabaseHelper}'s operations and keeps
+ * histograms of their latencies.
+ * <p>
+ * Calls and rows are always counted, which only costs two atomic increments. Latencies are
+ * measured while enabled, which is the default for debug builds. Histogram buckets are powers
+ * of two in microseconds, bucket <code>i</code> holds latencies below <code>2^(i+1)</code>
+ * microseconds.
+ * </p>
+ */
+public final class DatabaseMetrics {
+
+    /**
+     * The number of buckets per histogram. The last one holds everything from 8 seconds on.
+     */
+    public static final int BUCKET_COUNT = 24;
+
+    private static final long NOT_MEASURED = 0;
+    private static volatile boolean sEnabled = BuildConfig.DEBUG;
+
+    /**
+     * The measured operations of {@link TopekaDatabaseHelper}.
+     */
+    public enum Operation {
+        LOAD_CATEGORIES,
+        GET_CATEGORY_WITH,
+        UPDATE_CATEGORY,
+        UPDATE_QUIZZES,
+        RESET,
+        PRE_FILL,
+        APPLY_DELTA,
+        LEADERBOARD,
+        SEARCH;
+
+        private final AtomicLong mCalls = new AtomicLong();
+        private final AtomicLong mRows = new AtomicLong();
+        private final AtomicLongArray mLatencies = new AtomicLongArray(BUCKET_COUNT);
+    }
+
+    private DatabaseMetrics() {
+        //no instance
+    }
+
+    /**
+     * Enables or disables latency measurement, e.g. to inspect a release build.
+     */
+    public static void setEnabled(boolean enabled) {
+        sEnabled = enabled;
+    }
+
+    public static boolean isEnabled() {
+        return sEnabled;
+    }
+
+    /**
+     * Starts measuring an operation.
+     *
+     * @return The start time to pass to {@link #end(Operation, long, int)}.
+     */
+    static long begin() {
+        return sEnabled ? System.nanoTime() : NOT_MEASURED;
+    }
+
+    /**
+     * Records a finished operation.
+     *
+     * @param operation The operation that finished.
+     * @param startNanos The value returned by {@link #begin()}.
+     * @param rows The number of rows read or written.
+     */
+    static void end(Operation operation, long startNanos, int rows) {
+        operation.mCalls.incrementAndGet();
+        operation.mRows.addAndGet(rows);
+        if (startNanos != NOT_MEASURED) {
+            final long micros = (System.nanoTime() - startNanos) / 1000;
+            operation.mLatencies.incrementAndGet(getBucket(micros));
+        }
+    }
+
+    static int getBucket(long micros) {
+        final int bucket = 63 - Long.numberOfLeadingZeros(Math.max(1, micros));
+        return Math.min(bucket, BUCKET_COUNT - 1);
+    }
+
+    public static long getCallCount(Operation operation) {
+        return operation.mCalls.get();
+    }
+
+    public static long getRowCount(Operation operation) {
+        return operation.mRows.get();
+    }
+
+    /**
+     * @return A copy of the operation's latency histogram.
+     */
+    public static long[] getHistogram(Operation operation) {
+        long[] histogram = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            histogram[i] = operation.mLatencies.get(i);
+        }
+        return histogram;
+    }
+
+    /**
+     * Estimates a latency percentile from the operation's histogram.
+     *
+     * @param operation The operation to look at.
+     * @param percentile The percentile to get, from 1 to 100.
+     * @return The upper bound of the bucket containing the percentile in microseconds or
+     * <code>0</code> if no latencies have been measured.
+     */
+    public static long getPercentileMicros(Operation operation, int percentile) {
+        return getPercentileMicros(getHistogram(operation), percentile);
+    }
+
+    static long getPercentileMicros(long[] histogram, int percentile) {
+        long total = 0;
+        for (long count : histogram) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        final long rank = (percentile * total + 99) / 100;
+        long seen = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            seen += histogram[i];
+            if (seen >= rank) {
+                return 1L << (i + 1);
+            }
+        }
+        return 1L << histogram.length;
+    }
+
+    /**
+     * @return Calls, rows and latency percentiles of all operations.
+     */
+    public static String getReport() {
+        StringBuilder report = new StringBuilder("Database metrics");
+        for (Operation operation : Operation.values()) {
+            report.append(System.getProperty("line.separator"))
+                    .append(operation)
+                    .append(": ")
+                    .append(getCallCount(operation))
+                    .append(" calls, ")
+                    .append(getRowCount(operation))
+                    .append(" rows, p50 <")
+                    .append(getPercentileMicros(operation, 50))
+                    .append("us, p90 <")
+                    .append(getPercentileMicros(operation, 90))
+                    .append("us, p99 <")
+                    .append(getPercentileMicros(operation, 99))
+                    .append("us");
+        }
+        return report.toString();
+    }
+
+    /**
+     * Discards all recorded calls, rows and latencies.
+     */
+    public static void reset() {
+        for (Operation operation : Operation.values()) {
+            operation.mCalls.set(0);
+            operation.mRows.set(0);
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                operation.mLatencies.set(i, 0);
+            }
+        }
+    }
+}
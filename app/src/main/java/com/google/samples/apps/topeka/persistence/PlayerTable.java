@@ -0,0 +1,51 @@
+/*
+ * Copyright 2015 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.samples.apps.topeka.persistence;
+
+import android.provider.BaseColumns;
+
+/**
+ * Structure of the player table, holding every player that signed in on this device.
+ */
+public interface PlayerTable {
+
+    String NAME = "player";
+
+    String COLUMN_ID = BaseColumns._ID;
+    String COLUMN_FIRST_NAME = "first_name";
+    String COLUMN_LAST_INITIAL = "last_initial";
+    String COLUMN_AVATAR = "avatar";
+    String COLUMN_TOTAL_SCORE = "total_score";
+
+    String[] PROJECTION = new String[]{COLUMN_ID, COLUMN_FIRST_NAME,
+            COLUMN_LAST_INITIAL, COLUMN_AVATAR, COLUMN_TOTAL_SCORE};
+
+    String CREATE = "CREATE TABLE " + NAME + " ("
+            + COLUMN_ID + " INTEGER PRIMARY KEY, "
+            + COLUMN_FIRST_NAME + " TEXT NOT NULL, "
+            + COLUMN_LAST_INITIAL + " TEXT NOT NULL, "
+            + COLUMN_AVATAR + " TEXT NOT NULL, "
+            + COLUMN_TOTAL_SCORE + " INTEGER NOT NULL DEFAULT 0, "
+            + "UNIQUE (" + COLUMN_FIRST_NAME + ", " + COLUMN_LAST_INITIAL + ", "
+            + COLUMN_AVATAR + "));";
+
+    /**
+     * Orders the players for the overall leaderboard.
+     */
+    String CREATE_INDEX = "CREATE INDEX " + NAME + "_" + COLUMN_TOTAL_SCORE
+            + " ON " + NAME + " (" + COLUMN_TOTAL_SCORE + ");";
+}
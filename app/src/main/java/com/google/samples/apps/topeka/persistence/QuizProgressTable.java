@@ -0,0 +1,46 @@
+/*
+ * Copyright 2015 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.samples.apps.topeka.persistence;
+
+/**
+ * Structure of the quiz progress table, holding each player's answers.
+ * Quizzes without a row have not been answered by the player yet.
+ */
+public interface QuizProgressTable {
+
+    String NAME = "quiz_progress";
+
+    String FK_PLAYER = "fk_player";
+    String FK_QUIZ = "fk_quiz";
+    String COLUMN_SOLVED = "solved";
+    String COLUMN_SCORE = "score";
+
+    String CREATE = "CREATE TABLE " + NAME + " ("
+            + FK_PLAYER + " INTEGER NOT NULL REFERENCES "
+            + PlayerTable.NAME + "(" + PlayerTable.COLUMN_ID + "), "
+            + FK_QUIZ + " INTEGER NOT NULL REFERENCES "
+            + QuizTable.NAME + "(" + QuizTable.COLUMN_ID + "), "
+            + COLUMN_SOLVED + " INTEGER NOT NULL, "
+            + COLUMN_SCORE + " INTEGER NOT NULL, "
+            + "PRIMARY KEY (" + FK_PLAYER + ", " + FK_QUIZ + "));";
+
+    /**
+     * Speeds up removing the progress of a quiz for all players.
+     */
+    String CREATE_INDEX = "CREATE INDEX " + NAME + "_" + FK_QUIZ
+            + " ON " + NAME + " (" + FK_QUIZ + ");";
+}
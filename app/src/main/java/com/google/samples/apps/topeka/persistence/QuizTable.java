@@ -36,11 +36,15 @@ public interface QuizTable {
     String COLUMN_STEP = "step";
     String COLUMN_START = "start";
     String COLUMN_END = "end";
-    String COLUMN_SOLVED = "solved";
+    /**
+     * The number of typos accepted in text answers, <code>NULL</code> for a default depending
+     * on the answer's length.
+     */
+    String COLUMN_TOLERANCE = "tolerance";
 
     String[] PROJECTION = new String[]{COLUMN_ID, FK_CATEGORY, COLUMN_TYPE,
             COLUMN_QUESTION, COLUMN_ANSWER, COLUMN_OPTIONS, COLUMN_MIN,
-            COLUMN_MAX, COLUMN_STEP, COLUMN_START, COLUMN_END, COLUMN_SOLVED};
+            COLUMN_MAX, COLUMN_STEP, COLUMN_START, COLUMN_END, COLUMN_TOLERANCE};
 
     String CREATE = "CREATE TABLE " + NAME + " ("
             + COLUMN_ID + " INTEGER PRIMARY KEY, "
@@ -55,5 +59,11 @@ public interface QuizTable {
             + COLUMN_STEP + " TEXT, "
             + COLUMN_START + " TEXT, "
             + COLUMN_END + " TEXT, "
-            + COLUMN_SOLVED + ");";
+            + COLUMN_TOLERANCE + " INTEGER);";
+
+    /**
+     * Speeds up looking up the quizzes of a category and single quizzes by their question.
+     */
+    String CREATE_INDEX = "CREATE INDEX " + NAME + "_" + FK_CATEGORY
+            + " ON " + NAME + " (" + FK_CATEGORY + ", " + COLUMN_QUESTION + ");";
 }
\ No newline at end of file
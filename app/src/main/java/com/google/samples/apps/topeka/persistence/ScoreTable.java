@@ -0,0 +1,94 @@
+/*
+ * Copyright 2015 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.samples.apps.topeka.persistence;
+
+/**
+ * Structure of the score table, holding each player's score per category.
+ * <p>
+ * Scores are aggregated from {@link QuizProgressTable} by triggers whenever progress is added,
+ * changed or removed, which also keeps {@link PlayerTable#COLUMN_TOTAL_SCORE} up to date.
+ * Leaderboards thereby only read the top rows of an index.
+ * </p>
+ */
+public interface ScoreTable {
+
+    String NAME = "score";
+
+    String FK_PLAYER = "fk_player";
+    String FK_CATEGORY = "fk_category";
+    String COLUMN_SCORE = "score";
+
+    String CREATE = "CREATE TABLE " + NAME + " ("
+            + FK_PLAYER + " INTEGER NOT NULL REFERENCES "
+            + PlayerTable.NAME + "(" + PlayerTable.COLUMN_ID + "), "
+            + FK_CATEGORY + " TEXT NOT NULL REFERENCES "
+            + CategoryTable.NAME + "(" + CategoryTable.COLUMN_ID + "), "
+            + COLUMN_SCORE + " INTEGER NOT NULL, "
+            + "PRIMARY KEY (" + FK_PLAYER + ", " + FK_CATEGORY + "));";
+
+    /**
+     * Orders the scores of a category for its leaderboard.
+     */
+    String CREATE_INDEX = "CREATE INDEX " + NAME + "_" + FK_CATEGORY
+            + " ON " + NAME + " (" + FK_CATEGORY + ", " + COLUMN_SCORE + ");";
+
+    /**
+     * Looks up the category of a quiz that made progress.
+     */
+    String CATEGORY_OF_PROGRESS = "(SELECT " + QuizTable.FK_CATEGORY + " FROM "
+            + QuizTable.NAME + " WHERE " + QuizTable.COLUMN_ID + "=%1$s."
+            + QuizProgressTable.FK_QUIZ + ")";
+
+    String[] CREATE_TRIGGERS = {
+            "CREATE TRIGGER " + NAME + "_insert AFTER INSERT ON " + QuizProgressTable.NAME
+                    + " BEGIN "
+                    + "INSERT OR IGNORE INTO " + NAME + " (" + FK_PLAYER + ", " + FK_CATEGORY
+                    + ", " + COLUMN_SCORE + ") SELECT NEW." + QuizProgressTable.FK_PLAYER + ", "
+                    + QuizTable.FK_CATEGORY + ", 0 FROM " + QuizTable.NAME + " WHERE "
+                    + QuizTable.COLUMN_ID + "=NEW." + QuizProgressTable.FK_QUIZ + "; "
+                    + "UPDATE " + NAME + " SET " + COLUMN_SCORE + "=" + COLUMN_SCORE
+                    + "+NEW." + QuizProgressTable.COLUMN_SCORE + " WHERE " + FK_PLAYER
+                    + "=NEW." + QuizProgressTable.FK_PLAYER + " AND " + FK_CATEGORY + "="
+                    + String.format(CATEGORY_OF_PROGRESS, "NEW") + "; "
+                    + "UPDATE " + PlayerTable.NAME + " SET " + PlayerTable.COLUMN_TOTAL_SCORE
+                    + "=" + PlayerTable.COLUMN_TOTAL_SCORE + "+NEW."
+                    + QuizProgressTable.COLUMN_SCORE + " WHERE " + PlayerTable.COLUMN_ID
+                    + "=NEW." + QuizProgressTable.FK_PLAYER + "; END;",
+            "CREATE TRIGGER " + NAME + "_update AFTER UPDATE OF "
+                    + QuizProgressTable.COLUMN_SCORE + " ON " + QuizProgressTable.NAME
+                    + " BEGIN "
+                    + "UPDATE " + NAME + " SET " + COLUMN_SCORE + "=" + COLUMN_SCORE
+                    + "-OLD." + QuizProgressTable.COLUMN_SCORE + "+NEW."
+                    + QuizProgressTable.COLUMN_SCORE + " WHERE " + FK_PLAYER
+                    + "=NEW." + QuizProgressTable.FK_PLAYER + " AND " + FK_CATEGORY + "="
+                    + String.format(CATEGORY_OF_PROGRESS, "NEW") + "; "
+                    + "UPDATE " + PlayerTable.NAME + " SET " + PlayerTable.COLUMN_TOTAL_SCORE
+                    + "=" + PlayerTable.COLUMN_TOTAL_SCORE + "-OLD."
+                    + QuizProgressTable.COLUMN_SCORE + "+NEW." + QuizProgressTable.COLUMN_SCORE
+                    + " WHERE " + PlayerTable.COLUMN_ID + "=NEW." + QuizProgressTable.FK_PLAYER
+                    + "; END;",
+            "CREATE TRIGGER " + NAME + "_delete AFTER DELETE ON " + QuizProgressTable.NAME
+                    + " BEGIN "
+                    + "UPDATE " + NAME + " SET " + COLUMN_SCORE + "=" + COLUMN_SCORE
+                    + "-OLD." + QuizProgressTable.COLUMN_SCORE + " WHERE " + FK_PLAYER
+                    + "=OLD." + QuizProgressTable.FK_PLAYER + " AND " + FK_CATEGORY + "="
+                    + String.format(CATEGORY_OF_PROGRESS, "OLD") + "; "
+                    + "UPDATE " + PlayerTable.NAME + " SET " + PlayerTable.COLUMN_TOTAL_SCORE
+                    + "=" + PlayerTable.COLUMN_TOTAL_SCORE + "-OLD."
+                    + QuizProgressTable.COLUMN_SCORE + " WHERE " + PlayerTable.COLUMN_ID
+                    + "=OLD." + QuizProgressTable.FK_PLAYER + "; END;"};
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2015 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.samples.apps.topeka.persistence;
+
+import android.support.annotation.Nullable;
+
+import java.util.Locale;
+
+/**
+ * Turns text entered by the user into a full text query for the {@link SearchTable}.
+ */
+final class SearchQuery {
+
+    /**
+     * Shorter words match too many terms to stay fast.
+     */
+    static final int MIN_LENGTH = 2;
+
+    private SearchQuery() {
+        //no instance
+    }
+
+    /**
+     * Creates a query matching all words of the text, the last of them possibly incomplete.
+     * All words are matched as prefixes, which keeps the results stable while typing.
+     * Characters that are not letters or digits separate words, so the text can't contain
+     * any query syntax.
+     *
+     * @param text The text to search for.
+     * @return The query or <code>null</code> if none of the words is long enough to search for.
+     */
+    @Nullable
+    static String toMatchExpression(String text) {
+        final StringBuilder expression = new StringBuilder(text.length() + 8);
+        int wordLength = 0;
+        int longestWordLength = 0;
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (wordLength == 0 && expression.length() > 0) {
+                    expression.append(' ');
+                }
+                expression.append(c);
+                wordLength++;
+                longestWordLength = Math.max(longestWordLength, wordLength);
+            } else if (wordLength > 0) {
+                expression.append('*');
+                wordLength = 0;
+            }
+        }
+        if (wordLength > 0) {
+            expression.append('*');
+        }
+        if (longestWordLength < MIN_LENGTH) {
+            return null;
+        }
+        // operators such as OR are only recognized in upper case
+        return expression.toString().toLowerCase(Locale.US);
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2015 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.samples.apps.topeka.persistence;
+
+/**
+ * Structure of the full text search index over quizzes, their options and category names.
+ * <p>
+ * Each row's docid is the id of the quiz it indexes. Triggers on the quiz and category tables
+ * keep the index in sync whenever content is filled, replaced or updated by a delta.
+ * </p>
+ */
+public interface SearchTable {
+
+    String NAME = "quiz_search";
+
+    String COLUMN_DOCID = "docid";
+    String COLUMN_QUESTION = "question";
+    String COLUMN_OPTIONS = "options";
+    String COLUMN_CATEGORY = "category";
+
+    // FTS4's prefix option would need SQLite 3.7.7, which is not available on all API levels
+    String CREATE = "CREATE VIRTUAL TABLE " + NAME + " USING fts4("
+            + COLUMN_QUESTION + ", " + COLUMN_OPTIONS + ", " + COLUMN_CATEGORY + ");";
+
+    String INSERT_QUIZ = "INSERT INTO " + NAME + " (" + COLUMN_DOCID + ", " + COLUMN_QUESTION
+            + ", " + COLUMN_OPTIONS + ", " + COLUMN_CATEGORY + ") VALUES (NEW."
+            + QuizTable.COLUMN_ID + ", NEW." + QuizTable.COLUMN_QUESTION + ", NEW."
+            + QuizTable.COLUMN_OPTIONS + ", (SELECT " + CategoryTable.COLUMN_NAME + " FROM "
+            + CategoryTable.NAME + " WHERE " + CategoryTable.COLUMN_ID + "=NEW."
+            + QuizTable.FK_CATEGORY + ")); ";
+
+    String DELETE_QUIZ = "DELETE FROM " + NAME + " WHERE " + COLUMN_DOCID + "=OLD."
+            + QuizTable.COLUMN_ID + "; ";
+
+    String[] CREATE_TRIGGERS = {
+            "CREATE TRIGGER " + NAME + "_insert AFTER INSERT ON " + QuizTable.NAME
+                    + " BEGIN " + INSERT_QUIZ + "END;",
+            "CREATE TRIGGER " + NAME + "_update AFTER UPDATE OF " + QuizTable.FK_CATEGORY
+                    + ", " + QuizTable.COLUMN_QUESTION + ", " + QuizTable.COLUMN_OPTIONS
+                    + " ON " + QuizTable.NAME + " BEGIN " + DELETE_QUIZ + INSERT_QUIZ + "END;",
+            "CREATE TRIGGER " + NAME + "_delete AFTER DELETE ON " + QuizTable.NAME
+                    + " BEGIN " + DELETE_QUIZ + "END;",
+            "CREATE TRIGGER " + NAME + "_category AFTER UPDATE OF " + CategoryTable.COLUMN_NAME
+                    + " ON " + CategoryTable.NAME + " BEGIN UPDATE " + NAME + " SET "
+                    + COLUMN_CATEGORY + "=NEW." + CategoryTable.COLUMN_NAME + " WHERE "
+                    + COLUMN_DOCID + " IN (SELECT " + QuizTable.COLUMN_ID + " FROM "
+                    + QuizTable.NAME + " WHERE " + QuizTable.FK_CATEGORY + "=NEW."
+                    + CategoryTable.COLUMN_ID + "); END;"};
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2015 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.samples.apps.topeka.persistence;
+
+import android.database.AbstractWindowedCursor;
+import android.database.Cursor;
+import android.database.CursorWindow;
+
+/**
+ * Lets cursors that are read one after another fill the same {@link CursorWindow}, instead of
+ * allocating a window each.
+ * <p>
+ * The first shared cursor allocates the window, which is kept alive by an extra reference
+ * until this is closed. A cursor has to be closed before the next one is shared, as filling a
+ * window clears its previous rows.
+ * </p>
+ */
+final class SharedCursorWindow {
+
+    private CursorWindow mWindow;
+
+    /**
+     * Lets a cursor use the shared window. Has to be called before the cursor is read.
+     *
+     * @param cursor The cursor that has just been opened.
+     */
+    void share(Cursor cursor) {
+        if (!(cursor instanceof AbstractWindowedCursor)) {
+            return;
+        }
+        final AbstractWindowedCursor windowedCursor = (AbstractWindowedCursor) cursor;
+        if (mWindow == null) {
+            // Fills the cursor's own window, which is shared from now on.
+            windowedCursor.getCount();
+            mWindow = windowedCursor.getWindow();
+            if (mWindow != null) {
+                mWindow.acquireReference();
+            }
+        } else {
+            mWindow.acquireReference();
+            windowedCursor.setWindow(mWindow);
+        }
+    }
+
+    /**
+     * Releases the shared window once all cursors using it are closed.
+     */
+    void close() {
+        if (mWindow != null) {
+            mWindow.releaseReference();
+            mWindow = null;
+        }
+    }
+}
@@ -16,19 +16,34 @@
 
 package com.google.samples.apps.topeka.persistence;
 
+import android.annotation.TargetApi;
 import android.content.ContentValues;
 import android.content.Context;
-import android.content.res.Resources;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+import android.os.Build;
+import android.os.CancellationSignal;
+import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
 import android.text.TextUtils;
 import android.util.Log;
 
 import com.google.samples.apps.topeka.R;
+import com.google.samples.apps.topeka.helper.AnswerMatcher;
+import com.google.samples.apps.topeka.helper.ApiLevelHelper;
 import com.google.samples.apps.topeka.helper.JsonHelper;
+import com.google.samples.apps.topeka.helper.MainThreadIoGuard;
+import com.google.samples.apps.topeka.helper.PreferencesHelper;
+import com.google.samples.apps.topeka.helper.StartupTracer;
+import com.google.samples.apps.topeka.helper.StringPool;
+import com.google.samples.apps.topeka.model.Avatar;
 import com.google.samples.apps.topeka.model.Category;
 import com.google.samples.apps.topeka.model.JsonAttributes;
+import com.google.samples.apps.topeka.model.LeaderboardEntry;
+import com.google.samples.apps.topeka.model.Player;
+import com.google.samples.apps.topeka.model.SearchResult;
 import com.google.samples.apps.topeka.model.Theme;
 import com.google.samples.apps.topeka.model.quiz.AlphaPickerQuiz;
 import com.google.samples.apps.topeka.model.quiz.FillBlankQuiz;
@@ -50,33 +65,142 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 /**
  * Database for storing and retrieving info for categories and quizzes
+ * <p>
+ * The database uses write-ahead logging. Reads on one thread are served by their own
+ * connections and don't wait for writes on another thread, e.g. storing progress while
+ * categories are loaded. Writes start non-exclusive transactions, so they don't lock readers
+ * out either.
+ * </p>
+ * <p>
+ * All methods can be called from any thread. Loaded categories are cached as immutable
+ * snapshots, see {@link CategoryCache}.
+ * </p>
  */
 public class TopekaDatabaseHelper extends SQLiteOpenHelper {
 
     private static final String TAG = "TopekaDatabaseHelper";
     private static final String DB_NAME = "topeka";
     private static final String DB_SUFFIX = ".db";
-    private static final int DB_VERSION = 1;
-    private static List<Category> mCategories;
-    private static TopekaDatabaseHelper mInstance;
-    private final Resources mResources;
+    private static final int DB_VERSION = 7;
+    private static final String CATEGORY_WITH_PROGRESS = CategoryTable.NAME
+            + " LEFT OUTER JOIN " + CategoryProgressTable.NAME + " ON "
+            + CategoryTable.NAME + "." + CategoryTable.COLUMN_ID + "="
+            + CategoryProgressTable.NAME + "." + CategoryProgressTable.FK_CATEGORY
+            + " AND " + CategoryProgressTable.NAME + "." + CategoryProgressTable.FK_PLAYER + "=";
+    private static final String[] CATEGORY_WITH_PROGRESS_PROJECTION = {
+            CategoryTable.COLUMN_ID, CategoryTable.COLUMN_NAME, CategoryTable.COLUMN_THEME,
+            CategoryProgressTable.NAME + "." + CategoryProgressTable.COLUMN_SOLVED};
+    private static final String[] CATEGORY_NAME_PROJECTION = {
+            CategoryTable.COLUMN_ID, CategoryTable.COLUMN_NAME};
+    private static final String QUIZ_WITH_PROGRESS = QuizTable.NAME
+            + " LEFT OUTER JOIN " + QuizProgressTable.NAME + " ON "
+            + QuizTable.NAME + "." + QuizTable.COLUMN_ID + "="
+            + QuizProgressTable.NAME + "." + QuizProgressTable.FK_QUIZ
+            + " AND " + QuizProgressTable.NAME + "." + QuizProgressTable.FK_PLAYER + "=";
+    private static final String[] QUIZ_WITH_PROGRESS_PROJECTION = withProgress(
+            QuizTable.PROJECTION, QuizProgressTable.NAME + "." + QuizProgressTable.COLUMN_SOLVED,
+            QuizProgressTable.NAME + "." + QuizProgressTable.COLUMN_SCORE);
+    private static final String QUIZ_BY_QUESTION = " FROM " + QuizTable.NAME + " WHERE "
+            + QuizTable.FK_CATEGORY + "=? AND " + QuizTable.COLUMN_QUESTION + "=?";
+    /*
+     * Progress is inserted and updated separately, as INSERT OR REPLACE would not fire the
+     * delete triggers that maintain the scores.
+     */
+    private static final String INSERT_QUIZ_PROGRESS = "INSERT OR IGNORE INTO "
+            + QuizProgressTable.NAME + " (" + QuizProgressTable.FK_PLAYER + ", "
+            + QuizProgressTable.FK_QUIZ + ", " + QuizProgressTable.COLUMN_SOLVED + ", "
+            + QuizProgressTable.COLUMN_SCORE + ")"
+            + " SELECT ?, " + QuizTable.COLUMN_ID + ", 1, ?" + QUIZ_BY_QUESTION;
+    private static final String UPDATE_QUIZ_PROGRESS = "UPDATE " + QuizProgressTable.NAME
+            + " SET " + QuizProgressTable.COLUMN_SCORE + "=? WHERE "
+            + QuizProgressTable.FK_PLAYER + "=? AND " + QuizProgressTable.COLUMN_SCORE
+            + "<>? AND " + QuizProgressTable.FK_QUIZ + "=(SELECT " + QuizTable.COLUMN_ID
+            + QUIZ_BY_QUESTION + ")";
+    private static final String PLAYER_RANKING = "SELECT " + PlayerTable.COLUMN_FIRST_NAME
+            + ", " + PlayerTable.COLUMN_LAST_INITIAL + ", " + PlayerTable.COLUMN_AVATAR + ", "
+            + PlayerTable.COLUMN_TOTAL_SCORE + " FROM " + PlayerTable.NAME + " WHERE "
+            + PlayerTable.COLUMN_TOTAL_SCORE + ">0 ORDER BY " + PlayerTable.COLUMN_TOTAL_SCORE
+            + " DESC LIMIT ?";
+    private static final String CATEGORY_RANKING = "SELECT " + PlayerTable.COLUMN_FIRST_NAME
+            + ", " + PlayerTable.COLUMN_LAST_INITIAL + ", " + PlayerTable.COLUMN_AVATAR + ", "
+            + ScoreTable.NAME + "." + ScoreTable.COLUMN_SCORE + " FROM " + ScoreTable.NAME
+            + " JOIN " + PlayerTable.NAME + " ON " + ScoreTable.FK_PLAYER + "="
+            + PlayerTable.NAME + "." + PlayerTable.COLUMN_ID + " WHERE "
+            + ScoreTable.FK_CATEGORY + "=? AND " + ScoreTable.COLUMN_SCORE + ">0 ORDER BY "
+            + ScoreTable.COLUMN_SCORE + " DESC LIMIT ?";
+    private static final String SEARCH = "SELECT " + QuizTable.FK_CATEGORY + ", "
+            + SearchTable.COLUMN_CATEGORY + ", " + SearchTable.NAME + "."
+            + SearchTable.COLUMN_QUESTION + " FROM " + SearchTable.NAME + " JOIN "
+            + QuizTable.NAME + " ON " + QuizTable.NAME + "." + QuizTable.COLUMN_ID + "="
+            + SearchTable.COLUMN_DOCID + " WHERE " + SearchTable.NAME + " MATCH ? LIMIT ?";
+    /**
+     * Quiz columns as of database version 2, which are copied when migrating its progress.
+     */
+    private static final String[] QUIZ_COLUMNS_V2 = {QuizTable.COLUMN_ID, QuizTable.FK_CATEGORY,
+            QuizTable.COLUMN_TYPE, QuizTable.COLUMN_QUESTION, QuizTable.COLUMN_ANSWER,
+            QuizTable.COLUMN_OPTIONS, QuizTable.COLUMN_MIN, QuizTable.COLUMN_MAX,
+            QuizTable.COLUMN_STEP, QuizTable.COLUMN_START, QuizTable.COLUMN_END};
+    private static final String PLAYER_SELECTION = PlayerTable.COLUMN_FIRST_NAME + "=? AND "
+            + PlayerTable.COLUMN_LAST_INITIAL + "=? AND " + PlayerTable.COLUMN_AVATAR + "=?";
+    /**
+     * Progress made while no player is signed in is kept for this anonymous player.
+     */
+    private static final long NO_PLAYER = 0;
+    private static final long UNKNOWN_PLAYER = -1;
+    private static final CategoryCache mCategoryCache = new CategoryCache();
+    private static volatile TopekaDatabaseHelper mInstance;
+    /**
+     * Only the first open is part of the startup, so later accesses skip the tracer.
+     */
+    private static volatile boolean mDatabaseOpenTraced;
+    /**
+     * Adds players to the database, so signing in doesn't write on the calling thread.
+     */
+    private static final Executor mPlayerExecutor = Executors.newSingleThreadExecutor();
+    private static volatile long mPlayerId = UNKNOWN_PLAYER;
+    /**
+     * The signed in player and its pending id, guarded by the class.
+     */
+    private static Player mPlayer;
+    private static Future<Long> mPlayerIdFuture;
+    private final Context mContext;
 
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
     private TopekaDatabaseHelper(Context context) {
         //prevents external instance creation
         super(context, DB_NAME + DB_SUFFIX, null, DB_VERSION);
-        mResources = context.getResources();
+        mContext = context;
+        if (ApiLevelHelper.isAtLeast(Build.VERSION_CODES.JELLY_BEAN)) {
+            // configures the connection pool for concurrent reads before the database opens
+            setWriteAheadLoggingEnabled(true);
+        }
     }
 
     private static TopekaDatabaseHelper getInstance(Context context) {
-        if (mInstance == null) {
-            mInstance = new TopekaDatabaseHelper(context.getApplicationContext());
+        TopekaDatabaseHelper instance = mInstance;
+        if (instance == null) {
+            synchronized (TopekaDatabaseHelper.class) {
+                instance = mInstance;
+                if (instance == null) {
+                    instance = new TopekaDatabaseHelper(context.getApplicationContext());
+                    mInstance = instance;
+                }
+            }
         }
-        return mInstance;
+        return instance;
     }
 
     /**
@@ -84,61 +208,114 @@ public class TopekaDatabaseHelper extends SQLiteOpenHelper {
      *
      * @param context The context this is running in.
      * @param fromDatabase <code>true</code> if a data refresh is needed, else <code>false</code>.
-     * @return All categories stored in the database.
+     * @return All categories stored in the database as an unmodifiable snapshot.
      */
     public static List<Category> getCategories(Context context, boolean fromDatabase) {
-        if (mCategories == null || fromDatabase) {
-            mCategories = loadCategories(context);
+        final List<Category> categories = mCategoryCache.get();
+        if (categories != null && !fromDatabase) {
+            return categories;
         }
-        return mCategories;
+        final int generation = mCategoryCache.getGeneration();
+        return mCategoryCache.publish(loadCategories(context), generation);
     }
 
     private static List<Category> loadCategories(Context context) {
-        Cursor data = TopekaDatabaseHelper.getCategoryCursor(context);
-        List<Category> tmpCategories = new ArrayList<>(data.getCount());
-        final SQLiteDatabase readableDatabase = TopekaDatabaseHelper.getReadableDatabase(context);
-        do {
-            final Category category = getCategory(data, readableDatabase);
-            tmpCategories.add(category);
-        } while (data.moveToNext());
-        return tmpCategories;
+        StartupTracer.beginSection(StartupTracer.SECTION_CATEGORY_LOAD);
+        try {
+            return loadCategories(TopekaDatabaseHelper.getReadableDatabase(context),
+                    getPlayerId(context));
+        } finally {
+            StartupTracer.endSection(StartupTracer.SECTION_CATEGORY_LOAD);
+        }
     }
 
-
     /**
-     * Gets all categories wrapped in a {@link Cursor} positioned at it's first element.
-     * <p>There are <b>no quizzes</b> within the categories obtained from this cursor</p>
+     * Loads all categories with their quizzes from a database.
      *
-     * @param context The context this is running in.
+     * @param readableDatabase The database containing the categories.
+     * @param playerId The player whose progress to load.
      * @return All categories stored in the database.
      */
-    private static Cursor getCategoryCursor(Context context) {
-        SQLiteDatabase readableDatabase = getReadableDatabase(context);
-        Cursor data = readableDatabase
-                .query(CategoryTable.NAME, CategoryTable.PROJECTION, null, null, null, null, null);
-        data.moveToFirst();
-        return data;
+    @VisibleForTesting
+    static List<Category> loadCategories(SQLiteDatabase readableDatabase, long playerId) {
+        final long start = DatabaseMetrics.begin();
+        final List<CategoryRow> categoryRows =
+                getCategoryRows(readableDatabase, playerId, null, null);
+        final List<Category> tmpCategories = new ArrayList<>(categoryRows.size());
+        // the quiz cursors are read one after another, so they can fill the same window
+        final SharedCursorWindow window = new SharedCursorWindow();
+        int rows = 0;
+        try {
+            for (CategoryRow categoryRow : categoryRows) {
+                final Category category =
+                        getCategory(categoryRow, readableDatabase, playerId, window);
+                tmpCategories.add(category);
+                rows += 1 + category.getQuizzes().size();
+            }
+        } finally {
+            window.close();
+        }
+        DatabaseMetrics.end(DatabaseMetrics.Operation.LOAD_CATEGORIES, start, rows);
+        return tmpCategories;
     }
 
     /**
-     * Gets a category from the given position of the cursor provided.
+     * Reads categories without their quizzes. The cursor is closed right away, so it is not
+     * kept open while the quizzes are queried.
      *
-     * @param cursor The Cursor containing the data.
+     * @param readableDatabase The database containing the categories.
+     * @param playerId The player whose progress to join.
+     * @param selection The categories to read or <code>null</code> to read all of them.
+     * @param selectionArgs The arguments of the selection.
+     * @return The categories' rows in the order they have been stored.
+     */
+    private static List<CategoryRow> getCategoryRows(SQLiteDatabase readableDatabase,
+                                                     long playerId, @Nullable String selection,
+                                                     @Nullable String[] selectionArgs) {
+        final Cursor cursor = CursorTracker.track(readableDatabase.query(
+                CATEGORY_WITH_PROGRESS + playerId, CATEGORY_WITH_PROGRESS_PROJECTION,
+                selection, selectionArgs, null, null, null));
+        try {
+            final List<CategoryRow> rows = new ArrayList<>(cursor.getCount());
+            while (cursor.moveToNext()) {
+                // "magic numbers" based on CATEGORY_WITH_PROGRESS_PROJECTION
+                rows.add(new CategoryRow(cursor.getString(0), cursor.getString(1),
+                        Theme.valueOf(cursor.getString(2)),
+                        getBooleanFromDatabase(cursor.getString(3))));
+            }
+            return rows;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /**
+     * Gets a category along with its quizzes.
+     *
+     * @param categoryRow The category's row.
      * @param readableDatabase The database that contains the quizzes.
+     * @param playerId The player whose progress to join.
+     * @param window The window to fill with the quizzes or <code>null</code> to allocate one.
      * @return The found category.
      */
-    private static Category getCategory(Cursor cursor, SQLiteDatabase readableDatabase) {
-        // "magic numbers" based on CategoryTable#PROJECTION
-        final String id = cursor.getString(0);
-        final String name = cursor.getString(1);
-        final String themeName = cursor.getString(2);
-        final Theme theme = Theme.valueOf(themeName);
-        final String isSolved = cursor.getString(3);
-        final boolean solved = getBooleanFromDatabase(isSolved);
-        final int[] scores = JsonHelper.jsonArrayToIntArray(cursor.getString(4));
-
-        final List<Quiz> quizzes = getQuizzes(id, readableDatabase);
-        return new Category(name, id, theme, quizzes, scores, solved);
+    private static Category getCategory(CategoryRow categoryRow,
+                                        SQLiteDatabase readableDatabase, long playerId,
+                                        @Nullable SharedCursorWindow window) {
+        final Cursor quizCursor =
+                getQuizCursor(categoryRow.mId, readableDatabase, playerId, window);
+        try {
+            final List<Quiz> quizzes = new ArrayList<>(quizCursor.getCount());
+            final int[] scores = new int[quizCursor.getCount()];
+            while (quizCursor.moveToNext()) {
+                quizzes.add(createQuizDueToType(quizCursor));
+                // missing progress is read as 0
+                scores[quizCursor.getPosition()] = quizCursor.getInt(13);
+            }
+            return new Category(categoryRow.mName, categoryRow.mId, categoryRow.mTheme,
+                    quizzes, scores, categoryRow.mSolved);
+        } finally {
+            quizCursor.close();
+        }
     }
 
     private static boolean getBooleanFromDatabase(String isSolved) {
@@ -154,13 +331,16 @@ public class TopekaDatabaseHelper extends SQLiteOpenHelper {
      * @return The found category.
      */
     public static Category getCategoryWith(Context context, String categoryId) {
+        final long start = DatabaseMetrics.begin();
         SQLiteDatabase readableDatabase = getReadableDatabase(context);
+        final long playerId = getPlayerId(context);
         String[] selectionArgs = {categoryId};
-        Cursor data = readableDatabase
-                .query(CategoryTable.NAME, CategoryTable.PROJECTION, CategoryTable.COLUMN_ID + "=?",
-                        selectionArgs, null, null, null);
-        data.moveToFirst();
-        return getCategory(data, readableDatabase);
+        final CategoryRow categoryRow = getCategoryRows(readableDatabase, playerId,
+                CategoryTable.COLUMN_ID + "=?", selectionArgs).get(0);
+        final Category category = getCategory(categoryRow, readableDatabase, playerId, null);
+        DatabaseMetrics.end(DatabaseMetrics.Operation.GET_CATEGORY_WITH, start,
+                1 + category.getQuizzes().size());
+        return category;
     }
 
     /**
@@ -179,86 +359,541 @@ public class TopekaDatabaseHelper extends SQLiteOpenHelper {
     }
 
     /**
-     * Updates values for a category.
+     * Switches to a player's progress. Other players' progress is kept.
+     * <p>
+     * Does not access the database, a player that is not known yet is added in the
+     * background. Database calls made in the meantime wait for it.
+     * </p>
+     *
+     * @param context The context this is running in.
+     * @param player The player to switch to or <code>null</code> if no player is signed in.
+     */
+    public static void setPlayer(Context context, @Nullable Player player) {
+        synchronized (TopekaDatabaseHelper.class) {
+            if (mPlayerIdFuture != null
+                    && (player == null ? mPlayer == null : player.equals(mPlayer))) {
+                return;
+            }
+            mPlayer = player;
+            mPlayerId = UNKNOWN_PLAYER;
+            mPlayerIdFuture = resolvePlayerId(context.getApplicationContext(), player);
+            mCategoryCache.invalidate();
+        }
+    }
+
+    private static Future<Long> resolvePlayerId(final Context context,
+                                                @Nullable final Player player) {
+        final FutureTask<Long> playerId = new FutureTask<>(new Callable<Long>() {
+            @Override
+            public Long call() {
+                return player == null ? NO_PLAYER
+                        : getOrCreatePlayerId(getWritableDatabase(context), player);
+            }
+        });
+        if (player == null) {
+            playerId.run();
+        } else {
+            // a single thread serializes players being added, which could add one twice
+            mPlayerExecutor.execute(playerId);
+        }
+        return playerId;
+    }
+
+    /**
+     * @param context The context this is running in.
+     * @return All players that signed in on this device, ordered by their first name.
+     */
+    public static List<Player> getPlayers(Context context) {
+        final Cursor cursor = CursorTracker.track(getReadableDatabase(context).query(
+                PlayerTable.NAME, PlayerTable.PROJECTION, null, null, null, null,
+                PlayerTable.COLUMN_FIRST_NAME));
+        try {
+            final List<Player> players = new ArrayList<>(cursor.getCount());
+            while (cursor.moveToNext()) {
+                // "magic numbers" based on PlayerTable#PROJECTION
+                players.add(new Player(cursor.getString(1), cursor.getString(2),
+                        Avatar.valueOf(cursor.getString(3))));
+            }
+            return players;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /**
+     * Gets the best players, either overall or for a single category.
+     *
+     * @param context The context this is running in.
+     * @param categoryId The category to rank players for or <code>null</code> to rank them by
+     * their total score.
+     * @param limit The maximum number of entries to get.
+     * @return Players that scored, ordered by their score with the best player first.
+     */
+    public static List<LeaderboardEntry> getLeaderboard(Context context,
+                                                        @Nullable String categoryId, int limit) {
+        final long start = DatabaseMetrics.begin();
+        final List<LeaderboardEntry> leaderboard =
+                getLeaderboard(getReadableDatabase(context), categoryId, limit);
+        DatabaseMetrics.end(DatabaseMetrics.Operation.LEADERBOARD, start, leaderboard.size());
+        return leaderboard;
+    }
+
+    /**
+     * Reads the top rows of the score indexes, so only the returned players are visited.
+     */
+    @VisibleForTesting
+    static List<LeaderboardEntry> getLeaderboard(SQLiteDatabase readableDatabase,
+                                                 @Nullable String categoryId, int limit) {
+        final Cursor cursor = CursorTracker.track(categoryId == null
+                ? readableDatabase.rawQuery(PLAYER_RANKING, new String[]{String.valueOf(limit)})
+                : readableDatabase.rawQuery(CATEGORY_RANKING,
+                new String[]{categoryId, String.valueOf(limit)}));
+        try {
+            final List<LeaderboardEntry> leaderboard = new ArrayList<>(cursor.getCount());
+            while (cursor.moveToNext()) {
+                // "magic numbers" based on PLAYER_RANKING and CATEGORY_RANKING
+                final Player player = new Player(cursor.getString(0), cursor.getString(1),
+                        Avatar.valueOf(cursor.getString(2)));
+                leaderboard.add(new LeaderboardEntry(player, cursor.getInt(3)));
+            }
+            return leaderboard;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /**
+     * Gets the names of all categories without loading their quizzes or progress.
+     *
+     * @param context The context this is running in.
+     * @return Category names by category id, in the order the categories have been stored.
+     */
+    public static Map<String, String> getCategoryNames(Context context) {
+        return getCategoryNames(getReadableDatabase(context));
+    }
+
+    @VisibleForTesting
+    static Map<String, String> getCategoryNames(SQLiteDatabase readableDatabase) {
+        final Cursor cursor = CursorTracker.track(readableDatabase.query(CategoryTable.NAME,
+                CATEGORY_NAME_PROJECTION, null, null, null, null, null));
+        try {
+            final Map<String, String> names = new LinkedHashMap<>(cursor.getCount());
+            while (cursor.moveToNext()) {
+                // "magic numbers" based on CATEGORY_NAME_PROJECTION
+                names.put(cursor.getString(0), cursor.getString(1));
+            }
+            return names;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private static long getPlayerId(Context context) {
+        final long playerId = mPlayerId;
+        if (playerId != UNKNOWN_PLAYER) {
+            return playerId;
+        }
+        final Future<Long> playerIdFuture;
+        synchronized (TopekaDatabaseHelper.class) {
+            if (mPlayerIdFuture == null) {
+                // nobody signed in during this process yet
+                mPlayer = PreferencesHelper.getPlayer(context);
+                mPlayerIdFuture = resolvePlayerId(context.getApplicationContext(), mPlayer);
+            }
+            playerIdFuture = mPlayerIdFuture;
+        }
+        final long resolvedPlayerId = getPlayerId(playerIdFuture);
+        synchronized (TopekaDatabaseHelper.class) {
+            // the player might have changed in the meantime
+            if (playerIdFuture == mPlayerIdFuture) {
+                mPlayerId = resolvedPlayerId;
+            }
+        }
+        return resolvedPlayerId;
+    }
+
+    private static long getPlayerId(Future<Long> playerIdFuture) {
+        try {
+            return playerIdFuture.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while adding the player", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Could not add the player", e.getCause());
+        }
+    }
+
+    @VisibleForTesting
+    static long getOrCreatePlayerId(SQLiteDatabase db, Player player) {
+        final String[] selectionArgs = {player.getFirstName(), player.getLastInitial(),
+                player.getAvatar().name()};
+        final Cursor cursor = CursorTracker.track(db.query(PlayerTable.NAME,
+                new String[]{PlayerTable.COLUMN_ID}, PLAYER_SELECTION, selectionArgs,
+                null, null, null));
+        try {
+            if (cursor.moveToFirst()) {
+                return cursor.getLong(0);
+            }
+        } finally {
+            cursor.close();
+        }
+        ContentValues values = new ContentValues();
+        values.put(PlayerTable.COLUMN_FIRST_NAME, player.getFirstName());
+        values.put(PlayerTable.COLUMN_LAST_INITIAL, player.getLastInitial());
+        values.put(PlayerTable.COLUMN_AVATAR, player.getAvatar().name());
+        return db.insert(PlayerTable.NAME, null, values);
+    }
+
+    /**
+     * Stores the player's progress for a category.
      *
      * @param context The context this is running in.
      * @param category The category to update.
      */
     public static void updateCategory(Context context, Category category) {
-        if (mCategories != null && mCategories.contains(category)) {
-            final int location = mCategories.indexOf(category);
-            mCategories.remove(location);
-            mCategories.add(location, category);
+        final long start = DatabaseMetrics.begin();
+        final int rows = updateProgress(getWritableDatabase(context), category,
+                getPlayerId(context));
+        // replaced once stored, so snapshots loaded meanwhile are dropped
+        mCategoryCache.replace(category);
+        DatabaseMetrics.end(DatabaseMetrics.Operation.UPDATE_CATEGORY, start, rows);
+    }
+
+    /**
+     * Stores the player's progress for a single quiz of a category. This is a single row
+     * write, so it is cheap enough to run after every answer.
+     *
+     * @param context The context this is running in.
+     * @param category The category containing the quiz.
+     * @param position The position of the quiz within the category.
+     */
+    public static void updateQuiz(Context context, Category category, int position) {
+        final long start = DatabaseMetrics.begin();
+        final SQLiteDatabase writableDatabase = getWritableDatabase(context);
+        final SQLiteStatement insert = writableDatabase.compileStatement(INSERT_QUIZ_PROGRESS);
+        final SQLiteStatement update = writableDatabase.compileStatement(UPDATE_QUIZ_PROGRESS);
+        final int rows;
+        try {
+            rows = updateQuiz(insert, update, category, position, getPlayerId(context));
+        } finally {
+            insert.close();
+            update.close();
         }
-        SQLiteDatabase writableDatabase = getWritableDatabase(context);
-        ContentValues categoryValues = createContentValuesFor(category);
-        writableDatabase.update(CategoryTable.NAME, categoryValues, CategoryTable.COLUMN_ID + "=?",
-                new String[]{category.getId()});
-        final List<Quiz> quizzes = category.getQuizzes();
-        updateQuizzes(writableDatabase, quizzes);
+        mCategoryCache.replace(category);
+        DatabaseMetrics.end(DatabaseMetrics.Operation.UPDATE_QUIZZES, start, rows);
     }
 
     /**
-     * Updates a list of given quizzes.
+     * Stores a player's progress for a category within a transaction.
      *
-     * @param writableDatabase The database to write the quizzes to.
-     * @param quizzes The quizzes to write.
+     * @param writableDatabase The database to write the progress to.
+     * @param category The category to store.
+     * @param playerId The player who made the progress.
+     * @return The number of updated rows.
      */
-    private static void updateQuizzes(SQLiteDatabase writableDatabase, List<Quiz> quizzes) {
-        Quiz quiz;
-        ContentValues quizValues = new ContentValues();
-        String[] quizArgs = new String[1];
-        for (int i = 0; i < quizzes.size(); i++) {
-            quiz = quizzes.get(i);
-            quizValues.clear();
-            quizValues.put(QuizTable.COLUMN_SOLVED, quiz.isSolved());
+    @VisibleForTesting
+    static int updateProgress(SQLiteDatabase writableDatabase, Category category,
+                              long playerId) {
+        int rows = 0;
+        writableDatabase.beginTransactionNonExclusive();
+        try {
+            ContentValues categoryValues = createContentValuesFor(category, playerId);
+            if (writableDatabase.insertWithOnConflict(CategoryProgressTable.NAME, null,
+                    categoryValues, SQLiteDatabase.CONFLICT_REPLACE) != -1) {
+                rows++;
+            }
+            rows += updateQuizzes(writableDatabase, category, playerId);
+            writableDatabase.setTransactionSuccessful();
+        } finally {
+            writableDatabase.endTransaction();
+        }
+        return rows;
+    }
 
-            quizArgs[0] = quiz.getQuestion();
-            writableDatabase.update(QuizTable.NAME, quizValues, QuizTable.COLUMN_QUESTION + "=?",
-                    quizArgs);
+    /**
+     * Stores the progress of a category's solved quizzes.
+     * Unsolved quizzes have no progress, so they are skipped.
+     *
+     * @param writableDatabase The database to write the progress to.
+     * @param category The category containing the quizzes.
+     * @param playerId The player who solved the quizzes.
+     * @return The number of updated rows.
+     */
+    private static int updateQuizzes(SQLiteDatabase writableDatabase, Category category,
+                                     long playerId) {
+        final long start = DatabaseMetrics.begin();
+        int rows = 0;
+        final int quizCount = category.getQuizzes().size();
+        final SQLiteStatement insert = writableDatabase.compileStatement(INSERT_QUIZ_PROGRESS);
+        final SQLiteStatement update = writableDatabase.compileStatement(UPDATE_QUIZ_PROGRESS);
+        try {
+            for (int i = 0; i < quizCount; i++) {
+                rows += updateQuiz(insert, update, category, i, playerId);
+            }
+        } finally {
+            insert.close();
+            update.close();
         }
+        DatabaseMetrics.end(DatabaseMetrics.Operation.UPDATE_QUIZZES, start, rows);
+        return rows;
     }
 
     /**
-     * Resets the contents of Topeka's database to it's initial state.
+     * Stores the progress of a quiz if it has been solved.
+     *
+     * @param insert The compiled {@link #INSERT_QUIZ_PROGRESS} statement.
+     * @param update The compiled {@link #UPDATE_QUIZ_PROGRESS} statement.
+     * @param category The category containing the quiz.
+     * @param position The position of the quiz within the category.
+     * @param playerId The player who solved the quiz.
+     * @return The number of updated rows.
+     */
+    private static int updateQuiz(SQLiteStatement insert, SQLiteStatement update,
+                                  Category category, int position, long playerId) {
+        final Quiz quiz = category.getQuizzes().get(position);
+        if (!quiz.isSolved()) {
+            return 0;
+        }
+        final int score = category.getScores()[position];
+        insert.bindLong(1, playerId);
+        insert.bindLong(2, score);
+        insert.bindString(3, category.getId());
+        insert.bindString(4, quiz.getQuestion());
+        if (insert.executeInsert() != -1) {
+            return 1;
+        }
+        update.bindLong(1, score);
+        update.bindLong(2, playerId);
+        update.bindLong(3, score);
+        update.bindString(4, category.getId());
+        update.bindString(5, quiz.getQuestion());
+        return update.executeUpdateDelete();
+    }
+
+    /**
+     * Resets the current player's progress. Content and other players' progress stay untouched.
      *
      * @param context The context this is running in.
      */
     public static void reset(Context context) {
+        final long start = DatabaseMetrics.begin();
+        SQLiteDatabase writableDatabase = getWritableDatabase(context);
+        final String[] playerArgs = {String.valueOf(getPlayerId(context))};
+        int rows;
+        writableDatabase.beginTransactionNonExclusive();
+        try {
+            rows = writableDatabase.delete(QuizProgressTable.NAME,
+                    QuizProgressTable.FK_PLAYER + "=?", playerArgs);
+            rows += writableDatabase.delete(CategoryProgressTable.NAME,
+                    CategoryProgressTable.FK_PLAYER + "=?", playerArgs);
+            // the triggers have zeroed the player's scores already
+            rows += writableDatabase.delete(ScoreTable.NAME,
+                    ScoreTable.FK_PLAYER + "=?", playerArgs);
+            writableDatabase.setTransactionSuccessful();
+        } finally {
+            writableDatabase.endTransaction();
+        }
+        mCategoryCache.invalidate();
+        DatabaseMetrics.end(DatabaseMetrics.Operation.RESET, start, rows);
+    }
+
+    private static int clearProgress(SQLiteDatabase db) {
+        // the triggers on the quiz progress zero the players' scores before they are deleted
+        return db.delete(QuizProgressTable.NAME, null, null)
+                + db.delete(CategoryProgressTable.NAME, null, null)
+                + db.delete(ScoreTable.NAME, null, null);
+    }
+
+    /**
+     * Restores the content bundled in <code>res/raw/categories.json</code>, e.g. after
+     * {@link #replaceContent(Context, String)}. Also resets all players' progress.
+     *
+     * @param context The context this is running in.
+     */
+    @VisibleForTesting
+    public static void restoreBundledContent(Context context) {
         SQLiteDatabase writableDatabase = getWritableDatabase(context);
+        clearProgress(writableDatabase);
         writableDatabase.delete(CategoryTable.NAME, null, null);
         writableDatabase.delete(QuizTable.NAME, null, null);
         getInstance(context).preFillDatabase(writableDatabase);
+        mCategoryCache.invalidate();
     }
 
     /**
-     * Creates objects for quizzes according to a category id.
+     * Replaces the contents of Topeka's database, e.g. with generated content for benchmarks.
+     * Use {@link #restoreBundledContent(Context)} to restore the initial state.
      *
-     * @param categoryId The category to create quizzes for.
+     * @param context The context this is running in.
+     * @param categoriesJson Content in the format of <code>res/raw/categories.json</code>.
+     * @throws JSONException If the content can't be parsed.
+     */
+    @VisibleForTesting
+    public static void replaceContent(Context context, String categoriesJson)
+            throws JSONException {
+        SQLiteDatabase writableDatabase = getWritableDatabase(context);
+        writableDatabase.beginTransactionNonExclusive();
+        try {
+            clearProgress(writableDatabase);
+            writableDatabase.delete(CategoryTable.NAME, null, null);
+            writableDatabase.delete(QuizTable.NAME, null, null);
+            fillCategoriesAndQuizzes(writableDatabase, categoriesJson);
+            writableDatabase.setTransactionSuccessful();
+        } finally {
+            writableDatabase.endTransaction();
+        }
+        mCategoryCache.invalidate();
+    }
+
+    /**
+     * Applies a content update to Topeka's database, keeping the player's progress.
+     * Content not mentioned in the delta is not touched.
+     *
+     * @param context The context this is running in.
+     * @param deltaJson The delta in the format described in {@link ContentDelta}.
+     * @return <code>true</code> if the delta was applied, <code>false</code> if the stored
+     * content is not at the delta's base version.
+     * @throws JSONException If the delta can't be parsed, in which case nothing is changed.
+     */
+    public static boolean applyContentDelta(Context context, String deltaJson)
+            throws JSONException {
+        final long start = DatabaseMetrics.begin();
+        int rows = 0;
+        try {
+            SQLiteDatabase writableDatabase = getWritableDatabase(context);
+            writableDatabase.beginTransactionNonExclusive();
+            try {
+                final int changedRows = ContentDelta.apply(writableDatabase, deltaJson);
+                if (changedRows == ContentDelta.NOT_APPLICABLE) {
+                    return false;
+                }
+                rows = changedRows;
+                writableDatabase.setTransactionSuccessful();
+            } finally {
+                writableDatabase.endTransaction();
+            }
+            mCategoryCache.invalidate();
+            return true;
+        } finally {
+            DatabaseMetrics.end(DatabaseMetrics.Operation.APPLY_DELTA, start, rows);
+        }
+    }
+
+    /**
+     * @param context The context this is running in.
+     * @return The version of the stored content.
+     */
+    public static int getContentVersion(Context context) {
+        return ContentDelta.getVersion(getReadableDatabase(context));
+    }
+
+    /**
+     * Searches questions, options and category names for quizzes.
+     *
+     * @param context The context this is running in.
+     * @param text The text entered by the user. All words have to match, the last one may be
+     * incomplete.
+     * @param limit The maximum number of results to get.
+     * @return The matching quizzes, none if the text is too short to search for.
+     */
+    public static List<SearchResult> search(Context context, String text, int limit) {
+        final String expression = SearchQuery.toMatchExpression(text);
+        if (expression == null) {
+            return Collections.emptyList();
+        }
+        final long start = DatabaseMetrics.begin();
+        final List<SearchResult> results = readSearchResults(getReadableDatabase(context)
+                .rawQuery(SEARCH, new String[]{expression, String.valueOf(limit)}));
+        DatabaseMetrics.end(DatabaseMetrics.Operation.SEARCH, start, results.size());
+        return results;
+    }
+
+    /**
+     * Searches for quizzes like {@link #search(Context, String, int)}, but can be canceled
+     * while the query is running, e.g. once the user typed on.
+     *
+     * @param cancellationSignal The signal to cancel the search with.
+     * @throws android.os.OperationCanceledException If the search has been canceled.
+     */
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    public static List<SearchResult> search(Context context, String text, int limit,
+                                            CancellationSignal cancellationSignal) {
+        final String expression = SearchQuery.toMatchExpression(text);
+        if (expression == null) {
+            return Collections.emptyList();
+        }
+        final long start = DatabaseMetrics.begin();
+        final List<SearchResult> results = readSearchResults(getReadableDatabase(context)
+                .rawQuery(SEARCH, new String[]{expression, String.valueOf(limit)},
+                        cancellationSignal));
+        DatabaseMetrics.end(DatabaseMetrics.Operation.SEARCH, start, results.size());
+        return results;
+    }
+
+    @VisibleForTesting
+    static List<SearchResult> search(SQLiteDatabase readableDatabase, String text, int limit) {
+        final String expression = SearchQuery.toMatchExpression(text);
+        if (expression == null) {
+            return Collections.emptyList();
+        }
+        return readSearchResults(readableDatabase.rawQuery(SEARCH,
+                new String[]{expression, String.valueOf(limit)}));
+    }
+
+    private static List<SearchResult> readSearchResults(Cursor searchCursor) {
+        final Cursor cursor = CursorTracker.track(searchCursor);
+        try {
+            final List<SearchResult> results = new ArrayList<>(cursor.getCount());
+            while (cursor.moveToNext()) {
+                // "magic numbers" based on SEARCH
+                results.add(new SearchResult(cursor.getString(0), cursor.getString(1),
+                        cursor.getString(2)));
+            }
+            return results;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /**
+     * Queries the quizzes of a category along with the player's progress.
+     *
+     * @param categoryId The category to query quizzes for.
      * @param database The database containing the quizzes.
-     * @return The found quizzes or an empty list if none were available.
+     * @param playerId The player whose progress to join.
+     * @param window The window to fill or <code>null</code> to allocate one.
+     * @return The found quizzes in the order they have been added.
      */
-    private static List<Quiz> getQuizzes(final String categoryId, SQLiteDatabase database) {
-        final List<Quiz> quizzes = new ArrayList<>();
-        final Cursor cursor = database.query(QuizTable.NAME, QuizTable.PROJECTION,
-                QuizTable.FK_CATEGORY + " LIKE ?", new String[]{categoryId}, null, null, null);
-        cursor.moveToFirst();
-        do {
-            quizzes.add(createQuizDueToType(cursor));
-        } while (cursor.moveToNext());
-        cursor.close();
-        return quizzes;
+    private static Cursor getQuizCursor(final String categoryId, SQLiteDatabase database,
+                                        long playerId, @Nullable SharedCursorWindow window) {
+        final Cursor cursor = database.query(QUIZ_WITH_PROGRESS + playerId,
+                QUIZ_WITH_PROGRESS_PROJECTION, QuizTable.FK_CATEGORY + "=?",
+                new String[]{categoryId}, null, null, QuizTable.NAME + "." + QuizTable.COLUMN_ID);
+        if (window != null) {
+            window.share(cursor);
+        }
+        return CursorTracker.track(cursor);
+    }
+
+    private static String[] withProgress(String[] projection, String... progressColumns) {
+        final String[] qualified = new String[projection.length + progressColumns.length];
+        for (int i = 0; i < projection.length; i++) {
+            qualified[i] = QuizTable.NAME + "." + projection[i];
+        }
+        System.arraycopy(progressColumns, 0, qualified, projection.length,
+                progressColumns.length);
+        return qualified;
     }
 
     /**
      * Creates a quiz corresponding to the projection provided from a cursor row.
-     * Currently only {@link QuizTable#PROJECTION} is supported.
+     * Currently only {@link #QUIZ_WITH_PROGRESS_PROJECTION} is supported.
      *
      * @param cursor The Cursor containing the data.
      * @return The created quiz.
      */
     private static Quiz createQuizDueToType(Cursor cursor) {
-        // "magic numbers" based on QuizTable#PROJECTION
+        // "magic numbers" based on QUIZ_WITH_PROGRESS_PROJECTION
         final String type = cursor.getString(2);
         final String question = cursor.getString(3);
         final String answer = cursor.getString(4);
@@ -266,17 +901,17 @@ public class TopekaDatabaseHelper extends SQLiteOpenHelper {
         final int min = cursor.getInt(6);
         final int max = cursor.getInt(7);
         final int step = cursor.getInt(8);
-        final boolean solved = getBooleanFromDatabase(cursor.getString(11));
+        final boolean solved = getBooleanFromDatabase(cursor.getString(12));
 
         switch (type) {
             case JsonAttributes.QuizType.ALPHA_PICKER: {
-                return new AlphaPickerQuiz(question, answer, solved);
+                return new AlphaPickerQuiz(question, StringPool.intern(answer), solved);
             }
             case JsonAttributes.QuizType.FILL_BLANK: {
                 return createFillBlankQuiz(cursor, question, answer, solved);
             }
             case JsonAttributes.QuizType.FILL_TWO_BLANKS: {
-                return createFillTwoBlanksQuiz(question, answer, solved);
+                return createFillTwoBlanksQuiz(cursor, question, answer, solved);
             }
             case JsonAttributes.QuizType.FOUR_QUARTER: {
                 return createFourQuarterQuiz(question, answer, options, solved);
@@ -307,34 +942,41 @@ public class TopekaDatabaseHelper extends SQLiteOpenHelper {
 
     private static Quiz createFillBlankQuiz(Cursor cursor, String question,
                                             String answer, boolean solved) {
-        final String start = cursor.getString(9);
-        final String end = cursor.getString(10);
-        return new FillBlankQuiz(question, answer, start, end, solved);
+        final String start = StringPool.intern(cursor.getString(9));
+        final String end = StringPool.intern(cursor.getString(10));
+        return new FillBlankQuiz(question, StringPool.intern(answer), start, end, solved,
+                getTolerance(cursor));
+    }
+
+    private static Quiz createFillTwoBlanksQuiz(Cursor cursor, String question, String answer,
+                                                boolean solved) {
+        final String[] answerArray =
+                StringPool.intern(JsonHelper.jsonArrayToStringArray(answer));
+        return new FillTwoBlanksQuiz(question, answerArray, solved, getTolerance(cursor));
     }
 
-    private static Quiz createFillTwoBlanksQuiz(String question, String answer, boolean solved) {
-        final String[] answerArray = JsonHelper.jsonArrayToStringArray(answer);
-        return new FillTwoBlanksQuiz(question, answerArray, solved);
+    private static int getTolerance(Cursor cursor) {
+        return cursor.isNull(11) ? AnswerMatcher.DEFAULT_TOLERANCE : cursor.getInt(11);
     }
 
     private static Quiz createFourQuarterQuiz(String question, String answer,
                                               String options, boolean solved) {
         final int[] answerArray = JsonHelper.jsonArrayToIntArray(answer);
-        final String[] optionsArray = JsonHelper.jsonArrayToStringArray(options);
+        final String[] optionsArray = StringPool.intern(JsonHelper.jsonArrayToStringArray(options));
         return new FourQuarterQuiz(question, answerArray, optionsArray, solved);
     }
 
     private static Quiz createMultiSelectQuiz(String question, String answer,
                                               String options, boolean solved) {
         final int[] answerArray = JsonHelper.jsonArrayToIntArray(answer);
-        final String[] optionsArray = JsonHelper.jsonArrayToStringArray(options);
+        final String[] optionsArray = StringPool.intern(JsonHelper.jsonArrayToStringArray(options));
         return new MultiSelectQuiz(question, answerArray, optionsArray, solved);
     }
 
     private static Quiz createSelectItemQuiz(String question, String answer,
                                              String options, boolean solved) {
         final int[] answerArray = JsonHelper.jsonArrayToIntArray(answer);
-        final String[] optionsArray = JsonHelper.jsonArrayToStringArray(options);
+        final String[] optionsArray = StringPool.intern(JsonHelper.jsonArrayToStringArray(options));
         return new SelectItemQuiz(question, answerArray, optionsArray, solved);
     }
 
@@ -358,30 +1000,60 @@ public class TopekaDatabaseHelper extends SQLiteOpenHelper {
         final String[] optionsLvlOne = JsonHelper.jsonArrayToStringArray(options);
         final String[][] optionsArray = new String[optionsLvlOne.length][];
         for (int i = 0; i < optionsLvlOne.length; i++) {
-            optionsArray[i] = JsonHelper.jsonArrayToStringArray(optionsLvlOne[i]);
+            optionsArray[i] =
+                    StringPool.intern(JsonHelper.jsonArrayToStringArray(optionsLvlOne[i]));
         }
         return optionsArray;
     }
 
     /**
-     * Creates the content values to update a category in the database.
+     * Creates the content values to store a category's progress in the database.
      *
-     * @param category The category to update.
-     * @return ContentValues containing updatable data.
+     * @param category The category to store.
+     * @param playerId The player who made the progress.
+     * @return ContentValues containing the progress.
      */
-    private static ContentValues createContentValuesFor(Category category) {
+    private static ContentValues createContentValuesFor(Category category, long playerId) {
         ContentValues contentValues = new ContentValues();
-        contentValues.put(CategoryTable.COLUMN_SOLVED, category.isSolved());
-        contentValues.put(CategoryTable.COLUMN_SCORES, Arrays.toString(category.getScores()));
+        contentValues.put(CategoryProgressTable.FK_PLAYER, playerId);
+        contentValues.put(CategoryProgressTable.FK_CATEGORY, category.getId());
+        contentValues.put(CategoryProgressTable.COLUMN_SOLVED, category.isSolved());
         return contentValues;
     }
 
     private static SQLiteDatabase getReadableDatabase(Context context) {
-        return getInstance(context).getReadableDatabase();
+        return openDatabase(context, false);
     }
 
     private static SQLiteDatabase getWritableDatabase(Context context) {
-        return getInstance(context).getWritableDatabase();
+        return openDatabase(context, true);
+    }
+
+    private static SQLiteDatabase openDatabase(Context context, boolean writable) {
+        MainThreadIoGuard.check(MainThreadIoGuard.DATABASE);
+        if (mDatabaseOpenTraced) {
+            return openDatabase(getInstance(context), writable);
+        }
+        StartupTracer.beginSection(StartupTracer.SECTION_DB_OPEN);
+        try {
+            final SQLiteDatabase database = openDatabase(getInstance(context), writable);
+            mDatabaseOpenTraced = true;
+            return database;
+        } finally {
+            StartupTracer.endSection(StartupTracer.SECTION_DB_OPEN);
+        }
+    }
+
+    private static SQLiteDatabase openDatabase(TopekaDatabaseHelper helper, boolean writable) {
+        return writable ? helper.getWritableDatabase() : helper.getReadableDatabase();
+    }
+
+    @Override
+    public void onOpen(SQLiteDatabase db) {
+        super.onOpen(db);
+        if (ApiLevelHelper.isLowerThan(Build.VERSION_CODES.JELLY_BEAN) && !db.isReadOnly()) {
+            db.enableWriteAheadLogging();
+        }
     }
 
     @Override
@@ -390,46 +1062,284 @@ public class TopekaDatabaseHelper extends SQLiteOpenHelper {
          * create the category table first, as quiz table has a foreign key
          * constraint on category id
          */
+        createTables(db);
+        preFillDatabase(db);
+    }
+
+    /**
+     * Creates all tables, indexes and triggers of the current database version.
+     */
+    @VisibleForTesting
+    static void createTables(SQLiteDatabase db) {
         db.execSQL(CategoryTable.CREATE);
         db.execSQL(QuizTable.CREATE);
-        preFillDatabase(db);
+        db.execSQL(ContentTable.CREATE);
+        db.execSQL(PlayerTable.CREATE);
+        db.execSQL(CategoryProgressTable.CREATE);
+        db.execSQL(QuizProgressTable.CREATE);
+        createIndexes(db);
+        createScores(db);
+        createSearch(db);
+    }
+
+    private static void createIndexes(SQLiteDatabase db) {
+        db.execSQL(QuizTable.CREATE_INDEX);
+        db.execSQL(CategoryProgressTable.CREATE_INDEX);
+        db.execSQL(QuizProgressTable.CREATE_INDEX);
+    }
+
+    /**
+     * Creates the score table along with the triggers that keep it and the players' total
+     * scores in sync with the quiz progress.
+     */
+    private static void createScores(SQLiteDatabase db) {
+        db.execSQL(ScoreTable.CREATE);
+        db.execSQL(ScoreTable.CREATE_INDEX);
+        db.execSQL(PlayerTable.CREATE_INDEX);
+        for (String trigger : ScoreTable.CREATE_TRIGGERS) {
+            db.execSQL(trigger);
+        }
+    }
+
+    /**
+     * Creates the search index along with the triggers that keep it in sync with the content.
+     */
+    private static void createSearch(SQLiteDatabase db) {
+        db.execSQL(SearchTable.CREATE);
+        for (String trigger : SearchTable.CREATE_TRIGGERS) {
+            db.execSQL(trigger);
+        }
     }
 
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
-        /* no-op */
+        // existing progress belongs to the signed in player
+        upgrade(db, oldVersion, PreferencesHelper.getPlayer(mContext));
+    }
+
+    /**
+     * Upgrades a database to the current version.
+     *
+     * @param oldVersion The version of the database.
+     * @param player The player to assign progress of databases before version 4 to.
+     */
+    @VisibleForTesting
+    static void upgrade(SQLiteDatabase db, int oldVersion, @Nullable Player player) {
+        if (oldVersion < 2) {
+            // databases before version 2 contain the bundled content
+            db.execSQL(ContentTable.CREATE);
+            ContentDelta.setVersion(db, ContentDelta.BUNDLED_VERSION);
+        }
+        if (oldVersion < 4) {
+            db.execSQL(PlayerTable.CREATE);
+            final long playerId = player == null ? NO_PLAYER : getOrCreatePlayerId(db, player);
+            if (oldVersion < 3) {
+                migrateProgress(db, playerId);
+            } else {
+                addPlayerToProgress(db, playerId);
+            }
+            createIndexes(db);
+        }
+        if (oldVersion < 5) {
+            if (oldVersion == 4) {
+                // the player table created above already has a total score
+                db.execSQL("ALTER TABLE " + PlayerTable.NAME + " ADD COLUMN "
+                        + PlayerTable.COLUMN_TOTAL_SCORE + " INTEGER NOT NULL DEFAULT 0");
+            }
+            createScores(db);
+            aggregateScores(db);
+        }
+        if (oldVersion < 6) {
+            createSearch(db);
+            db.execSQL("INSERT INTO " + SearchTable.NAME + " (" + SearchTable.COLUMN_DOCID + ", "
+                    + SearchTable.COLUMN_QUESTION + ", " + SearchTable.COLUMN_OPTIONS + ", "
+                    + SearchTable.COLUMN_CATEGORY + ") SELECT " + QuizTable.NAME + "."
+                    + QuizTable.COLUMN_ID + ", " + QuizTable.COLUMN_QUESTION + ", "
+                    + QuizTable.COLUMN_OPTIONS + ", " + CategoryTable.COLUMN_NAME + " FROM "
+                    + QuizTable.NAME + " JOIN " + CategoryTable.NAME + " ON "
+                    + QuizTable.FK_CATEGORY + "=" + CategoryTable.NAME + "."
+                    + CategoryTable.COLUMN_ID);
+        }
+        if (oldVersion < 7 && oldVersion >= 3) {
+            // older quiz tables have been recreated with the tolerance above
+            db.execSQL("ALTER TABLE " + QuizTable.NAME + " ADD COLUMN "
+                    + QuizTable.COLUMN_TOLERANCE + " INTEGER");
+        }
+    }
+
+    /**
+     * Sums up the progress of database version 4 into the scores.
+     */
+    private static void aggregateScores(SQLiteDatabase db) {
+        db.execSQL("INSERT INTO " + ScoreTable.NAME + " (" + ScoreTable.FK_PLAYER + ", "
+                + ScoreTable.FK_CATEGORY + ", " + ScoreTable.COLUMN_SCORE + ") SELECT "
+                + QuizProgressTable.FK_PLAYER + ", " + QuizTable.FK_CATEGORY + ", SUM("
+                + QuizProgressTable.COLUMN_SCORE + ") FROM " + QuizProgressTable.NAME + " JOIN "
+                + QuizTable.NAME + " ON " + QuizProgressTable.FK_QUIZ + "=" + QuizTable.NAME
+                + "." + QuizTable.COLUMN_ID + " GROUP BY " + QuizProgressTable.FK_PLAYER + ", "
+                + QuizTable.FK_CATEGORY);
+        db.execSQL("UPDATE " + PlayerTable.NAME + " SET " + PlayerTable.COLUMN_TOTAL_SCORE
+                + "=(SELECT IFNULL(SUM(" + ScoreTable.COLUMN_SCORE + "), 0) FROM "
+                + ScoreTable.NAME + " WHERE " + ScoreTable.FK_PLAYER + "=" + PlayerTable.NAME
+                + "." + PlayerTable.COLUMN_ID + ")");
+    }
+
+    /**
+     * Assigns the progress of database version 3 to a player.
+     */
+    private static void addPlayerToProgress(SQLiteDatabase db, long playerId) {
+        final String[][] tables = {
+                {CategoryProgressTable.NAME, CategoryProgressTable.CREATE,
+                        CategoryProgressTable.FK_CATEGORY + ", "
+                                + CategoryProgressTable.COLUMN_SOLVED},
+                {QuizProgressTable.NAME, QuizProgressTable.CREATE,
+                        QuizProgressTable.FK_QUIZ + ", " + QuizProgressTable.COLUMN_SOLVED
+                                + ", " + QuizProgressTable.COLUMN_SCORE}};
+        for (String[] table : tables) {
+            final String oldName = table[0] + "_old";
+            db.execSQL("ALTER TABLE " + table[0] + " RENAME TO " + oldName);
+            db.execSQL(table[1]);
+            // both progress tables share the player column's name
+            db.execSQL("INSERT INTO " + table[0] + " (" + QuizProgressTable.FK_PLAYER + ", "
+                    + table[2] + ") SELECT " + playerId + ", " + table[2] + " FROM " + oldName);
+            db.execSQL("DROP TABLE " + oldName);
+        }
     }
 
-    private void preFillDatabase(SQLiteDatabase db) {
+    /**
+     * Moves progress out of the content tables into the progress tables.
+     * The content tables are rebuilt without their progress columns first, so the progress
+     * tables don't end up referencing the renamed tables.
+     */
+    private static void migrateProgress(SQLiteDatabase db, long playerId) {
+        final String oldCategoryTable = renameAndCopy(db, CategoryTable.NAME,
+                CategoryTable.CREATE, CategoryTable.PROJECTION);
+        final String oldQuizTable = renameAndCopy(db, QuizTable.NAME,
+                QuizTable.CREATE, QUIZ_COLUMNS_V2);
+        db.execSQL(CategoryProgressTable.CREATE);
+        db.execSQL(QuizProgressTable.CREATE);
+
+        // progress columns as of database version 2
+        final String solvedColumn = "solved";
+        final String scoresColumn = "scores";
+        ContentValues values = new ContentValues();
+        final Cursor categories = CursorTracker.track(db.query(oldCategoryTable,
+                new String[]{CategoryTable.COLUMN_ID, solvedColumn, scoresColumn},
+                null, null, null, null, null));
         try {
-            db.beginTransaction();
+            while (categories.moveToNext()) {
+                final String categoryId = categories.getString(0);
+                if (getBooleanFromDatabase(categories.getString(1))) {
+                    values.clear();
+                    values.put(CategoryProgressTable.FK_PLAYER, playerId);
+                    values.put(CategoryProgressTable.FK_CATEGORY, categoryId);
+                    values.put(CategoryProgressTable.COLUMN_SOLVED, true);
+                    db.insert(CategoryProgressTable.NAME, null, values);
+                }
+                final int[] scores = JsonHelper.jsonArrayToIntArray(categories.getString(2));
+                // scores have been stored by position in the order of the quiz rows
+                final Cursor quizzes = CursorTracker.track(db.query(oldQuizTable,
+                        new String[]{QuizTable.COLUMN_ID, solvedColumn},
+                        QuizTable.FK_CATEGORY + "=?", new String[]{categoryId},
+                        null, null, QuizTable.COLUMN_ID));
+                try {
+                    while (quizzes.moveToNext()) {
+                        if (!getBooleanFromDatabase(quizzes.getString(1))) {
+                            continue;
+                        }
+                        final int position = quizzes.getPosition();
+                        values.clear();
+                        values.put(QuizProgressTable.FK_PLAYER, playerId);
+                        values.put(QuizProgressTable.FK_QUIZ, quizzes.getLong(0));
+                        values.put(QuizProgressTable.COLUMN_SOLVED, true);
+                        values.put(QuizProgressTable.COLUMN_SCORE,
+                                position < scores.length ? scores[position] : 0);
+                        db.insert(QuizProgressTable.NAME, null, values);
+                    }
+                } finally {
+                    quizzes.close();
+                }
+            }
+        } finally {
+            categories.close();
+        }
+        db.execSQL("DROP TABLE " + oldQuizTable);
+        db.execSQL("DROP TABLE " + oldCategoryTable);
+    }
+
+    /**
+     * Renames a table and copies the given columns into a newly created one.
+     *
+     * @return The new name of the old table.
+     */
+    private static String renameAndCopy(SQLiteDatabase db, String name, String create,
+                                        String[] columns) {
+        final String oldName = name + "_old";
+        final String columnList = TextUtils.join(", ", columns);
+        db.execSQL("ALTER TABLE " + name + " RENAME TO " + oldName);
+        db.execSQL(create);
+        db.execSQL("INSERT INTO " + name + " (" + columnList + ") SELECT " + columnList
+                + " FROM " + oldName);
+        return oldName;
+    }
+
+    /**
+     * Fills the database with the content bundled in <code>res/raw/categories.json</code>
+     * and sets the content version accordingly.
+     *
+     * @return The number of inserted rows.
+     */
+    private int preFillDatabase(SQLiteDatabase db) {
+        StartupTracer.beginSection(StartupTracer.SECTION_PRE_FILL);
+        final long start = DatabaseMetrics.begin();
+        int rows = 0;
+        try {
+            db.beginTransactionNonExclusive();
             try {
-                fillCategoriesAndQuizzes(db);
+                rows = fillCategoriesAndQuizzes(db, readCategoriesFromResources());
+                ContentDelta.setVersion(db, ContentDelta.BUNDLED_VERSION);
                 db.setTransactionSuccessful();
             } finally {
                 db.endTransaction();
             }
         } catch (IOException | JSONException e) {
             Log.e(TAG, "preFillDatabase", e);
+        } finally {
+            DatabaseMetrics.end(DatabaseMetrics.Operation.PRE_FILL, start, rows);
+            StartupTracer.endSection(StartupTracer.SECTION_PRE_FILL);
         }
+        return rows;
     }
 
-    private void fillCategoriesAndQuizzes(SQLiteDatabase db) throws JSONException, IOException {
+    /**
+     * Inserts categories and their quizzes into a database.
+     *
+     * @param db The database to fill.
+     * @param categoriesJson Content in the format of <code>res/raw/categories.json</code>.
+     * @return The number of inserted rows.
+     * @throws JSONException If the content can't be parsed.
+     */
+    @VisibleForTesting
+    static int fillCategoriesAndQuizzes(SQLiteDatabase db, String categoriesJson)
+            throws JSONException {
         ContentValues values = new ContentValues(); // reduce, reuse
-        JSONArray jsonArray = new JSONArray(readCategoriesFromResources());
+        JSONArray jsonArray = new JSONArray(categoriesJson);
         JSONObject category;
+        int rows = 0;
         for (int i = 0; i < jsonArray.length(); i++) {
             category = jsonArray.getJSONObject(i);
             final String categoryId = category.getString(JsonAttributes.ID);
             fillCategory(db, values, category, categoryId);
             final JSONArray quizzes = category.getJSONArray(JsonAttributes.QUIZZES);
             fillQuizzesForCategory(db, values, quizzes, categoryId);
+            rows += 1 + quizzes.length();
         }
+        return rows;
     }
 
     private String readCategoriesFromResources() throws IOException {
         StringBuilder categoriesJson = new StringBuilder();
-        InputStream rawCategories = mResources.openRawResource(R.raw.categories);
+        InputStream rawCategories = mContext.getResources().openRawResource(R.raw.categories);
         BufferedReader reader = new BufferedReader(new InputStreamReader(rawCategories));
         String line;
 
@@ -439,37 +1349,50 @@ public class TopekaDatabaseHelper extends SQLiteOpenHelper {
         return categoriesJson.toString();
     }
 
-    private void fillCategory(SQLiteDatabase db, ContentValues values, JSONObject category,
-                              String categoryId) throws JSONException {
+    private static void fillCategory(SQLiteDatabase db, ContentValues values,
+                                     JSONObject category, String categoryId)
+            throws JSONException {
         values.clear();
         values.put(CategoryTable.COLUMN_ID, categoryId);
         values.put(CategoryTable.COLUMN_NAME, category.getString(JsonAttributes.NAME));
         values.put(CategoryTable.COLUMN_THEME, category.getString(JsonAttributes.THEME));
-        values.put(CategoryTable.COLUMN_SOLVED, category.getString(JsonAttributes.SOLVED));
-        values.put(CategoryTable.COLUMN_SCORES, category.getString(JsonAttributes.SCORES));
         db.insert(CategoryTable.NAME, null, values);
     }
 
-    private void fillQuizzesForCategory(SQLiteDatabase db, ContentValues values, JSONArray quizzes,
-                                        String categoryId) throws JSONException {
-        JSONObject quiz;
+    private static void fillQuizzesForCategory(SQLiteDatabase db, ContentValues values,
+                                               JSONArray quizzes, String categoryId)
+            throws JSONException {
         for (int i = 0; i < quizzes.length(); i++) {
-            quiz = quizzes.getJSONObject(i);
-            values.clear();
-            values.put(QuizTable.FK_CATEGORY, categoryId);
-            values.put(QuizTable.COLUMN_TYPE, quiz.getString(JsonAttributes.TYPE));
-            values.put(QuizTable.COLUMN_QUESTION, quiz.getString(JsonAttributes.QUESTION));
-            values.put(QuizTable.COLUMN_ANSWER, quiz.getString(JsonAttributes.ANSWER));
-            putNonEmptyString(values, quiz, JsonAttributes.OPTIONS, QuizTable.COLUMN_OPTIONS);
-            putNonEmptyString(values, quiz, JsonAttributes.MIN, QuizTable.COLUMN_MIN);
-            putNonEmptyString(values, quiz, JsonAttributes.MAX, QuizTable.COLUMN_MAX);
-            putNonEmptyString(values, quiz, JsonAttributes.START, QuizTable.COLUMN_START);
-            putNonEmptyString(values, quiz, JsonAttributes.END, QuizTable.COLUMN_END);
-            putNonEmptyString(values, quiz, JsonAttributes.STEP, QuizTable.COLUMN_STEP);
+            putQuiz(values, quizzes.getJSONObject(i), categoryId);
             db.insert(QuizTable.NAME, null, values);
         }
     }
 
+    /**
+     * Puts a quiz's content to ContentValues provided. Optional values that are not present
+     * are not put.
+     *
+     * @param values The place where the data should be put, will be cleared first.
+     * @param quiz The quiz to put.
+     * @param categoryId The id of the category containing the quiz.
+     * @throws JSONException If a required value is missing.
+     */
+    static void putQuiz(ContentValues values, JSONObject quiz, String categoryId)
+            throws JSONException {
+        values.clear();
+        values.put(QuizTable.FK_CATEGORY, categoryId);
+        values.put(QuizTable.COLUMN_TYPE, quiz.getString(JsonAttributes.TYPE));
+        values.put(QuizTable.COLUMN_QUESTION, quiz.getString(JsonAttributes.QUESTION));
+        values.put(QuizTable.COLUMN_ANSWER, quiz.getString(JsonAttributes.ANSWER));
+        putNonEmptyString(values, quiz, JsonAttributes.OPTIONS, QuizTable.COLUMN_OPTIONS);
+        putNonEmptyString(values, quiz, JsonAttributes.MIN, QuizTable.COLUMN_MIN);
+        putNonEmptyString(values, quiz, JsonAttributes.MAX, QuizTable.COLUMN_MAX);
+        putNonEmptyString(values, quiz, JsonAttributes.START, QuizTable.COLUMN_START);
+        putNonEmptyString(values, quiz, JsonAttributes.END, QuizTable.COLUMN_END);
+        putNonEmptyString(values, quiz, JsonAttributes.STEP, QuizTable.COLUMN_STEP);
+        putNonEmptyString(values, quiz, JsonAttributes.TOLERANCE, QuizTable.COLUMN_TOLERANCE);
+    }
+
     /**
      * Puts a non-empty string to ContentValues provided.
      *
@@ -478,12 +1401,29 @@ public class TopekaDatabaseHelper extends SQLiteOpenHelper {
      * @param jsonKey The key to look for.
      * @param contentKey The key use for placing the data in the database.
      */
-    private void putNonEmptyString(ContentValues values, JSONObject quiz, String jsonKey,
-                                   String contentKey) {
+    private static void putNonEmptyString(ContentValues values, JSONObject quiz,
+                                          String jsonKey, String contentKey) {
         final String stringToPut = quiz.optString(jsonKey, null);
         if (!TextUtils.isEmpty(stringToPut)) {
             values.put(contentKey, stringToPut);
         }
     }
 
+    /**
+     * A category's row, read before its quizzes are queried.
+     */
+    private static final class CategoryRow {
+
+        private final String mId;
+        private final String mName;
+        private final Theme mTheme;
+        private final boolean mSolved;
+
+        CategoryRow(String id, String name, Theme theme, boolean solved) {
+            mId = id;
+            mName = name;
+            mTheme = theme;
+            mSolved = solved;
+        }
+    }
 }
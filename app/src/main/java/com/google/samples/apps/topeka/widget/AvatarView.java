@@ -19,22 +19,23 @@ package com.google.samples.apps.topeka.widget;
 import android.annotation.SuppressLint;
 import android.content.Context;
 import android.content.res.TypedArray;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
-import android.graphics.drawable.BitmapDrawable;
 import android.graphics.drawable.Drawable;
 import android.os.Build;
 import android.support.annotation.DrawableRes;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.support.v4.content.ContextCompat;
-import android.support.v4.content.res.ResourcesCompat;
-import android.support.v4.graphics.drawable.RoundedBitmapDrawable;
-import android.support.v4.graphics.drawable.RoundedBitmapDrawableFactory;
 import android.util.AttributeSet;
+import android.view.ViewGroup;
 import android.widget.Checkable;
 import android.widget.ImageView;
 
 import com.google.samples.apps.topeka.R;
 import com.google.samples.apps.topeka.helper.ApiLevelHelper;
+import com.google.samples.apps.topeka.helper.BitmapCache;
+import com.google.samples.apps.topeka.model.Avatar;
 import com.google.samples.apps.topeka.widget.outlineprovider.RoundOutlineProvider;
 
 /**
@@ -44,6 +45,11 @@ public class AvatarView extends ImageView implements Checkable {
 
     private boolean mChecked;
     private static final int NOT_FOUND = 0;
+    private final Drawable mCheckedBorder;
+    private final Drawable mPlaceholder;
+    private int mAvatarResId = NOT_FOUND;
+    private int mAvatarSize;
+    private BitmapCache.OnBitmapLoadedListener mAvatarListener;
 
     public AvatarView(Context context) {
         this(context, null);
@@ -55,6 +61,8 @@ public class AvatarView extends ImageView implements Checkable {
 
     public AvatarView(Context context, AttributeSet attrs, int defStyle) {
         super(context, attrs, defStyle);
+        mCheckedBorder = ContextCompat.getDrawable(context, R.drawable.selector_avatar);
+        mPlaceholder = ContextCompat.getDrawable(context, R.drawable.placeholder_avatar);
         TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.AvatarView, defStyle, 0);
         try {
             final int avatarDrawableId = a.getResourceId(R.styleable.AvatarView_avatar, NOT_FOUND);
@@ -85,36 +93,80 @@ public class AvatarView extends ImageView implements Checkable {
     /**
      * Set the image for this avatar. Will be used to create a round version of this avatar.
      *
-     * @param resId The image's resource id.
+     * @param avatar The avatar to display.
+     */
+    public void setAvatar(@NonNull Avatar avatar) {
+        setAvatar(avatar.getRasterDrawableId());
+    }
+
+    /**
+     * Set the image for this avatar. Will be used to create a round version of this avatar.
+     * The image is decoded at the size of this view, so loading is deferred until the size is
+     * known. A placeholder is shown until the image is loaded.
+     *
+     * @param resId The image's resource id. Plain bitmaps can be decoded most efficiently.
      */
     @SuppressLint("NewApi")
     public void setAvatar(@DrawableRes int resId) {
         if (ApiLevelHelper.isAtLeast(Build.VERSION_CODES.LOLLIPOP)) {
             setClipToOutline(true);
-            setImageResource(resId);
-        } else {
-            setAvatarPreLollipop(resId);
         }
+        if (resId != mAvatarResId) {
+            mAvatarListener = null;
+            setImageDrawable(mPlaceholder);
+        }
+        mAvatarResId = resId;
+        mAvatarSize = 0;
+        loadAvatar(getTargetSize());
     }
 
-    private void setAvatarPreLollipop(@DrawableRes int resId) {
-        Drawable drawable = ResourcesCompat.getDrawable(getResources(), resId,
-                getContext().getTheme());
-        BitmapDrawable bitmapDrawable = (BitmapDrawable) drawable;
-        @SuppressWarnings("ConstantConditions")
-        RoundedBitmapDrawable roundedDrawable = RoundedBitmapDrawableFactory.create(getResources(),
-                bitmapDrawable.getBitmap());
-        roundedDrawable.setCircular(true);
-        setImageDrawable(roundedDrawable);
+    /**
+     * Loads the round avatar image from the shared cache. Cached images are set right away,
+     * others are created in the background while the current image stays in place.
+     *
+     * @param size The size to load the avatar in.
+     */
+    private void loadAvatar(int size) {
+        if (mAvatarResId == NOT_FOUND || size <= 0 || size == mAvatarSize) {
+            return;
+        }
+        mAvatarSize = size;
+        mAvatarListener = new BitmapCache.OnBitmapLoadedListener() {
+            @Override
+            public void onBitmapLoaded(@Nullable Bitmap bitmap) {
+                // Views are recycled, so results of outdated requests are dropped.
+                if (mAvatarListener != this) {
+                    return;
+                }
+                mAvatarListener = null;
+                if (bitmap != null) {
+                    setImageBitmap(bitmap);
+                }
+            }
+        };
+        BitmapCache.loadRoundedBitmap(getResources(), mAvatarResId, size, mAvatarListener);
+    }
+
+    /**
+     * @return The size of this view if known yet, otherwise the size requested via
+     * layout params. <code>0</code> if neither is available.
+     */
+    private int getTargetSize() {
+        if (getWidth() > 0 && getHeight() > 0) {
+            return Math.min(getWidth(), getHeight());
+        }
+        final ViewGroup.LayoutParams params = getLayoutParams();
+        if (params != null && params.width > 0 && params.height > 0) {
+            return Math.min(params.width, params.height);
+        }
+        return 0;
     }
 
     @Override
     protected void onDraw(@NonNull Canvas canvas) {
         super.onDraw(canvas);
         if (mChecked) {
-            Drawable border = ContextCompat.getDrawable(getContext(), R.drawable.selector_avatar);
-            border.setBounds(0, 0, getWidth(), getHeight());
-            border.draw(canvas);
+            mCheckedBorder.draw(canvas);
         }
     }
 
@@ -122,6 +174,10 @@ public class AvatarView extends ImageView implements Checkable {
     @SuppressLint("NewApi")
     protected void onSizeChanged(int w, int h, int oldw, int oldh) {
         super.onSizeChanged(w, h, oldw, oldh);
+        mCheckedBorder.setBounds(0, 0, w, h);
+        if (w > 0 && h > 0) {
+            loadAvatar(Math.min(w, h));
+        }
         if (ApiLevelHelper.isLowerThan(Build.VERSION_CODES.LOLLIPOP)) {
             return;
         }
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2015 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.samples.apps.topeka.widget;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ValueAnimator;
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.content.res.ColorStateList;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.drawable.BitmapDrawable;
+import android.os.Build;
+import android.support.annotation.Nullable;
+import android.support.v4.view.ViewCompat;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.transition.Transition;
+import android.transition.TransitionValues;
+import android.util.AttributeSet;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+/**
+ * A transition that resizes text of a TextView by scaling a snapshot of the text.
+ * <p>
+ * Other than animating the text size and padding this does not change the TextView while
+ * running. The text is drawn once into a bitmap at its end size, which then is
+ * scaled and moved within the TextView's overlay. The TextView's own text is hidden until the
+ * transition ends, so no layout pass is required per frame.
+ * </p>
+ */
+@TargetApi(Build.VERSION_CODES.LOLLIPOP)
+public class TextSnapshotTransition extends Transition {
+
+    private static final String PROPERTY_NAME_TEXT_RESIZE =
+            "com.google.samples.apps.topeka.widget:TextSnapshotTransition:textSize";
+    private static final String PROPERTY_NAME_PADDING_RESIZE =
+            "com.google.samples.apps.topeka.widget:TextSnapshotTransition:paddingStart";
+
+    private static final String[] TRANSITION_PROPERTIES = {PROPERTY_NAME_TEXT_RESIZE,
+            PROPERTY_NAME_PADDING_RESIZE};
+
+    public TextSnapshotTransition(Context context, AttributeSet attrs) {
+        super(context, attrs);
+    }
+
+    @Override
+    public void captureStartValues(TransitionValues transitionValues) {
+        captureValues(transitionValues);
+    }
+
+    @Override
+    public void captureEndValues(TransitionValues transitionValues) {
+        captureValues(transitionValues);
+    }
+
+    private void captureValues(TransitionValues transitionValues) {
+        if (!(transitionValues.view instanceof TextView)) {
+            // only text is resized, other views are left to other transitions
+            return;
+        }
+        TextView view = (TextView) transitionValues.view;
+        transitionValues.values.put(PROPERTY_NAME_TEXT_RESIZE, view.getTextSize());
+        transitionValues.values.put(PROPERTY_NAME_PADDING_RESIZE,
+                ViewCompat.getPaddingStart(view));
+    }
+
+    @Override
+    public String[] getTransitionProperties() {
+        return TRANSITION_PROPERTIES;
+    }
+
+    @Override
+    public Animator createAnimator(ViewGroup sceneRoot, TransitionValues startValues,
+                                   TransitionValues endValues) {
+        if (startValues == null || endValues == null
+                || !startValues.values.containsKey(PROPERTY_NAME_TEXT_RESIZE)
+                || !endValues.values.containsKey(PROPERTY_NAME_TEXT_RESIZE)) {
+            return null;
+        }
+        final TextView targetView = (TextView) endValues.view;
+        final Bitmap snapshot = createTextSnapshot(targetView);
+        if (snapshot == null) {
+            return null;
+        }
+
+        float initialTextSize = (float) startValues.values.get(PROPERTY_NAME_TEXT_RESIZE);
+        float targetTextSize = (float) endValues.values.get(PROPERTY_NAME_TEXT_RESIZE);
+        int initialPaddingStart = (int) startValues.values.get(PROPERTY_NAME_PADDING_RESIZE);
+        int targetPaddingStart = (int) endValues.values.get(PROPERTY_NAME_PADDING_RESIZE);
+
+        final BitmapDrawable snapshotDrawable =
+                new BitmapDrawable(targetView.getResources(), snapshot);
+        final ColorStateList textColors = targetView.getTextColors();
+        final SnapshotBounds bounds = new SnapshotBounds(targetView, snapshot,
+                initialTextSize / targetTextSize, initialPaddingStart - targetPaddingStart);
+
+        ValueAnimator animator = ValueAnimator.ofFloat(0f, 1f);
+        animator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
+            @Override
+            public void onAnimationUpdate(ValueAnimator animation) {
+                bounds.apply(snapshotDrawable, animation.getAnimatedFraction());
+            }
+        });
+        animator.addListener(new AnimatorListenerAdapter() {
+            @Override
+            public void onAnimationStart(Animator animation) {
+                bounds.apply(snapshotDrawable, 0f);
+                targetView.getOverlay().add(snapshotDrawable);
+                // Changing the color only invalidates the view, the layout stays untouched.
+                targetView.setTextColor(Color.TRANSPARENT);
+            }
+
+            @Override
+            public void onAnimationEnd(Animator animation) {
+                // Swap the real text back in.
+                targetView.getOverlay().remove(snapshotDrawable);
+                targetView.setTextColor(textColors);
+                snapshot.recycle();
+            }
+        });
+        return animator;
+    }
+
+    /**
+     * Draws the text of a TextView, without its background, to a bitmap.
+     * The text is laid out with its own paint, so the TextView's paint stays untouched.
+     *
+     * @param view The view to take the text from.
+     * @return The snapshot or <code>null</code> if the view has no text to draw.
+     */
+    @Nullable
+    private static Bitmap createTextSnapshot(TextView view) {
+        final Layout viewLayout = view.getLayout();
+        if (viewLayout == null || viewLayout.getLineCount() == 0) {
+            return null;
+        }
+        final TextPaint paint = new TextPaint(view.getPaint());
+        paint.setColor(view.getCurrentTextColor());
+        final Layout layout = new StaticLayout(viewLayout.getText(), paint,
+                viewLayout.getWidth(), viewLayout.getAlignment(),
+                view.getLineSpacingMultiplier(), view.getLineSpacingExtra(),
+                view.getIncludeFontPadding());
+        final int width = (int) Math.ceil(getTextRight(layout) - getTextLeft(layout));
+        final int height = layout.getHeight();
+        if (width <= 0 || height <= 0) {
+            return null;
+        }
+        Bitmap snapshot = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        final Canvas canvas = new Canvas(snapshot);
+        canvas.translate(-getTextLeft(layout), 0);
+        layout.draw(canvas);
+        return snapshot;
+    }
+
+    private static float getTextLeft(Layout layout) {
+        float textLeft = layout.getWidth();
+        for (int i = 0; i < layout.getLineCount(); i++) {
+            textLeft = Math.min(textLeft, layout.getLineLeft(i));
+        }
+        return textLeft;
+    }
+
+    private static float getTextRight(Layout layout) {
+        float textRight = 0;
+        for (int i = 0; i < layout.getLineCount(); i++) {
+            textRight = Math.max(textRight, layout.getLineRight(i));
+        }
+        return textRight;
+    }
+
+    /**
+     * Calculates where the snapshot is drawn within the TextView for a given fraction.
+     * The snapshot is anchored at the start of the text, which is on the right for
+     * right-to-left layouts.
+     */
+    private static class SnapshotBounds {
+
+        private final TextView mView;
+        private final boolean mRtl;
+        private final int mTextStartOffset;
+        private final int mWidth;
+        private final int mHeight;
+        private final float mStartScale;
+        private final int mPaddingStartDelta;
+
+        SnapshotBounds(TextView view, Bitmap snapshot, float startScale, int paddingStartDelta) {
+            mView = view;
+            mRtl = view.getLayoutDirection() == View.LAYOUT_DIRECTION_RTL;
+            final Layout layout = view.getLayout();
+            // distance between the start of the text and the start of its layout
+            mTextStartOffset = Math.round(mRtl ? layout.getWidth() - getTextRight(layout)
+                    : getTextLeft(layout));
+            mWidth = snapshot.getWidth();
+            mHeight = snapshot.getHeight();
+            mStartScale = startScale;
+            mPaddingStartDelta = paddingStartDelta;
+        }
+
+        void apply(BitmapDrawable drawable, float fraction) {
+            final float scale = mStartScale + (1f - mStartScale) * fraction;
+            final int start = mView.getTotalPaddingStart() + mTextStartOffset
+                    + Math.round(mPaddingStartDelta * (1f - fraction));
+            final int scaledWidth = Math.round(mWidth * scale);
+            final int left = mRtl ? mView.getWidth() - start - scaledWidth : start;
+            // The view's bounds might be animated, so keep the text where gravity would put it.
+            final int centerY = mView.getTotalPaddingTop() + mHeight / 2;
+            final int halfHeight = Math.round(mHeight * scale / 2);
+            drawable.setBounds(left,
+                    centerY - halfHeight,
+                    left + scaledWidth,
+                    centerY + halfHeight);
+            drawable.invalidateSelf();
+        }
+    }
+}
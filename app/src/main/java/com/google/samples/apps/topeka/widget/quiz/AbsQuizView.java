@@ -16,20 +16,17 @@
 
 package com.google.samples.apps.topeka.widget.quiz;
 
-import android.animation.ArgbEvaluator;
-import android.animation.ObjectAnimator;
 import android.annotation.SuppressLint;
 import android.content.Context;
 import android.content.res.ColorStateList;
-import android.graphics.Color;
 import android.os.Build;
 import android.os.Bundle;
 import android.os.Handler;
 import android.support.annotation.ColorInt;
 import android.support.v4.content.ContextCompat;
 import android.support.v4.view.MarginLayoutParamsCompat;
+import android.support.v4.view.ViewCompat;
 import android.support.v4.view.animation.LinearOutSlowInInterpolator;
-import android.util.Property;
 import android.view.Gravity;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -43,7 +40,7 @@ import android.widget.TextView;
 import com.google.samples.apps.topeka.R;
 import com.google.samples.apps.topeka.activity.QuizActivity;
 import com.google.samples.apps.topeka.helper.ApiLevelHelper;
-import com.google.samples.apps.topeka.helper.ViewUtils;
+import com.google.samples.apps.topeka.helper.FrameMetricsCollector;
 import com.google.samples.apps.topeka.model.Category;
 import com.google.samples.apps.topeka.model.quiz.Quiz;
 import com.google.samples.apps.topeka.widget.fab.CheckableFab;
@@ -66,6 +63,7 @@ public abstract class AbsQuizView<Q extends Quiz> extends FrameLayout {
 
     private static final int ANSWER_HIDE_DELAY = 500;
     private static final int FOREGROUND_COLOR_CHANGE_DELAY = 750;
+    private static final int RESIZE_DELAY = FOREGROUND_COLOR_CHANGE_DELAY + 200;
     private final int mSpacingDouble;
     private final LayoutInflater mLayoutInflater;
     private final Category mCategory;
@@ -76,6 +74,7 @@ public abstract class AbsQuizView<Q extends Quiz> extends FrameLayout {
     private boolean mAnswered;
     private TextView mQuestionView;
     private CheckableFab mSubmitAnswer;
+    private View mScoreOverlay;
     private Runnable mHideFabRunnable;
     private Runnable mMoveOffScreenRunnable;
 
@@ -110,6 +109,7 @@ public abstract class AbsQuizView<Q extends Quiz> extends FrameLayout {
                                        int oldTop, int oldRight, int oldBottom) {
                 removeOnLayoutChangeListener(this);
                 addFloatingActionButton();
+                addScoreOverlay();
             }
         });
     }
@@ -169,6 +169,23 @@ public abstract class AbsQuizView<Q extends Quiz> extends FrameLayout {
         addView(mSubmitAnswer, fabLayoutParams);
     }
 
+    private void addScoreOverlay() {
+        addView(getScoreOverlay(), new LayoutParams(LayoutParams.MATCH_PARENT,
+                LayoutParams.MATCH_PARENT));
+    }
+
+    /**
+     * The overlay covers all content once the answer has been submitted.
+     * Only its alpha gets animated, so no redraw of the underlying content is required.
+     */
+    private View getScoreOverlay() {
+        if (null == mScoreOverlay) {
+            mScoreOverlay = new View(getContext());
+            mScoreOverlay.setVisibility(INVISIBLE);
+        }
+        return mScoreOverlay;
+    }
+
     private CheckableFab getSubmitButton() {
         if (null == mSubmitAnswer) {
             mSubmitAnswer = (CheckableFab) getLayoutInflater()
@@ -276,20 +293,27 @@ public abstract class AbsQuizView<Q extends Quiz> extends FrameLayout {
 
     /**
      * Animates the view nicely when the answer has been submitted.
+     * <p>
+     * All animations run through {@link android.view.ViewPropertyAnimator}s. The resize runs on
+     * a hardware layer, so only layer properties change per frame and the view's content
+     * does not have to be redrawn while the score is being written.
+     * </p>
      *
      * @param answerCorrect <code>true</code> if the answer was correct, else <code>false</code>.
      */
     private void performScoreAnimation(final boolean answerCorrect) {
         ((QuizActivity) getContext()).lockIdlingResource();
+        FrameMetricsCollector.begin(FrameMetricsCollector.SCREEN_QUIZ,
+                FrameMetricsCollector.INTERACTION_ANSWER);
         // Decide which background color to use.
         final int backgroundColor = ContextCompat.getColor(getContext(),
                 answerCorrect ? R.color.green : R.color.red);
         adjustFab(answerCorrect, backgroundColor);
         resizeView();
         moveViewOffScreen(answerCorrect);
-        // Animate the foreground color to match the background color.
-        // This overlays all content within the current view.
-        animateForegroundColor(backgroundColor);
+        // Fade in an overlay matching the background color.
+        // This covers all content within the current view.
+        animateScoreOverlay(backgroundColor);
     }
 
     @SuppressLint("NewApi")
@@ -307,19 +331,15 @@ public abstract class AbsQuizView<Q extends Quiz> extends FrameLayout {
 
     private void resizeView() {
         final float widthHeightRatio = (float) getHeight() / (float) getWidth();
-        // Animate X and Y scaling separately to allow different start delays.
-        // object animators for x and y with different durations and then run them independently
-        resizeViewProperty(View.SCALE_X, .5f, 200);
-        resizeViewProperty(View.SCALE_Y, .5f / widthHeightRatio, 300);
-    }
-
-    private void resizeViewProperty(Property<View, Float> property,
-                                    float targetScale, int durationOffset) {
-        ObjectAnimator animator = ObjectAnimator.ofFloat(this, property,
-                1f, targetScale);
-        animator.setInterpolator(mLinearOutSlowInInterpolator);
-        animator.setStartDelay(FOREGROUND_COLOR_CHANGE_DELAY + durationOffset);
-        animator.start();
+        // Both axes are scaled by one animator, so its hardware layer is released even if the
+        // animation gets canceled.
+        ViewCompat.animate(this)
+                .scaleX(.5f)
+                .scaleY(.5f / widthHeightRatio)
+                .setInterpolator(mLinearOutSlowInInterpolator)
+                .setStartDelay(RESIZE_DELAY)
+                .withLayer()
+                .start();
     }
 
     @Override
@@ -327,18 +347,29 @@ public abstract class AbsQuizView<Q extends Quiz> extends FrameLayout {
         if (mHideFabRunnable != null) {
             mHandler.removeCallbacks(mHideFabRunnable);
         }
+        // releases the hardware layer of a running resize
+        ViewCompat.animate(this).cancel();
         if (mMoveOffScreenRunnable != null) {
+            // the answer interaction is still pending, so it ends here
             mHandler.removeCallbacks(mMoveOffScreenRunnable);
+            mMoveOffScreenRunnable = null;
+            FrameMetricsCollector.end(FrameMetricsCollector.SCREEN_QUIZ,
+                    FrameMetricsCollector.INTERACTION_ANSWER);
         }
         super.onDetachedFromWindow();
     }
 
-    private void animateForegroundColor(@ColorInt final int targetColor) {
-        ObjectAnimator animator = ObjectAnimator.ofInt(this, ViewUtils.FOREGROUND_COLOR,
-                Color.TRANSPARENT, targetColor);
-        animator.setEvaluator(new ArgbEvaluator());
-        animator.setStartDelay(FOREGROUND_COLOR_CHANGE_DELAY);
-        animator.start();
+    private void animateScoreOverlay(@ColorInt final int targetColor) {
+        final View scoreOverlay = getScoreOverlay();
+        scoreOverlay.setBackgroundColor(targetColor);
+        ViewCompat.setAlpha(scoreOverlay, 0f);
+        scoreOverlay.setVisibility(VISIBLE);
+        // The fade ends before the resize starts, so it never redraws the resized layer.
+        ViewCompat.animate(scoreOverlay)
+                .alpha(1f)
+                .setStartDelay(FOREGROUND_COLOR_CHANGE_DELAY)
+                .setDuration(RESIZE_DELAY - FOREGROUND_COLOR_CHANGE_DELAY)
+                .start();
     }
 
     private void moveViewOffScreen(final boolean answerCorrect) {
@@ -346,6 +377,9 @@ public abstract class AbsQuizView<Q extends Quiz> extends FrameLayout {
         mMoveOffScreenRunnable = new Runnable() {
             @Override
             public void run() {
+                mMoveOffScreenRunnable = null;
+                FrameMetricsCollector.end(FrameMetricsCollector.SCREEN_QUIZ,
+                        FrameMetricsCollector.INTERACTION_ANSWER);
                 mCategory.setScore(getQuiz(), answerCorrect);
                 if (getContext() instanceof QuizActivity) {
                     ((QuizActivity) getContext()).proceed();
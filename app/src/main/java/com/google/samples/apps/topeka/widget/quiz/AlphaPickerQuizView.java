@@ -25,12 +25,10 @@ import android.widget.SeekBar;
 import android.widget.TextView;
 
 import com.google.samples.apps.topeka.R;
+import com.google.samples.apps.topeka.helper.Alphabet;
 import com.google.samples.apps.topeka.model.Category;
 import com.google.samples.apps.topeka.model.quiz.AlphaPickerQuiz;
 
-import java.util.Arrays;
-import java.util.List;
-
 @SuppressLint("ViewConstructor")
 public class AlphaPickerQuizView extends AbsQuizView<AlphaPickerQuiz> {
 
@@ -38,7 +36,8 @@ public class AlphaPickerQuizView extends AbsQuizView<AlphaPickerQuiz> {
 
     private TextView mCurrentSelection;
     private SeekBar mSeekBar;
-    private List<String> mAlphabet;
+    private Alphabet mAlphabet;
+    private int mSelection;
 
     public AlphaPickerQuizView(Context context, Category category, AlphaPickerQuiz quiz) {
         super(context, category, quiz);
@@ -55,6 +54,7 @@ public class AlphaPickerQuizView extends AbsQuizView<AlphaPickerQuiz> {
         mSeekBar.setOnSeekBarChangeListener(new SeekBar.OnSeekBarChangeListener() {
             @Override
             public void onProgressChanged(SeekBar seekBar, int progress, boolean fromUser) {
+                mSelection = progress;
                 mCurrentSelection.setText(getAlphabet().get(progress));
                 allowAnswer();
             }
@@ -74,13 +74,13 @@ public class AlphaPickerQuizView extends AbsQuizView<AlphaPickerQuiz> {
 
     @Override
     protected boolean isAnswerCorrect() {
-        return getQuiz().isAnswerCorrect(mCurrentSelection.getText().toString());
+        return getQuiz().isAnswerCorrect(getAlphabet(), mSelection);
     }
 
     @Override
     public Bundle getUserInput() {
         Bundle bundle = new Bundle();
-        bundle.putString(KEY_SELECTION, mCurrentSelection.getText().toString());
+        bundle.putString(KEY_SELECTION, getAlphabet().get(mSelection));
         return bundle;
     }
 
@@ -89,14 +89,13 @@ public class AlphaPickerQuizView extends AbsQuizView<AlphaPickerQuiz> {
         if (savedInput == null) {
             return;
         }
-        String userInput = savedInput.getString(KEY_SELECTION, getAlphabet().get(0));
-        mSeekBar.setProgress(getAlphabet().indexOf(userInput));
+        final int selection = getAlphabet().indexOf(savedInput.getString(KEY_SELECTION));
+        mSeekBar.setProgress(Math.max(0, selection));
     }
 
-
-    private List<String> getAlphabet() {
+    private Alphabet getAlphabet() {
         if (null == mAlphabet) {
-            mAlphabet = Arrays.asList(getResources().getStringArray(R.array.alphabet));
+            mAlphabet = Alphabet.getInstance(getContext());
         }
         return mAlphabet;
     }
@@ -106,7 +106,7 @@ public class FillBlankQuizView extends TextInputQuizView<FillBlankQuiz> {
     }
 
     @Override
-    protected boolean isAnswerCorrect() {
-        return getQuiz().isAnswerCorrect(mAnswerView.getText().toString());
+    protected boolean isInputCorrect() {
+        return getQuiz().matches(mAnswerView.getText());
     }
 }
@@ -77,13 +77,8 @@ public class FillTwoBlanksQuizView extends TextInputQuizView<FillTwoBlanksQuiz>
     }
 
     @Override
-    protected boolean isAnswerCorrect() {
-        String partOne = getAnswerFrom(mAnswerOne);
-        String partTwo = getAnswerFrom(mAnswerTwo);
-        return getQuiz().isAnswerCorrect(new String[]{partOne, partTwo});
-    }
-
-    private String getAnswerFrom(EditText view) {
-        return view.getText().toString();
+    protected boolean isInputCorrect() {
+        return getQuiz().matches(0, mAnswerOne.getText())
+                && getQuiz().matches(1, mAnswerTwo.getText());
     }
 }
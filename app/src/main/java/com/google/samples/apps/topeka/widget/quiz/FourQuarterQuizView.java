@@ -29,16 +29,19 @@ import com.google.samples.apps.topeka.adapter.OptionsQuizAdapter;
 import com.google.samples.apps.topeka.helper.ApiLevelHelper;
 import com.google.samples.apps.topeka.model.Category;
 import com.google.samples.apps.topeka.model.quiz.FourQuarterQuiz;
+import com.google.samples.apps.topeka.model.quiz.OptionSelection;
 
 @SuppressLint("ViewConstructor")
 public class FourQuarterQuizView extends AbsQuizView<FourQuarterQuiz> {
 
     private static final String KEY_ANSWER = "ANSWER";
     private int mAnswered = -1;
+    private OptionSelection mSelection;
     private GridView mAnswerView;
 
     public FourQuarterQuizView(Context context, Category category, FourQuarterQuiz quiz) {
         super(context, category, quiz);
+        mSelection = quiz.createSelection();
     }
 
     @Override
@@ -53,6 +56,7 @@ public class FourQuarterQuizView extends AbsQuizView<FourQuarterQuiz> {
             public void onItemClick(AdapterView<?> parent, View view, int position, long id) {
                 allowAnswer();
                 mAnswered = position;
+                mSelection.select(position);
             }
         });
         return mAnswerView;
@@ -99,6 +103,6 @@ public class FourQuarterQuizView extends AbsQuizView<FourQuarterQuiz> {
 
     @Override
     protected boolean isAnswerCorrect() {
-        return getQuiz().isAnswerCorrect(new int[]{mAnswered});
+        return getQuiz().isAnswerCorrect(mSelection);
     }
 }
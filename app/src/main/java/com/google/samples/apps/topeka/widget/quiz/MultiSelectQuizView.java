@@ -19,16 +19,15 @@ package com.google.samples.apps.topeka.widget.quiz;
 import android.annotation.SuppressLint;
 import android.content.Context;
 import android.os.Bundle;
-import android.util.SparseBooleanArray;
 import android.view.View;
 import android.widget.AbsListView;
 import android.widget.AdapterView;
 import android.widget.ListView;
 
 import com.google.samples.apps.topeka.adapter.OptionsQuizAdapter;
-import com.google.samples.apps.topeka.helper.AnswerHelper;
 import com.google.samples.apps.topeka.model.Category;
 import com.google.samples.apps.topeka.model.quiz.MultiSelectQuiz;
+import com.google.samples.apps.topeka.model.quiz.OptionSelection;
 
 @SuppressLint("ViewConstructor")
 public class MultiSelectQuizView extends AbsQuizView<MultiSelectQuiz> {
@@ -36,9 +35,11 @@ public class MultiSelectQuizView extends AbsQuizView<MultiSelectQuiz> {
     private static final String KEY_ANSWER = "ANSWER";
 
     private ListView mListView;
+    private OptionSelection mSelection;
 
     public MultiSelectQuizView(Context context, Category category, MultiSelectQuiz quiz) {
         super(context, category, quiz);
+        mSelection = quiz.createSelection();
     }
 
     @Override
@@ -52,6 +53,7 @@ public class MultiSelectQuizView extends AbsQuizView<MultiSelectQuiz> {
         mListView.setOnItemClickListener(new AdapterView.OnItemClickListener() {
             @Override
             public void onItemClick(AdapterView<?> parent, View view, int position, long id) {
+                mSelection.set(position, mListView.isItemChecked(position));
                 allowAnswer();
             }
         });
@@ -60,16 +62,13 @@ public class MultiSelectQuizView extends AbsQuizView<MultiSelectQuiz> {
 
     @Override
     protected boolean isAnswerCorrect() {
-        final SparseBooleanArray checkedItemPositions = mListView.getCheckedItemPositions();
-        final int[] answer = getQuiz().getAnswer();
-        return AnswerHelper.isAnswerCorrect(checkedItemPositions, answer);
+        return getQuiz().isAnswerCorrect(mSelection);
     }
 
     @Override
     public Bundle getUserInput() {
         Bundle bundle = new Bundle();
-        boolean[] bundleableAnswer = getBundleableAnswer();
-        bundle.putBooleanArray(KEY_ANSWER, bundleableAnswer);
+        bundle.putParcelable(KEY_ANSWER, mSelection);
         return bundle;
     }
 
@@ -78,28 +77,14 @@ public class MultiSelectQuizView extends AbsQuizView<MultiSelectQuiz> {
         if (savedInput == null) {
             return;
         }
-        final boolean[] answers = savedInput.getBooleanArray(KEY_ANSWER);
-        if (null == answers) {
+        final OptionSelection selection = savedInput.getParcelable(KEY_ANSWER);
+        if (null == selection) {
             return;
         }
-        for (int i = 0; i < answers.length; i++) {
-            mListView.setItemChecked(i, answers[i]);
+        mSelection = selection;
+        final int optionCount = selection.getOptionCount();
+        for (int i = 0; i < optionCount; i++) {
+            mListView.setItemChecked(i, selection.isSelected(i));
         }
     }
-
-    private boolean[] getBundleableAnswer() {
-        SparseBooleanArray checkedItemPositions = mListView.getCheckedItemPositions();
-        final int answerSize = checkedItemPositions.size();
-        if (0 == answerSize) {
-            return null;
-        }
-        final int optionsSize = getQuiz().getOptions().length;
-        boolean[] bundleableAnswer = new boolean[optionsSize];
-        int key;
-        for (int i = 0; i < answerSize; i++) {
-            key = checkedItemPositions.keyAt(i);
-            bundleableAnswer[key] = checkedItemPositions.valueAt(i);
-        }
-        return bundleableAnswer;
-    }
 }
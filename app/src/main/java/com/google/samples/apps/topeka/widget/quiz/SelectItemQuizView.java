@@ -19,7 +19,6 @@ package com.google.samples.apps.topeka.widget.quiz;
 import android.annotation.SuppressLint;
 import android.content.Context;
 import android.os.Bundle;
-import android.util.SparseBooleanArray;
 import android.view.View;
 import android.widget.AbsListView;
 import android.widget.AdapterView;
@@ -28,8 +27,8 @@ import android.widget.ListView;
 
 import com.google.samples.apps.topeka.R;
 import com.google.samples.apps.topeka.adapter.OptionsQuizAdapter;
-import com.google.samples.apps.topeka.helper.AnswerHelper;
 import com.google.samples.apps.topeka.model.Category;
+import com.google.samples.apps.topeka.model.quiz.OptionSelection;
 import com.google.samples.apps.topeka.model.quiz.SelectItemQuiz;
 
 @SuppressLint("ViewConstructor")
@@ -37,12 +36,12 @@ public class SelectItemQuizView extends AbsQuizView<SelectItemQuiz> {
 
     private static final String KEY_ANSWERS = "ANSWERS";
 
-    private boolean[] mAnswers;
+    private OptionSelection mSelection;
     private ListView mListView;
 
     public SelectItemQuizView(Context context, Category category, SelectItemQuiz quiz) {
         super(context, category, quiz);
-        mAnswers = getAnswers();
+        mSelection = quiz.createSelection();
     }
 
     @Override
@@ -59,7 +58,7 @@ public class SelectItemQuizView extends AbsQuizView<SelectItemQuiz> {
             @Override
             public void onItemClick(AdapterView<?> parent, View view, int position, long id) {
                 allowAnswer();
-                toggleAnswerFor(position);
+                mSelection.select(position);
             }
         });
         return mListView;
@@ -67,15 +66,13 @@ public class SelectItemQuizView extends AbsQuizView<SelectItemQuiz> {
 
     @Override
     protected boolean isAnswerCorrect() {
-        final SparseBooleanArray checkedItemPositions = mListView.getCheckedItemPositions();
-        final int[] answer = getQuiz().getAnswer();
-        return AnswerHelper.isAnswerCorrect(checkedItemPositions, answer);
+        return getQuiz().isAnswerCorrect(mSelection);
     }
 
     @Override
     public Bundle getUserInput() {
         Bundle bundle = new Bundle();
-        bundle.putBooleanArray(KEY_ANSWERS, mAnswers);
+        bundle.putParcelable(KEY_ANSWERS, mSelection);
         return bundle;
     }
 
@@ -84,24 +81,16 @@ public class SelectItemQuizView extends AbsQuizView<SelectItemQuiz> {
         if (savedInput == null) {
             return;
         }
-        mAnswers = savedInput.getBooleanArray(KEY_ANSWERS);
-        if (mAnswers == null) {
+        final OptionSelection selection = savedInput.getParcelable(KEY_ANSWERS);
+        if (selection == null) {
             return;
         }
         final ListAdapter adapter = mListView.getAdapter();
-        for (int i = 0; i < mAnswers.length; i++) {
-            mListView.performItemClick(mListView.getChildAt(i), i, adapter.getItemId(i));
-        }
-    }
-
-    private void toggleAnswerFor(int answerId) {
-        getAnswers()[answerId] = !mAnswers[answerId];
-    }
-
-    private boolean[] getAnswers() {
-        if (null == mAnswers) {
-            mAnswers = new boolean[getQuiz().getOptions().length];
+        final int optionCount = selection.getOptionCount();
+        for (int i = 0; i < optionCount; i++) {
+            if (selection.isSelected(i)) {
+                mListView.performItemClick(mListView.getChildAt(i), i, adapter.getItemId(i));
+            }
         }
-        return mAnswers;
     }
 }
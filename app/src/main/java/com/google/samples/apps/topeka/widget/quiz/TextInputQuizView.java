@@ -34,6 +34,8 @@ import com.google.samples.apps.topeka.model.quiz.Quiz;
 public abstract class TextInputQuizView<Q extends Quiz> extends AbsQuizView<Q>
         implements TextWatcher, TextView.OnEditorActionListener {
 
+    private boolean mInputCorrect;
+
     public TextInputQuizView(Context context, Category category, Q quiz) {
         super(context, category, quiz);
     }
@@ -94,5 +96,20 @@ public abstract class TextInputQuizView<Q extends Quiz> extends AbsQuizView<Q>
     @Override
     public void afterTextChanged(Editable s) {
         allowAnswer(!TextUtils.isEmpty(s));
+        mInputCorrect = isInputCorrect();
+    }
+
+    /**
+     * Checks the current input against the quiz's answer. Runs on every keystroke, so it
+     * should not allocate.
+     *
+     * @return <code>true</code> if the input is correct.
+     */
+    protected abstract boolean isInputCorrect();
+
+    @Override
+    protected final boolean isAnswerCorrect() {
+        // the input has been checked as it was typed
+        return mInputCorrect;
     }
 }
@@ -19,7 +19,6 @@ package com.google.samples.apps.topeka.widget.quiz;
 import android.annotation.SuppressLint;
 import android.content.Context;
 import android.os.Bundle;
-import android.util.SparseBooleanArray;
 import android.view.View;
 import android.widget.AbsListView;
 import android.widget.AdapterView;
@@ -29,8 +28,8 @@ import android.widget.ListView;
 
 import com.google.samples.apps.topeka.R;
 import com.google.samples.apps.topeka.adapter.OptionsQuizAdapter;
-import com.google.samples.apps.topeka.helper.AnswerHelper;
 import com.google.samples.apps.topeka.model.Category;
+import com.google.samples.apps.topeka.model.quiz.OptionSelection;
 import com.google.samples.apps.topeka.model.quiz.ToggleTranslateQuiz;
 
 @SuppressLint("ViewConstructor")
@@ -38,16 +37,12 @@ public class ToggleTranslateQuizView extends AbsQuizView<ToggleTranslateQuiz> {
 
     private static final String KEY_ANSWERS = "ANSWERS";
 
-    private boolean[] mAnswers;
+    private OptionSelection mSelection;
     private ListView mListView;
 
     public ToggleTranslateQuizView(Context context, Category category, ToggleTranslateQuiz quiz) {
         super(context, category, quiz);
-        initAnswerSpace();
-    }
-
-    private void initAnswerSpace() {
-        mAnswers = new boolean[getQuiz().getOptions().length];
+        mSelection = quiz.createSelection();
     }
 
     @Override
@@ -61,9 +56,9 @@ public class ToggleTranslateQuizView extends AbsQuizView<ToggleTranslateQuiz> {
         mListView.setOnItemClickListener(new AdapterView.OnItemClickListener() {
             @Override
             public void onItemClick(AdapterView<?> parent, View view, int position, long id) {
-                toggleAnswerFor(position);
+                mSelection.toggle(position);
                 if (view instanceof CompoundButton) {
-                    ((CompoundButton) view).setChecked(mAnswers[position]);
+                    ((CompoundButton) view).setChecked(mSelection.isSelected(position));
                 }
 
                 allowAnswer();
@@ -74,15 +69,13 @@ public class ToggleTranslateQuizView extends AbsQuizView<ToggleTranslateQuiz> {
 
     @Override
     protected boolean isAnswerCorrect() {
-        final SparseBooleanArray checkedItemPositions = mListView.getCheckedItemPositions();
-        final int[] answer = getQuiz().getAnswer();
-        return AnswerHelper.isAnswerCorrect(checkedItemPositions, answer);
+        return getQuiz().isAnswerCorrect(mSelection);
     }
 
     @Override
     public Bundle getUserInput() {
         Bundle bundle = new Bundle();
-        bundle.putBooleanArray(KEY_ANSWERS, mAnswers);
+        bundle.putParcelable(KEY_ANSWERS, mSelection);
         return bundle;
     }
 
@@ -91,18 +84,18 @@ public class ToggleTranslateQuizView extends AbsQuizView<ToggleTranslateQuiz> {
         if (savedInput == null) {
             return;
         }
-        mAnswers = savedInput.getBooleanArray(KEY_ANSWERS);
-        if (mAnswers == null) {
-            initAnswerSpace();
+        final OptionSelection selection = savedInput.getParcelable(KEY_ANSWERS);
+        if (selection == null) {
             return;
         }
+        // Clicking toggles the options again, starting from an empty selection.
+        mSelection.clear();
         ListAdapter adapter = mListView.getAdapter();
-        for (int i = 0; i < mAnswers.length; i++) {
-            mListView.performItemClick(mListView.getChildAt(i), i, adapter.getItemId(i));
+        final int optionCount = selection.getOptionCount();
+        for (int i = 0; i < optionCount; i++) {
+            if (selection.isSelected(i)) {
+                mListView.performItemClick(mListView.getChildAt(i), i, adapter.getItemId(i));
+            }
         }
     }
-
-    private void toggleAnswerFor(int answerId) {
-        mAnswers[answerId] = !mAnswers[answerId];
-    }
 }
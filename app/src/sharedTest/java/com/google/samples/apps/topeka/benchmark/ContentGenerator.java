@@ -0,0 +1,274 @@
+/*
+ * Copyright 2015 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.samples.apps.topeka.benchmark;
+
+import com.google.samples.apps.topeka.model.JsonAttributes;
+import com.google.samples.apps.topeka.model.JsonAttributes.QuizType;
+import com.google.samples.apps.topeka.model.Theme;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Random;
+
+/**
+ * Generates content in the format of <code>res/raw/categories.json</code> at arbitrary sizes.
+ * <p>
+ * Every {@link QuizType} is contained in each category that has at least as many quizzes as
+ * there are types. The output only depends on the seed and the requested sizes, so results
+ * of runs with the same parameters can be compared. Quiz types are only referred to by their
+ * json names, as loading the quiz classes requires the Android framework.
+ * </p>
+ * Can be run from the command line through <code>./gradlew generateContent</code>, see
+ * {@link #main(String[])}.
+ */
+public final class ContentGenerator {
+
+    public static final long DEFAULT_SEED = 20150616L;
+
+    private static final String[] WORDS = {"alpha", "bravo", "charlie", "delta", "echo",
+            "foxtrot", "golf", "hotel", "india", "juliett", "kilo", "lima", "mike", "november",
+            "oscar", "papa", "quebec", "romeo", "sierra", "tango", "uniform", "victor",
+            "whiskey", "xray", "yankee", "zulu"};
+    private static final String[] TYPES = {QuizType.ALPHA_PICKER, QuizType.FILL_BLANK,
+            QuizType.FILL_TWO_BLANKS, QuizType.FOUR_QUARTER, QuizType.MULTI_SELECT,
+            QuizType.PICKER, QuizType.SINGLE_SELECT, QuizType.SINGLE_SELECT_ITEM,
+            QuizType.TOGGLE_TRANSLATE, QuizType.TRUE_FALSE};
+    private static final Theme[] THEMES = Theme.values();
+
+    private final long mSeed;
+    private Random mRandom;
+
+    public ContentGenerator(long seed) {
+        mSeed = seed;
+    }
+
+    /**
+     * Generates content and keeps it in memory.
+     *
+     * @param categoryCount The number of categories to generate.
+     * @param quizzesPerCategory The number of quizzes within each category.
+     * @return The content as json.
+     */
+    public String generate(int categoryCount, int quizzesPerCategory) {
+        StringWriter out = new StringWriter();
+        try {
+            write(out, categoryCount, quizzesPerCategory);
+        } catch (IOException e) {
+            throw new IllegalStateException("StringWriter failed", e);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Streams content to a writer, so large sizes can be generated without holding them in
+     * memory.
+     *
+     * @param out The writer to write the json to.
+     * @param categoryCount The number of categories to generate.
+     * @param quizzesPerCategory The number of quizzes within each category.
+     * @throws IOException If writing fails.
+     */
+    public void write(Writer out, int categoryCount, int quizzesPerCategory) throws IOException {
+        mRandom = new Random(mSeed);
+        out.write('[');
+        for (int i = 0; i < categoryCount; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            writeCategory(out, i, quizzesPerCategory);
+        }
+        out.write(']');
+        out.flush();
+    }
+
+    /**
+     * @return The id of the category generated at the given position.
+     */
+    public static String getCategoryId(int categoryIndex) {
+        return "generated" + categoryIndex;
+    }
+
+    private void writeCategory(Writer out, int categoryIndex, int quizCount) throws IOException {
+        out.write('{');
+        writeField(out, JsonAttributes.NAME, quote("Category " + categoryIndex));
+        writeNextField(out, JsonAttributes.ID, quote(getCategoryId(categoryIndex)));
+        writeNextField(out, JsonAttributes.THEME,
+                quote(THEMES[categoryIndex % THEMES.length].name()));
+        writeNextField(out, JsonAttributes.SOLVED, quote("false"));
+        StringBuilder scores = new StringBuilder("[");
+        for (int i = 0; i < quizCount; i++) {
+            scores.append(i == 0 ? "0" : ",0");
+        }
+        writeNextField(out, JsonAttributes.SCORES, scores.append(']').toString());
+        out.write(",\"" + JsonAttributes.QUIZZES + "\":[");
+        for (int i = 0; i < quizCount; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            // Rotate the types per category, so small categories still cover all of them.
+            writeQuiz(out, TYPES[(categoryIndex + i) % TYPES.length], categoryIndex, i);
+        }
+        out.write("]}");
+    }
+
+    private void writeQuiz(Writer out, String type, int categoryIndex, int quizIndex)
+            throws IOException {
+        out.write('{');
+        writeField(out, JsonAttributes.TYPE, quote(type));
+        // Questions have to be unique, as they identify quizzes when they are updated.
+        writeNextField(out, JsonAttributes.QUESTION, quote("Question " + categoryIndex + "."
+                + quizIndex + ": " + words(4 + mRandom.nextInt(8)) + "?"));
+        switch (type) {
+            case QuizType.ALPHA_PICKER:
+                writeNextField(out, JsonAttributes.ANSWER,
+                        quote(String.valueOf((char) ('A' + mRandom.nextInt(26)))));
+                break;
+            case QuizType.FILL_BLANK:
+                if (mRandom.nextBoolean()) {
+                    writeNextField(out, JsonAttributes.START, quote(words(2) + " "));
+                    writeNextField(out, JsonAttributes.END, quote(" " + words(2)));
+                }
+                writeNextField(out, JsonAttributes.ANSWER, quote(words(1)));
+                break;
+            case QuizType.FILL_TWO_BLANKS:
+                writeNextField(out, JsonAttributes.ANSWER,
+                        "[" + quote(words(1)) + "," + quote(words(1)) + "]");
+                break;
+            case QuizType.FOUR_QUARTER:
+                //fall-through intended
+            case QuizType.SINGLE_SELECT:
+                //fall-through intended
+            case QuizType.SINGLE_SELECT_ITEM:
+                writeNextField(out, JsonAttributes.OPTIONS, options(4));
+                writeNextField(out, JsonAttributes.ANSWER, "[" + mRandom.nextInt(4) + "]");
+                break;
+            case QuizType.MULTI_SELECT:
+                final int optionCount = 4 + mRandom.nextInt(4);
+                writeNextField(out, JsonAttributes.OPTIONS, options(optionCount));
+                writeNextField(out, JsonAttributes.ANSWER, multiSelectAnswer(optionCount));
+                break;
+            case QuizType.PICKER:
+                final int step = mRandom.nextBoolean() ? 1 : 5;
+                final int min = mRandom.nextInt(100) * step;
+                final int max = min + (10 + mRandom.nextInt(90)) * step;
+                writeNextField(out, JsonAttributes.MIN, String.valueOf(min));
+                writeNextField(out, JsonAttributes.MAX, String.valueOf(max));
+                if (step != 1) {
+                    writeNextField(out, JsonAttributes.STEP, String.valueOf(step));
+                }
+                writeNextField(out, JsonAttributes.ANSWER,
+                        String.valueOf(min + mRandom.nextInt((max - min) / step + 1) * step));
+                break;
+            case QuizType.TOGGLE_TRANSLATE:
+                StringBuilder translations = new StringBuilder("[");
+                for (int i = 0; i < 4; i++) {
+                    translations.append(i == 0 ? "[" : ",[").append(quote(words(1)))
+                            .append(',').append(quote(words(1))).append(']');
+                }
+                writeNextField(out, JsonAttributes.OPTIONS, translations.append(']').toString());
+                writeNextField(out, JsonAttributes.ANSWER, "[" + mRandom.nextInt(4) + "]");
+                break;
+            case QuizType.TRUE_FALSE:
+                writeNextField(out, JsonAttributes.ANSWER, String.valueOf(mRandom.nextBoolean()));
+                break;
+            default:
+                throw new IllegalArgumentException("Quiz type " + type + " is not supported");
+        }
+        out.write('}');
+    }
+
+    private String options(int count) {
+        StringBuilder options = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                options.append(',');
+            }
+            // The index keeps options distinct within a quiz.
+            options.append(quote(words(1 + mRandom.nextInt(3)) + " " + i));
+        }
+        return options.append(']').toString();
+    }
+
+    private String multiSelectAnswer(int optionCount) {
+        StringBuilder answer = new StringBuilder("[");
+        for (int i = 0; i < optionCount; i++) {
+            // Always select the first option, so there's at least one correct answer.
+            if (i == 0 || mRandom.nextBoolean()) {
+                answer.append(answer.length() == 1 ? "" : ",").append(i);
+            }
+        }
+        return answer.append(']').toString();
+    }
+
+    private String words(int count) {
+        StringBuilder words = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                words.append(' ');
+            }
+            words.append(WORDS[mRandom.nextInt(WORDS.length)]);
+        }
+        return words.toString();
+    }
+
+    private static String quote(String value) {
+        // Generated values only contain letters, digits and punctuation that needs no escaping.
+        return '"' + value + '"';
+    }
+
+    private static void writeField(Writer out, String name, String jsonValue)
+            throws IOException {
+        out.write('"');
+        out.write(name);
+        out.write("\":");
+        out.write(jsonValue);
+    }
+
+    private static void writeNextField(Writer out, String name, String jsonValue)
+            throws IOException {
+        out.write(',');
+        writeField(out, name, jsonValue);
+    }
+
+    /**
+     * Writes generated content to a file or the standard output.
+     *
+     * @param args <code>categoryCount quizzesPerCategory [seed] [outputFile]</code>
+     * @throws IOException If writing the content fails.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: ContentGenerator categoryCount quizzesPerCategory"
+                    + " [seed] [outputFile]");
+            System.exit(1);
+        }
+        final int categoryCount = Integer.parseInt(args[0]);
+        final int quizzesPerCategory = Integer.parseInt(args[1]);
+        final long seed = args.length > 2 ? Long.parseLong(args[2]) : DEFAULT_SEED;
+        Writer out = new BufferedWriter(args.length > 3
+                ? new OutputStreamWriter(new FileOutputStream(args[3]), "UTF-8")
+                : new OutputStreamWriter(System.out, "UTF-8"));
+        try {
+            new ContentGenerator(seed).write(out, categoryCount, quizzesPerCategory);
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.samples.apps.topeka.adapter;
+
+import android.test.suitebuilder.annotation.SmallTest;
+
+import com.google.samples.apps.topeka.helper.Alphabet;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@SmallTest
+public class OptionsQuizAdapterTest {
+
+    private static final Alphabet ALPHABET = new Alphabet(new String[]{"A", "B", "C"});
+
+    @Test
+    public void createPrefixedLabels_prefixesOptions() {
+        final String[] labels = OptionsQuizAdapter.createPrefixedLabels(
+                new String[]{"one", "two", "three"}, ALPHABET);
+        assertThat(labels, is(new String[]{"A. one", "B. two", "C. three"}));
+    }
+
+    @Test
+    public void createPrefixedLabels_beyondAlphabet_continuesWithMoreLetters() {
+        final String[] labels = OptionsQuizAdapter.createPrefixedLabels(
+                new String[]{"1", "2", "3", "4", "5", "6", "7", "8", "9", "10", "11", "12", "13"},
+                ALPHABET);
+        assertThat(labels[3], is("AA. 4"));
+        assertThat(labels[5], is("AC. 6"));
+        assertThat(labels[6], is("BA. 7"));
+        assertThat(labels[11], is("CC. 12"));
+        assertThat(labels[12], is("AAA. 13"));
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2015 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.samples.apps.topeka.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Minimal harness for microbenchmarks on the JVM.
+ * <p>
+ * Runs an operation in batches, first to warm up the JIT and then to measure. Reports the
+ * throughput of the measured batches and, where the JVM supports it, the bytes allocated per
+ * operation on the benchmark's thread. Results of each operation are consumed, so the JIT
+ * can't eliminate the measured code.
+ * </p>
+ * Benchmarks only run if the <code>topeka.benchmark</code> system property is set, which
+ * <code>./gradlew testDebugUnitTest -Pbenchmark</code> does.
+ */
+public final class Benchmark {
+
+    public static final String PROPERTY_ENABLED = "topeka.benchmark";
+
+    private static final int WARMUP_BATCHES = 5;
+    private static final int MEASURED_BATCHES = 10;
+    private static final long BATCH_DURATION_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
+    /**
+     * Keeps operation results reachable. Volatile so writes can't be elided.
+     */
+    private static volatile int sSink;
+
+    private Benchmark() {
+        //no instance
+    }
+
+    /**
+     * An operation to measure.
+     */
+    public interface Operation {
+
+        /**
+         * Runs the operation once.
+         *
+         * @param iteration The number of the invocation, can be used to vary the input.
+         * @return Any result of the operation, so it's not optimized away.
+         */
+        Object run(int iteration);
+    }
+
+    /**
+     * @return <code>true</code> if benchmarks have been requested for this test run.
+     */
+    public static boolean isEnabled() {
+        return Boolean.getBoolean(PROPERTY_ENABLED);
+    }
+
+    /**
+     * Warms up and measures an operation.
+     *
+     * @param name The name the result is reported with.
+     * @param operation The operation to measure.
+     * @return The measured result, which also has been printed to the standard output.
+     */
+    public static Result run(String name, Operation operation) {
+        // Find a batch size that takes roughly BATCH_DURATION_NANOS.
+        int batchSize = 1;
+        long elapsed;
+        while ((elapsed = runBatch(operation, batchSize)) < BATCH_DURATION_NANOS
+                && batchSize < Integer.MAX_VALUE / 2) {
+            batchSize *= 2;
+        }
+        batchSize = (int) Math.max(1, batchSize * BATCH_DURATION_NANOS / Math.max(1, elapsed));
+        for (int i = 0; i < WARMUP_BATCHES; i++) {
+            runBatch(operation, batchSize);
+        }
+
+        final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        final long allocatedBefore = getAllocatedBytes(threadBean);
+        long totalNanos = 0;
+        for (int i = 0; i < MEASURED_BATCHES; i++) {
+            totalNanos += runBatch(operation, batchSize);
+        }
+        final long allocatedAfter = getAllocatedBytes(threadBean);
+
+        final long operations = (long) batchSize * MEASURED_BATCHES;
+        final double opsPerSecond = operations * (double) TimeUnit.SECONDS.toNanos(1)
+                / totalNanos;
+        final double bytesPerOp = allocatedBefore < 0 || allocatedAfter < 0 ? Result.UNKNOWN
+                : (allocatedAfter - allocatedBefore) / (double) operations;
+        Result result = new Result(name, opsPerSecond, bytesPerOp);
+        System.out.println(result);
+        return result;
+    }
+
+    private static long runBatch(Operation operation, int batchSize) {
+        int sink = 0;
+        final long start = System.nanoTime();
+        for (int i = 0; i < batchSize; i++) {
+            final Object value = operation.run(i);
+            sink ^= value == null ? 0 : System.identityHashCode(value);
+        }
+        final long elapsed = System.nanoTime() - start;
+        sSink ^= sink;
+        return elapsed;
+    }
+
+    /**
+     * Reads the bytes allocated by the current thread, which is available on HotSpot based
+     * JVMs only.
+     */
+    private static long getAllocatedBytes(ThreadMXBean threadBean) {
+        if (threadBean instanceof com.sun.management.ThreadMXBean) {
+            final com.sun.management.ThreadMXBean hotSpotBean =
+                    (com.sun.management.ThreadMXBean) threadBean;
+            if (hotSpotBean.isThreadAllocatedMemorySupported()
+                    && hotSpotBean.isThreadAllocatedMemoryEnabled()) {
+                return hotSpotBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return (long) Result.UNKNOWN;
+    }
+
+    /**
+     * The outcome of a single benchmark.
+     */
+    public static final class Result {
+
+        public static final double UNKNOWN = -1;
+
+        private final String mName;
+        private final double mOpsPerSecond;
+        private final double mBytesPerOp;
+
+        Result(String name, double opsPerSecond, double bytesPerOp) {
+            mName = name;
+            mOpsPerSecond = opsPerSecond;
+            mBytesPerOp = bytesPerOp;
+        }
+
+        public String getName() {
+            return mName;
+        }
+
+        public double getOpsPerSecond() {
+            return mOpsPerSecond;
+        }
+
+        /**
+         * @return The allocated bytes per operation or {@link #UNKNOWN}.
+         */
+        public double getBytesPerOp() {
+            return mBytesPerOp;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%-50s %15.1f ops/s %12s B/op", mName,
+                    mOpsPerSecond, mBytesPerOp == UNKNOWN ? "n/a"
+                            : String.format(Locale.US, "%.1f", mBytesPerOp));
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2015 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.samples.apps.topeka.benchmark;
+
+import com.google.samples.apps.topeka.helper.AnswerHelper;
+import com.google.samples.apps.topeka.helper.JsonHelper;
+import com.google.samples.apps.topeka.model.Category;
+import com.google.samples.apps.topeka.model.Theme;
+import com.google.samples.apps.topeka.model.quiz.FillBlankQuiz;
+import com.google.samples.apps.topeka.model.quiz.Quiz;
+import com.google.samples.apps.topeka.model.quiz.SelectItemQuiz;
+import com.google.samples.apps.topeka.model.quiz.ToggleTranslateQuiz;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Measures the hot paths of the model and helper classes.
+ * Run with <code>./gradlew testDebugUnitTest -Pbenchmark</code>.
+ */
+public class ModelBenchmarkTest {
+
+    private static final int QUIZ_COUNT = 20;
+    private static final String INT_ARRAY_JSON = "[0,1,2,3,4,5,6,7]";
+    private static final String STRING_ARRAY_JSON =
+            "[\"Alpha\",\"Bravo\",\"Charlie\",\"Delta\",\"Echo\",\"Foxtrot\"]";
+    private static final String[] ANSWERS = {"Alpha", "Bravo", "Charlie", "Delta"};
+    private static final int[] ANSWER_IDS = {0, 2, 3};
+    private static final String[][] TRANSLATIONS = {{"one", "uno"}, {"two", "dos"},
+            {"three", "tres"}, {"four", "cuatro"}};
+
+    private List<Quiz> mQuizzes;
+    private List<Quiz> mEqualQuizzes;
+    private Category mCategory;
+
+    @Before
+    public void setUp() {
+        assumeTrue(Benchmark.isEnabled());
+        mQuizzes = createQuizzes();
+        mEqualQuizzes = createQuizzes();
+        mCategory = new Category("Benchmark", "benchmark", Theme.topeka, mQuizzes, false);
+    }
+
+    @Test
+    public void jsonArrayToIntArray() {
+        run("JsonHelper.jsonArrayToIntArray", new Benchmark.Operation() {
+            @Override
+            public Object run(int iteration) {
+                return JsonHelper.jsonArrayToIntArray(INT_ARRAY_JSON);
+            }
+        });
+    }
+
+    @Test
+    public void jsonArrayToStringArray() {
+        run("JsonHelper.jsonArrayToStringArray", new Benchmark.Operation() {
+            @Override
+            public Object run(int iteration) {
+                return JsonHelper.jsonArrayToStringArray(STRING_ARRAY_JSON);
+            }
+        });
+    }
+
+    @Test
+    public void getAnswer() {
+        run("AnswerHelper.getAnswer(String[])", new Benchmark.Operation() {
+            @Override
+            public Object run(int iteration) {
+                return AnswerHelper.getAnswer(ANSWERS);
+            }
+        });
+    }
+
+    @Test
+    public void getAnswer_withOptions() {
+        run("AnswerHelper.getAnswer(int[], String[])", new Benchmark.Operation() {
+            @Override
+            public Object run(int iteration) {
+                return AnswerHelper.getAnswer(ANSWER_IDS, ANSWERS);
+            }
+        });
+    }
+
+    @Test
+    public void category_setScore() {
+        run("Category.setScore", new Benchmark.Operation() {
+            @Override
+            public Object run(int iteration) {
+                mCategory.setScore(mQuizzes.get(iteration % QUIZ_COUNT), iteration % 2 == 0);
+                return mCategory;
+            }
+        });
+    }
+
+    @Test
+    public void category_getScore() {
+        run("Category.getScore(Quiz)", new Benchmark.Operation() {
+            @Override
+            public Object run(int iteration) {
+                return mCategory.getScore(mQuizzes.get(iteration % QUIZ_COUNT));
+            }
+        });
+    }
+
+    @Test
+    public void quiz_equals() {
+        run("Quiz.equals", new Benchmark.Operation() {
+            @Override
+            public Object run(int iteration) {
+                final int index = iteration % QUIZ_COUNT;
+                return mQuizzes.get(index).equals(mEqualQuizzes.get(index));
+            }
+        });
+    }
+
+    @Test
+    public void quiz_hashCode() {
+        run("Quiz.hashCode", new Benchmark.Operation() {
+            @Override
+            public Object run(int iteration) {
+                return mQuizzes.get(iteration % QUIZ_COUNT).hashCode();
+            }
+        });
+    }
+
+    @Test
+    public void toggleTranslateQuiz_getReadableOptions() {
+        run("ToggleTranslateQuiz.getReadableOptions", new Benchmark.Operation() {
+            @Override
+            public Object run(int iteration) {
+                // A new quiz per operation, as the options are cached after the first call.
+                return new ToggleTranslateQuiz("Translate", ANSWER_IDS, TRANSLATIONS, false)
+                        .getReadableOptions();
+            }
+        });
+    }
+
+    private static void run(String name, Benchmark.Operation operation) {
+        Benchmark.Result result = Benchmark.run(name, operation);
+        assertThat(result.getOpsPerSecond() > 0, is(true));
+    }
+
+    private static List<Quiz> createQuizzes() {
+        List<Quiz> quizzes = new ArrayList<>(QUIZ_COUNT);
+        for (int i = 0; i < QUIZ_COUNT; i++) {
+            final String question = "Question " + i;
+            switch (i % 3) {
+                case 0:
+                    quizzes.add(new FillBlankQuiz(question, ANSWERS[i % ANSWERS.length],
+                            "Start", "end", false));
+                    break;
+                case 1:
+                    quizzes.add(new SelectItemQuiz(question, ANSWER_IDS, ANSWERS, false));
+                    break;
+                default:
+                    quizzes.add(new ToggleTranslateQuiz(question, ANSWER_IDS, TRANSLATIONS,
+                            false));
+                    break;
+            }
+        }
+        return quizzes;
+    }
+}
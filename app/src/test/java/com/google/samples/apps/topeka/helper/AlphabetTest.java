@@ -0,0 +1,59 @@
+/*
+ * Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.samples.apps.topeka.helper;
+
+import android.test.suitebuilder.annotation.SmallTest;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@SmallTest
+public class AlphabetTest {
+
+    private static final String[] LETTERS = new String[]{"A", "B", "C", "CH", "D"};
+
+    private final Alphabet mAlphabet = new Alphabet(LETTERS);
+
+    @Test
+    public void indexOf_singleChar() {
+        assertThat(mAlphabet.indexOf("A"), is(0));
+        assertThat(mAlphabet.indexOf("D"), is(4));
+    }
+
+    @Test
+    public void indexOf_severalChars() {
+        assertThat(mAlphabet.indexOf("CH"), is(3));
+        assertThat(mAlphabet.indexOf(new StringBuilder("CH")), is(3));
+    }
+
+    @Test
+    public void indexOf_unknownLetter() {
+        assertThat(mAlphabet.indexOf("a"), is(-1));
+        assertThat(mAlphabet.indexOf("\u00c4"), is(-1));
+        assertThat(mAlphabet.indexOf("AB"), is(-1));
+        assertThat(mAlphabet.indexOf(""), is(-1));
+        assertThat(mAlphabet.indexOf(null), is(-1));
+    }
+
+    @Test
+    public void get_returnsSameInstance() {
+        assertThat(mAlphabet.get(2), sameInstance(LETTERS[2]));
+        assertThat(mAlphabet.size(), is(LETTERS.length));
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.samples.apps.topeka.helper;
+
+import android.test.suitebuilder.annotation.SmallTest;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@SmallTest
+public class AnswerMatcherTest {
+
+    @Test
+    public void matches_ignoresCaseWhitespaceAndPunctuation() {
+        final AnswerMatcher matcher = new AnswerMatcher("Lady Gaga", 0);
+        assertThat(matcher.matches("  lady-GAGA! "), is(true));
+        assertThat(matcher.matches("ladygaga"), is(false));
+    }
+
+    @Test
+    public void matches_ignoresDiacritics() {
+        final AnswerMatcher matcher = new AnswerMatcher("Z\u00fcrich", 0);
+        assertThat(matcher.matches("zurich"), is(true));
+        assertThat(new AnswerMatcher("Stra\u00dfe", 0).matches("strasse"), is(true));
+    }
+
+    @Test
+    public void matches_acceptsTyposWithinTolerance() {
+        final AnswerMatcher matcher = new AnswerMatcher("Tchaikovsky", 2);
+        assertThat(matcher.matches("Tschaikowsky"), is(true));
+        assertThat(matcher.matches("Chaikovsky"), is(true));
+        assertThat(matcher.matches("Chaikowski"), is(false));
+    }
+
+    @Test
+    public void matches_rejectsTyposWithoutTolerance() {
+        final AnswerMatcher matcher = new AnswerMatcher("Mercury", 0);
+        assertThat(matcher.matches("mercury"), is(true));
+        assertThat(matcher.matches("mercurx"), is(false));
+    }
+
+    @Test
+    public void matches_differentLength_rejectedEarly() {
+        assertThat(new AnswerMatcher("Mercury", 1).matches("merc"), is(false));
+    }
+
+    @Test
+    public void matches_null_isFalse() {
+        assertThat(new AnswerMatcher("Mercury", 1).matches(null), is(false));
+    }
+
+    @Test
+    public void matches_reusedForLongerInput() {
+        final AnswerMatcher matcher = new AnswerMatcher("ab", 0);
+        assertThat(matcher.matches("a very long input that exceeds the buffer"), is(false));
+        assertThat(matcher.matches("AB"), is(true));
+    }
+
+    @Test
+    public void defaultTolerance_dependsOnLength() {
+        assertThat(new AnswerMatcher("Ode", AnswerMatcher.DEFAULT_TOLERANCE).getTolerance(),
+                is(0));
+        assertThat(new AnswerMatcher("Mercury", AnswerMatcher.DEFAULT_TOLERANCE).getTolerance(),
+                is(1));
+        assertThat(AnswerMatcher.getDefaultTolerance(100), is(3));
+    }
+}
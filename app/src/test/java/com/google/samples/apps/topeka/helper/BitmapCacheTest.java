@@ -0,0 +1,52 @@
+/*
+ * Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.samples.apps.topeka.helper;
+
+import android.test.suitebuilder.annotation.SmallTest;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@SmallTest
+public class BitmapCacheTest {
+
+    @Test
+    public void calculateInSampleSize_smallerSource_noSampling() {
+        assertThat(BitmapCache.calculateInSampleSize(100, 100, 200, 200), is(1));
+    }
+
+    @Test
+    public void calculateInSampleSize_sameSize_noSampling() {
+        assertThat(BitmapCache.calculateInSampleSize(200, 200, 200, 200), is(1));
+    }
+
+    @Test
+    public void calculateInSampleSize_largerSource_powerOfTwo() {
+        assertThat(BitmapCache.calculateInSampleSize(800, 800, 200, 200), is(4));
+    }
+
+    @Test
+    public void calculateInSampleSize_keepsAtLeastRequestedSize() {
+        assertThat(BitmapCache.calculateInSampleSize(799, 799, 200, 200), is(2));
+    }
+
+    @Test
+    public void calculateInSampleSize_limitedBySmallerDimension() {
+        assertThat(BitmapCache.calculateInSampleSize(1600, 400, 200, 200), is(2));
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.samples.apps.topeka.helper;
+
+import android.test.suitebuilder.annotation.SmallTest;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@SmallTest
+public class FrameMetricsCollectorTest {
+
+    private static final long FRAME_NANOS = 16000000;
+    private static final long JANK_FRAME_NANOS = FrameMetricsCollector.JANK_THRESHOLD_NANOS + 1;
+
+    @Test
+    public void frameStats_empty_noJankNoPercentiles() {
+        FrameMetricsCollector.FrameStats stats = new FrameMetricsCollector.FrameStats();
+        assertThat(stats.getFrameCount(), is(0));
+        assertThat(stats.getJankPercentage(), is(0f));
+        assertThat(stats.getPercentileMillis(50), is(0f));
+    }
+
+    @Test
+    public void frameStats_jankPercentage() {
+        FrameMetricsCollector.FrameStats stats = new FrameMetricsCollector.FrameStats();
+        for (int i = 0; i < 3; i++) {
+            stats.add(FRAME_NANOS);
+        }
+        stats.add(JANK_FRAME_NANOS);
+        assertThat(stats.getFrameCount(), is(4));
+        assertThat(stats.getJankPercentage(), is(25f));
+    }
+
+    @Test
+    public void frameStats_percentiles_nearestRank() {
+        FrameMetricsCollector.FrameStats stats = new FrameMetricsCollector.FrameStats();
+        // Add 1ms to 100ms in reverse order, so sorting is required.
+        for (int i = 100; i > 0; i--) {
+            stats.add(i * 1000000L);
+        }
+        assertThat(stats.getPercentileMillis(50), is(50f));
+        assertThat(stats.getPercentileMillis(90), is(90f));
+        assertThat(stats.getPercentileMillis(99), is(99f));
+        assertThat(stats.getPercentileMillis(100), is(100f));
+    }
+
+    @Test
+    public void frameStats_growsBeyondInitialCapacity() {
+        FrameMetricsCollector.FrameStats stats = new FrameMetricsCollector.FrameStats();
+        for (int i = 0; i < 1000; i++) {
+            stats.add(FRAME_NANOS);
+        }
+        assertThat(stats.getFrameCount(), is(1000));
+    }
+}
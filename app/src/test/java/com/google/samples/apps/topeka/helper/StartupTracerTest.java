@@ -0,0 +1,115 @@
+/*
+ * Copyright 2015 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.samples.apps.topeka.helper;
+
+import android.test.suitebuilder.annotation.SmallTest;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@SmallTest
+public class StartupTracerTest {
+
+    private static final String SEPARATOR = System.getProperty("line.separator");
+    private static final long THREAD = 1;
+    private static final long OTHER_THREAD = 2;
+
+    @Before
+    public void setUp() {
+        StartupTracer.reset();
+    }
+
+    @Test
+    public void section_recordsDuration() {
+        StartupTracer.recordSectionStart(StartupTracer.SECTION_DB_OPEN, THREAD, 100);
+        StartupTracer.recordSectionEnd(StartupTracer.SECTION_DB_OPEN, THREAD, 130);
+        assertThat(StartupTracer.getSectionDuration(StartupTracer.SECTION_DB_OPEN), is(30L));
+    }
+
+    @Test
+    public void section_notEnded_notRecorded() {
+        StartupTracer.recordSectionStart(StartupTracer.SECTION_DB_OPEN, THREAD, 100);
+        assertThat(StartupTracer.getSectionDuration(StartupTracer.SECTION_DB_OPEN), is(-1L));
+    }
+
+    @Test
+    public void section_endedWithoutBegin_notRecorded() {
+        StartupTracer.recordSectionEnd(StartupTracer.SECTION_DB_OPEN, THREAD, 100);
+        assertThat(StartupTracer.getSectionDuration(StartupTracer.SECTION_DB_OPEN), is(-1L));
+    }
+
+    @Test
+    public void section_endedOnOtherThread_notRecorded() {
+        StartupTracer.recordSectionStart(StartupTracer.SECTION_DB_OPEN, THREAD, 100);
+        StartupTracer.recordSectionEnd(StartupTracer.SECTION_DB_OPEN, OTHER_THREAD, 130);
+        assertThat(StartupTracer.getSectionDuration(StartupTracer.SECTION_DB_OPEN), is(-1L));
+    }
+
+    @Test
+    public void section_onSeveralThreads_firstEndedRecorded() {
+        StartupTracer.recordSectionStart(StartupTracer.SECTION_DB_OPEN, THREAD, 100);
+        StartupTracer.recordSectionStart(StartupTracer.SECTION_DB_OPEN, OTHER_THREAD, 110);
+        StartupTracer.recordSectionEnd(StartupTracer.SECTION_DB_OPEN, OTHER_THREAD, 150);
+        StartupTracer.recordSectionEnd(StartupTracer.SECTION_DB_OPEN, THREAD, 200);
+        assertThat(StartupTracer.getSectionDuration(StartupTracer.SECTION_DB_OPEN), is(40L));
+    }
+
+    @Test
+    public void section_onlyFirstOccurrenceRecorded() {
+        StartupTracer.recordSectionStart(StartupTracer.SECTION_CATEGORY_LOAD, THREAD, 100);
+        StartupTracer.recordSectionEnd(StartupTracer.SECTION_CATEGORY_LOAD, THREAD, 110);
+        StartupTracer.recordSectionStart(StartupTracer.SECTION_CATEGORY_LOAD, THREAD, 200);
+        StartupTracer.recordSectionEnd(StartupTracer.SECTION_CATEGORY_LOAD, THREAD, 300);
+        assertThat(StartupTracer.getSectionDuration(StartupTracer.SECTION_CATEGORY_LOAD),
+                is(10L));
+    }
+
+    @Test
+    public void milestone_relativeToFirstEvent() {
+        StartupTracer.recordMilestone(StartupTracer.MILESTONE_SIGN_IN_CREATED, 1000);
+        StartupTracer.recordSectionStart(StartupTracer.SECTION_DB_OPEN, THREAD, 1010);
+        StartupTracer.recordMilestone(StartupTracer.MILESTONE_FIRST_FRAME, 1250);
+        assertThat(StartupTracer.getMilestone(StartupTracer.MILESTONE_SIGN_IN_CREATED), is(0L));
+        assertThat(StartupTracer.getMilestone(StartupTracer.MILESTONE_FIRST_FRAME), is(250L));
+    }
+
+    @Test
+    public void milestone_onlyFirstOccurrenceRecorded() {
+        StartupTracer.recordMilestone(StartupTracer.MILESTONE_SIGN_IN_CREATED, 1000);
+        StartupTracer.recordMilestone(StartupTracer.MILESTONE_FIRST_FRAME, 1100);
+        StartupTracer.recordMilestone(StartupTracer.MILESTONE_FIRST_FRAME, 1500);
+        assertThat(StartupTracer.getMilestone(StartupTracer.MILESTONE_FIRST_FRAME), is(100L));
+    }
+
+    @Test
+    public void milestone_notReached() {
+        assertThat(StartupTracer.getMilestone(StartupTracer.MILESTONE_ENTER_TRANSITION),
+                is(-1L));
+    }
+
+    @Test
+    public void getReport_sectionsBeforeMilestones() {
+        StartupTracer.recordMilestone(StartupTracer.MILESTONE_SIGN_IN_CREATED, 0);
+        StartupTracer.recordSectionStart(StartupTracer.SECTION_PRE_FILL, THREAD, 5);
+        StartupTracer.recordSectionEnd(StartupTracer.SECTION_PRE_FILL, THREAD, 25);
+        assertThat(StartupTracer.getReport(), is("Startup timings (ms)"
+                + SEPARATOR + "section PreFill: 20"
+                + SEPARATOR + "milestone SignInCreated: 0"));
+    }
+}
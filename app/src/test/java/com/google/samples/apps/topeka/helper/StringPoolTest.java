@@ -0,0 +1,66 @@
+/*
+ * Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.samples.apps.topeka.helper;
+
+import android.test.suitebuilder.annotation.SmallTest;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@SmallTest
+public class StringPoolTest {
+
+    @After
+    public void tearDown() {
+        StringPool.setEnabled(true);
+        StringPool.clear();
+    }
+
+    @Test
+    public void intern_equalStrings_shareInstance() {
+        final String first = StringPool.intern(new String("option"));
+        final String second = StringPool.intern(new String("option"));
+        assertThat(second, sameInstance(first));
+    }
+
+    @Test
+    public void intern_array_replacesInPlace() {
+        final String pooled = StringPool.intern(new String("yes"));
+        final String[] values = new String[]{new String("yes"), "no"};
+        assertThat(StringPool.intern(values), sameInstance(values));
+        assertThat(values[0], sameInstance(pooled));
+    }
+
+    @Test
+    public void intern_null_returnsNull() {
+        assertThat(StringPool.intern((String) null), nullValue());
+        assertThat(StringPool.intern((String[]) null), nullValue());
+    }
+
+    @Test
+    public void intern_disabled_keepsInstances() {
+        StringPool.setEnabled(false);
+        final String value = new String("option");
+        StringPool.intern("option");
+        assertThat(StringPool.intern(value), sameInstance(value));
+        assertThat(StringPool.size(), is(0));
+    }
+}
@@ -17,6 +17,10 @@ package com.google.samples.apps.topeka.model.quiz;
 
 import android.test.suitebuilder.annotation.SmallTest;
 
+import com.google.samples.apps.topeka.helper.Alphabet;
+
+import org.junit.Test;
+
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 
@@ -30,6 +34,14 @@ public class AlphaPickerQuizTest extends AbsQuizTestCase<AlphaPickerQuiz> {
         assertThat(ANSWER, is(getQuiz().getAnswer()));
     }
 
+    @Test
+    public void isAnswerCorrect_byPosition() {
+        final Alphabet alphabet = new Alphabet(new String[]{"A", "B", "C"});
+        final AlphaPickerQuiz quiz = new AlphaPickerQuiz(QUESTION, "B", false);
+        assertThat(quiz.isAnswerCorrect(alphabet, 1), is(true));
+        assertThat(quiz.isAnswerCorrect(alphabet, 2), is(false));
+    }
+
     @Override
     public AlphaPickerQuiz getQuiz() {
         return new AlphaPickerQuiz(QUESTION, ANSWER, false);
@@ -39,6 +39,34 @@ public class FillBlankQuizTest extends AbsQuizTestCase<FillBlankQuiz> {
         assertThat(END, is(getQuiz().getEnd()));
     }
 
+    @Test
+    public void isAnswerCorrect_acceptsTypoInLongAnswer() {
+        final FillBlankQuiz quiz = new FillBlankQuiz(QUESTION, "Mercury", START, END, false);
+        assertThat(quiz.isAnswerCorrect("Mercurx"), is(true));
+        assertThat(quiz.isAnswerCorrect("Mars"), is(false));
+    }
+
+    @Test
+    public void isAnswerCorrect_respectsTolerance() {
+        final FillBlankQuiz quiz = new FillBlankQuiz(QUESTION, "Mercury", START, END, false, 0);
+        assertThat(quiz.getTolerance(), is(0));
+        assertThat(quiz.isAnswerCorrect("Mercurx"), is(false));
+        assertThat(quiz.isAnswerCorrect("MERCURY"), is(true));
+    }
+
+    @Test
+    public void copy_keepsAnswerAndTolerance() {
+        final FillBlankQuiz quiz = new FillBlankQuiz(QUESTION, "Mercury", START, END, false, 0);
+        final FillBlankQuiz copy = quiz.copy();
+        quiz.setSolved(true);
+        assertThat(copy.isSolved(), is(false));
+        assertThat(copy.getStart(), is(START));
+        assertThat(copy.getEnd(), is(END));
+        assertThat(copy.getTolerance(), is(0));
+        assertThat(copy.isAnswerCorrect("MERCURY"), is(true));
+        assertThat(copy.isAnswerCorrect("Mercurx"), is(false));
+    }
+
     @Override
     public void quiz_answer_correctlyStored() {
         assertThat(ANSWER, is(getQuiz().getAnswer()));
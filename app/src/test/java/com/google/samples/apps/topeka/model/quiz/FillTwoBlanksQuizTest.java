@@ -17,12 +17,31 @@ package com.google.samples.apps.topeka.model.quiz;
 
 import android.test.suitebuilder.annotation.SmallTest;
 
+import org.junit.Test;
+
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 @SmallTest
 public class FillTwoBlanksQuizTest extends AbsQuizTestCase<FillTwoBlanksQuiz> {
 
+    @Test
+    public void isAnswerCorrect_checksAllBlanks() {
+        final FillTwoBlanksQuiz quiz = new FillTwoBlanksQuiz(QUESTION,
+                new String[]{"Romeo", "Juliet"}, false, 1);
+        assertThat(quiz.isAnswerCorrect(new String[]{"romeo", "juliett"}), is(true));
+        assertThat(quiz.isAnswerCorrect(new String[]{"romeo", "hamlet"}), is(false));
+        assertThat(quiz.isAnswerCorrect(new String[]{"romeo"}), is(false));
+    }
+
+    @Test
+    public void matches_checksSingleBlank() {
+        final FillTwoBlanksQuiz quiz = new FillTwoBlanksQuiz(QUESTION,
+                new String[]{"Romeo", "Juliet"}, false, 0);
+        assertThat(quiz.matches(1, "JULIET"), is(true));
+        assertThat(quiz.matches(0, "Juliet"), is(false));
+    }
+
     @Override
     public void quiz_answer_correctlyStored() {
         assertThat(STRING_ARRAY, is(getQuiz().getAnswer()));
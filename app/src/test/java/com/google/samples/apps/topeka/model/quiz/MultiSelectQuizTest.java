@@ -17,12 +17,27 @@ package com.google.samples.apps.topeka.model.quiz;
 
 import android.test.suitebuilder.annotation.SmallTest;
 
+import org.junit.Test;
+
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 @SmallTest
 public class MultiSelectQuizTest extends AbsQuizTestCase<MultiSelectQuiz> {
 
+    @Test
+    public void isAnswerCorrect_withSelection() {
+        final MultiSelectQuiz quiz = getQuiz();
+        final OptionSelection selection = quiz.createSelection();
+        selection.set(2, true);
+        selection.set(0, true);
+        assertThat(quiz.isAnswerCorrect(selection), is(false));
+        selection.set(1, true);
+        assertThat(quiz.isAnswerCorrect(selection), is(true));
+        selection.set(3, true);
+        assertThat(quiz.isAnswerCorrect(selection), is(false));
+    }
+
     @Override
     public void quiz_answer_correctlyStored() {
         assertThat(INT_ARRAY, is(getQuiz().getAnswer()));
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.samples.apps.topeka.model.quiz;
+
+import android.test.suitebuilder.annotation.SmallTest;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@SmallTest
+public class OptionSelectionTest {
+
+    @Test
+    public void newSelection_isEmpty() {
+        assertThat(new OptionSelection(4).isEmpty(), is(true));
+        assertThat(new OptionSelection(100).isEmpty(), is(true));
+    }
+
+    @Test
+    public void toggle_selectsAndDeselects() {
+        final OptionSelection selection = new OptionSelection(4);
+        selection.toggle(2);
+        assertThat(selection.isSelected(2), is(true));
+        assertThat(selection.isSelected(1), is(false));
+        selection.toggle(2);
+        assertThat(selection.isEmpty(), is(true));
+    }
+
+    @Test
+    public void select_keepsSingleOption() {
+        final OptionSelection selection = OptionSelection.of(new int[]{0, 3}, 4);
+        selection.select(1);
+        assertThat(selection, is(OptionSelection.of(new int[]{1}, 4)));
+    }
+
+    @Test
+    public void equals_ignoresOrderOfOptions() {
+        assertThat(OptionSelection.of(new int[]{2, 0}, 4),
+                is(OptionSelection.of(new int[]{0, 2}, 4)));
+        assertThat(OptionSelection.of(new int[]{2, 0}, 4),
+                not(OptionSelection.of(new int[]{0, 2, 3}, 4)));
+    }
+
+    @Test
+    public void manyOptions_fallBackToWords() {
+        final int optionCount = OptionSelection.MASK_SIZE * 2 + 1;
+        final OptionSelection selection = new OptionSelection(optionCount);
+        selection.set(1, true);
+        selection.set(OptionSelection.MASK_SIZE + 1, true);
+        selection.set(optionCount - 1, true);
+        assertThat(selection.isSelected(1), is(true));
+        assertThat(selection.isSelected(OptionSelection.MASK_SIZE + 1), is(true));
+        assertThat(selection.isSelected(2), is(false));
+        assertThat(selection.isSelected(optionCount - 1), is(true));
+        assertThat(selection, is(OptionSelection.of(
+                new int[]{optionCount - 1, OptionSelection.MASK_SIZE + 1, 1}, optionCount)));
+        assertThat(selection, not(OptionSelection.of(new int[]{1}, optionCount)));
+        selection.clear();
+        assertThat(selection.isEmpty(), is(true));
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2015 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.samples.apps.topeka.persistence;
+
+import android.test.suitebuilder.annotation.SmallTest;
+
+import com.google.samples.apps.topeka.model.Category;
+import com.google.samples.apps.topeka.model.Theme;
+import com.google.samples.apps.topeka.model.quiz.Quiz;
+import com.google.samples.apps.topeka.model.quiz.TrueFalseQuiz;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@SmallTest
+public class CategoryCacheTest {
+
+    private static final Category FOOD = createCategory("food", false);
+    private static final Category MUSIC = createCategory("music", false);
+
+    private CategoryCache mCache;
+
+    @Before
+    public void setUp() {
+        mCache = new CategoryCache();
+    }
+
+    private static Category createCategory(String id, boolean solved) {
+        return new Category(id, id, Theme.blue, new ArrayList<Quiz>(), solved);
+    }
+
+    @Test
+    public void get_initiallyNull() {
+        assertThat(mCache.get(), nullValue());
+    }
+
+    @Test
+    public void publish_setsSnapshot() {
+        final List<Category> snapshot =
+                mCache.publish(Arrays.asList(FOOD, MUSIC), mCache.getGeneration());
+        assertThat(mCache.get(), sameInstance(snapshot));
+        assertThat(snapshot.size(), is(2));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void publish_snapshotIsUnmodifiable() {
+        mCache.publish(new ArrayList<>(Arrays.asList(FOOD, MUSIC)), mCache.getGeneration())
+                .remove(0);
+    }
+
+    @Test
+    public void publish_afterInvalidate_isDropped() {
+        final int generation = mCache.getGeneration();
+        mCache.invalidate();
+        final List<Category> snapshot = mCache.publish(Arrays.asList(FOOD, MUSIC), generation);
+        assertThat(snapshot.size(), is(2));
+        assertThat(mCache.get(), nullValue());
+    }
+
+    @Test
+    public void publish_afterReplace_isDropped() {
+        mCache.publish(Arrays.asList(FOOD, MUSIC), mCache.getGeneration());
+        final int generation = mCache.getGeneration();
+        mCache.replace(MUSIC);
+        final List<Category> current = mCache.get();
+        mCache.publish(Arrays.asList(FOOD, MUSIC), generation);
+        assertThat(mCache.get(), sameInstance(current));
+    }
+
+    @Test
+    public void replace_copiesSnapshot() {
+        final List<Category> snapshot =
+                mCache.publish(Arrays.asList(FOOD, MUSIC), mCache.getGeneration());
+        final Category music = createCategory("music", false);
+        mCache.replace(music);
+        assertThat(snapshot.get(1), sameInstance(MUSIC));
+        assertThat(mCache.get().get(1), is(music));
+        assertThat(mCache.get().get(0), sameInstance(FOOD));
+    }
+
+    @Test
+    public void replace_storesCopy() {
+        mCache.publish(Arrays.asList(FOOD, MUSIC), mCache.getGeneration());
+        final Quiz quiz = new TrueFalseQuiz("Question", true, false);
+        final Category music = new Category("music", "music", Theme.blue,
+                new ArrayList<>(Arrays.asList(quiz)), false);
+        mCache.replace(music);
+        quiz.setSolved(true);
+        music.setScore(quiz, true);
+        music.setSolved(true);
+        final Category cached = mCache.get().get(1);
+        assertThat(cached, not(sameInstance(music)));
+        assertThat(cached.getQuizzes().get(0).isSolved(), is(false));
+        assertThat(cached.getScore(), is(0));
+        assertThat(cached.isSolved(), is(false));
+    }
+
+    @Test
+    public void replace_matchesById() {
+        mCache.publish(Arrays.asList(FOOD, MUSIC), mCache.getGeneration());
+        // e.g. a content update changed the category's quizzes
+        final Category music = new Category("music", "music", Theme.blue,
+                new ArrayList<>(Arrays.<Quiz>asList(new TrueFalseQuiz("New", true, true))),
+                true);
+        mCache.replace(music);
+        assertThat(mCache.get().get(1).isSolved(), is(true));
+    }
+
+    @Test
+    public void replace_unknownCategory_keepsSnapshot() {
+        final List<Category> snapshot =
+                mCache.publish(Arrays.asList(FOOD, MUSIC), mCache.getGeneration());
+        mCache.replace(createCategory("sports", false));
+        assertThat(mCache.get(), sameInstance(snapshot));
+    }
+
+    @Test
+    public void invalidate_dropsSnapshot() {
+        mCache.publish(Arrays.asList(FOOD, MUSIC), mCache.getGeneration());
+        mCache.invalidate();
+        assertThat(mCache.get(), nullValue());
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.samples.apps.topeka.persistence;
+
+import android.test.suitebuilder.annotation.SmallTest;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@SmallTest
+public class DatabaseMetricsTest {
+
+    @Before
+    public void resetMetrics() {
+        DatabaseMetrics.reset();
+        DatabaseMetrics.setEnabled(true);
+    }
+
+    @Test
+    public void getBucket_powersOfTwo() {
+        assertThat(DatabaseMetrics.getBucket(0), is(0));
+        assertThat(DatabaseMetrics.getBucket(1), is(0));
+        assertThat(DatabaseMetrics.getBucket(2), is(1));
+        assertThat(DatabaseMetrics.getBucket(3), is(1));
+        assertThat(DatabaseMetrics.getBucket(1024), is(10));
+    }
+
+    @Test
+    public void getBucket_clampsToLastBucket() {
+        assertThat(DatabaseMetrics.getBucket(Long.MAX_VALUE),
+                is(DatabaseMetrics.BUCKET_COUNT - 1));
+    }
+
+    @Test
+    public void getPercentileMicros_empty_zero() {
+        assertThat(DatabaseMetrics.getPercentileMicros(new long[DatabaseMetrics.BUCKET_COUNT],
+                50), is(0L));
+    }
+
+    @Test
+    public void getPercentileMicros_upperBoundOfBucket() {
+        long[] histogram = new long[DatabaseMetrics.BUCKET_COUNT];
+        histogram[3] = 90;
+        histogram[10] = 10;
+        assertThat(DatabaseMetrics.getPercentileMicros(histogram, 50), is(16L));
+        assertThat(DatabaseMetrics.getPercentileMicros(histogram, 90), is(16L));
+        assertThat(DatabaseMetrics.getPercentileMicros(histogram, 91), is(2048L));
+    }
+
+    @Test
+    public void end_countsCallsAndRows() {
+        final DatabaseMetrics.Operation operation = DatabaseMetrics.Operation.UPDATE_QUIZZES;
+        DatabaseMetrics.end(operation, DatabaseMetrics.begin(), 3);
+        DatabaseMetrics.end(operation, DatabaseMetrics.begin(), 4);
+        assertThat(DatabaseMetrics.getCallCount(operation), is(2L));
+        assertThat(DatabaseMetrics.getRowCount(operation), is(7L));
+        long measured = 0;
+        for (long count : DatabaseMetrics.getHistogram(operation)) {
+            measured += count;
+        }
+        assertThat(measured, is(2L));
+    }
+
+    @Test
+    public void end_disabled_countsWithoutLatencies() {
+        DatabaseMetrics.setEnabled(false);
+        final DatabaseMetrics.Operation operation = DatabaseMetrics.Operation.RESET;
+        DatabaseMetrics.end(operation, DatabaseMetrics.begin(), 1);
+        assertThat(DatabaseMetrics.getCallCount(operation), is(1L));
+        assertThat(DatabaseMetrics.getPercentileMicros(operation, 100), is(0L));
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.samples.apps.topeka.persistence;
+
+import android.test.suitebuilder.annotation.SmallTest;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@SmallTest
+public class SearchQueryTest {
+
+    @Test
+    public void toMatchExpression_matchesWordsAsPrefixes() {
+        assertThat(SearchQuery.toMatchExpression("capital of"), is("capital* of*"));
+    }
+
+    @Test
+    public void toMatchExpression_ignoresQuerySyntax() {
+        assertThat(SearchQuery.toMatchExpression("\"Rome\" OR -Paris*"), is("rome* or* paris*"));
+    }
+
+    @Test
+    public void toMatchExpression_keepsNonAsciiLetters() {
+        assertThat(SearchQuery.toMatchExpression(" Z\u00fcrich 1848 "), is("z\u00fcrich* 1848*"));
+    }
+
+    @Test
+    public void toMatchExpression_tooShort_isNull() {
+        assertThat(SearchQuery.toMatchExpression(""), is(nullValue()));
+        assertThat(SearchQuery.toMatchExpression("a"), is(nullValue()));
+        assertThat(SearchQuery.toMatchExpression("a b ("), is(nullValue()));
+    }
+}